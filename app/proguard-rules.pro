@@ -14,8 +14,19 @@
 
 # Uncomment this to preserve the line number information for
 # debugging stack traces.
-#-keepattributes SourceFile,LineNumberTable
+-keepattributes SourceFile,LineNumberTable
 
 # If you keep the line number information, uncomment this to
 # hide the original source file name.
-#-renamesourcefileattribute SourceFile
\ No newline at end of file
+-renamesourcefileattribute SourceFile
+
+# Realtime Database models are mapped by reflection (getValue(Class) / setValue(Object)).
+# Every class annotated with @DatabaseModel keeps its no-argument constructor, fields and
+# accessors under their original names; new models are covered by adding the annotation.
+# Signature keeps generic field types, *Annotation* keeps @Exclude / @PropertyName.
+-keepattributes Signature,*Annotation*
+-keep @com.example.project.DatabaseModel class * {
+    public <init>();
+    <fields>;
+    public <methods>;
+}
@@ -0,0 +1,114 @@
+package com.example.project;
+
+import android.content.Context;
+import android.util.Log;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Counts {@code onBindViewHolder} calls caused by a single-row update of a 2,000-row list, once
+ * through the diffing {@link ViewSubmittedRequestsActivity.SubmittedRequestAdapter} and once
+ * through a full {@code notifyDataSetChanged()} as the adapter used to do.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AdapterBindCountBenchmark {
+
+    private static final String TAG = "AdapterBindCount";
+    private static final int ROWS = 2000;
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    /**
+     * Adapter that counts how many rows were bound.
+     */
+    private static class CountingAdapter extends ViewSubmittedRequestsActivity.SubmittedRequestAdapter {
+        int binds;
+
+        @Override
+        public void onBindViewHolder(@NonNull ViewSubmittedRequestsActivity.SubmittedRequestViewHolder holder, int position) {
+            binds++;
+            super.onBindViewHolder(holder, position);
+        }
+    }
+
+    private RecyclerView recyclerView;
+    private CountingAdapter adapter;
+
+    @Before
+    public void setUp() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            Context context = new ContextThemeWrapper(
+                    InstrumentationRegistry.getInstrumentation().getTargetContext(), R.style.Theme_Project);
+            recyclerView = new RecyclerView(context);
+            recyclerView.setLayoutManager(new LinearLayoutManager(context));
+            recyclerView.setItemAnimator(null); // Count binds, not animation frames
+            adapter = new CountingAdapter();
+            recyclerView.setAdapter(adapter);
+        });
+    }
+
+    private static List<ViewSubmittedRequestsActivity.SubmittedRequest> rows(int changedIndex) {
+        List<ViewSubmittedRequestsActivity.SubmittedRequest> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            String content = i == changedIndex ? "תוכן מעודכן " + i : "תוכן " + i;
+            ViewSubmittedRequestsActivity.SubmittedRequest request = new ViewSubmittedRequestsActivity.SubmittedRequest(
+                    content, "דייר " + i, String.valueOf(i % 40), "01/01/2025", "10:00", i, true, "uid" + i, "B1");
+            request.setKey("key" + i);
+            rows.add(request);
+        }
+        return rows;
+    }
+
+    private void submitAndWait(List<ViewSubmittedRequestsActivity.SubmittedRequest> rows) throws InterruptedException {
+        CountDownLatch committed = new CountDownLatch(1);
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> adapter.submitList(rows, committed::countDown));
+        assertTrue(committed.await(10, TimeUnit.SECONDS));
+    }
+
+    private void layout() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            recyclerView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+            recyclerView.layout(0, 0, WIDTH, HEIGHT);
+        });
+    }
+
+    @Test
+    public void singleRowUpdate_bindCounts() throws InterruptedException {
+        submitAndWait(rows(-1));
+        layout();
+
+        // Diffed update of one visible row
+        adapter.binds = 0;
+        submitAndWait(rows(2));
+        layout();
+        int diffedBinds = adapter.binds;
+
+        // Full rebind, as with notifyDataSetChanged()
+        adapter.binds = 0;
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> adapter.notifyDataSetChanged());
+        layout();
+        int fullBinds = adapter.binds;
+
+        Log.i(TAG, "rows=" + ROWS + " diffedBinds=" + diffedBinds + " notifyDataSetChangedBinds=" + fullBinds);
+        assertEquals(1, diffedBinds);
+        assertTrue(fullBinds > diffedBinds);
+    }
+}
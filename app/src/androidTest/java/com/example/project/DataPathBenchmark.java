@@ -0,0 +1,139 @@
+package com.example.project;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.InternalHelpers;
+import com.google.firebase.database.snapshot.IndexedNode;
+import com.google.firebase.database.snapshot.NodeUtilities;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * androidx microbenchmarks of the data path on ART: mapping one snapshot to a model, formatting
+ * the date and time of a submit, and handling one new child in a list of {@link #LIST_SIZE}
+ * rows. The pure-JVM counterparts are in the {@code :jmh} module.
+ */
+@RunWith(AndroidJUnit4.class)
+public class DataPathBenchmark {
+
+    private static final int LIST_SIZE = 1000;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private DataSnapshot notification;
+    private DataSnapshot building;
+    private DataSnapshot newChild;
+    private String lastKey;
+
+    private static Map<String, Object> notificationData(int i) {
+        Map<String, Object> data = SnapshotMappers.notificationData("uid" + i, "דייר " + i, String.valueOf(i % 40),
+                "הודעה מספר " + i + ": עבודות תחזוקה בלובי", 1735725600000L);
+        data.put(SnapshotMappers.TIMESTAMP, (long) i); // As resolved by the server
+        return data;
+    }
+
+    private static DataSnapshot snapshot(DatabaseReference ref, Object json) {
+        return InternalHelpers.createDataSnapshot(ref, IndexedNode.from(NodeUtilities.NodeFromJSON(json)));
+    }
+
+    @Before
+    public void setUp() {
+        DatabaseReference ref = FirebaseDatabase.getInstance().getReference("benchmark");
+        notification = snapshot(ref.child("n0"), notificationData(0));
+
+        Map<String, Object> children = new LinkedHashMap<>();
+        for (int i = 0; i < LIST_SIZE; i++) {
+            children.put(String.format(Locale.ROOT, "n%06d", i), notificationData(i));
+        }
+        building = snapshot(ref, children);
+        lastKey = String.format(Locale.ROOT, "n%06d", LIST_SIZE - 1);
+        newChild = snapshot(ref.child(String.format(Locale.ROOT, "n%06d", LIST_SIZE)), notificationData(LIST_SIZE));
+    }
+
+    @Test
+    public void mapSnapshot_getValue() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            notification.getValue(ViewBuildingNotificationsActivity.BuildingNotification.class);
+        }
+    }
+
+    @Test
+    public void mapSnapshot_mapper() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            SnapshotMappers.toBuildingNotification(notification);
+        }
+    }
+
+    @Test
+    public void submitDateTime_newFormatters() {
+        Date now = new Date();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            // As in SubmitRequestFormActivity, RequestHelpActivity and PublishBuildingNotificationActivity
+            new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault()).format(now);
+            new SimpleDateFormat("HH:mm", Locale.getDefault()).format(now);
+        }
+    }
+
+    @Test
+    public void submitDateTime_reusedFormatters() {
+        Date now = new Date();
+        SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault());
+        SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm", Locale.getDefault());
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            dateFormat.format(now);
+            timeFormat.format(now);
+        }
+    }
+
+    @Test
+    public void newChild_rebuildOnDataChange() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            // The pre-feed onDataChange loop: every change maps the whole list again
+            List<ViewBuildingNotificationsActivity.BuildingNotification> list = new ArrayList<>();
+            for (DataSnapshot child : building.getChildren()) {
+                list.add(SnapshotMappers.toBuildingNotification(child));
+            }
+            list.add(SnapshotMappers.toBuildingNotification(newChild));
+        }
+    }
+
+    @Test
+    public void newChild_feedOnChildAdded() {
+        ChildEventFeed<ViewBuildingNotificationsActivity.BuildingNotification> feed =
+                new ChildEventFeed<>(SnapshotMappers::toBuildingNotification);
+        String previousKey = null;
+        for (DataSnapshot child : building.getChildren()) {
+            feed.onChildAdded(child, previousKey);
+            previousKey = child.getKey();
+        }
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            feed.onChildAdded(newChild, lastKey);
+            state.pauseTiming();
+            feed.remove(feed.size() - 1);
+            state.resumeTiming();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.project;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.InternalHelpers;
+import com.google.firebase.database.snapshot.IndexedNode;
+import com.google.firebase.database.snapshot.NodeUtilities;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares {@link SnapshotMappers#toBuildingNotification} with Firebase's reflective
+ * {@code DataSnapshot.getValue(Class)} on 10,000 in-memory notification snapshots.
+ *
+ * The first pass of each includes one-time costs such as the bean introspection of
+ * {@code getValue}; the second pass shows the steady state.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SnapshotMapperBenchmark {
+
+    private static final String TAG = "SnapshotMapperBenchmark";
+    private static final int SNAPSHOTS = 10_000;
+
+    private static List<DataSnapshot> snapshots() {
+        DatabaseReference ref = FirebaseDatabase.getInstance().getReference("benchmark");
+        List<DataSnapshot> snapshots = new ArrayList<>(SNAPSHOTS);
+        for (int i = 0; i < SNAPSHOTS; i++) {
+            Map<String, Object> json = SnapshotMappers.notificationData("uid" + i, "דייר " + i, String.valueOf(i % 40),
+                    "הודעה מספר " + i + ": עבודות תחזוקה בלובי", 1735725600000L);
+            json.put(SnapshotMappers.TIMESTAMP, (long) i); // As resolved by the server
+            snapshots.add(InternalHelpers.createDataSnapshot(ref.child("n" + i),
+                    IndexedNode.from(NodeUtilities.NodeFromJSON(json))));
+        }
+        return snapshots;
+    }
+
+    private static long reflective(List<DataSnapshot> snapshots) {
+        long start = SystemClock.elapsedRealtimeNanos();
+        long checksum = 0;
+        for (DataSnapshot snapshot : snapshots) {
+            checksum += snapshot.getValue(ViewBuildingNotificationsActivity.BuildingNotification.class).getTimestamp();
+        }
+        assertEquals(expectedChecksum(), checksum);
+        return SystemClock.elapsedRealtimeNanos() - start;
+    }
+
+    private static long mapped(List<DataSnapshot> snapshots) {
+        long start = SystemClock.elapsedRealtimeNanos();
+        long checksum = 0;
+        for (DataSnapshot snapshot : snapshots) {
+            checksum += SnapshotMappers.toBuildingNotification(snapshot).getTimestamp();
+        }
+        assertEquals(expectedChecksum(), checksum);
+        return SystemClock.elapsedRealtimeNanos() - start;
+    }
+
+    private static long expectedChecksum() {
+        return (long) SNAPSHOTS * (SNAPSHOTS - 1) / 2;
+    }
+
+    @Test
+    public void mapNotifications_reflectiveVsMapper() {
+        List<DataSnapshot> snapshots = snapshots();
+
+        long reflectiveFirst = reflective(snapshots);
+        long mappedFirst = mapped(snapshots);
+        long reflectiveWarm = reflective(snapshots);
+        long mappedWarm = mapped(snapshots);
+
+        Log.i(TAG, "snapshots=" + SNAPSHOTS
+                + " getValue first=" + reflectiveFirst / 1000 + "us warm=" + reflectiveWarm / 1000 + "us"
+                + " mapper first=" + mappedFirst / 1000 + "us warm=" + mappedWarm / 1000 + "us");
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.project;
+
+import android.app.Application;
+import android.content.Context;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.database.FirebaseDatabase;
+
+/**
+ * Application class of BinYan.
+ *
+ * Runs process-wide setup exactly once, before any activity touches Firebase.
+ */
+public class BinYanApplication extends Application {
+
+    private static BinYanApplication instance;
+
+    /**
+     * Returns the application context for process-wide components that outlive any activity,
+     * such as the local database.
+     *
+     * @return The application context.
+     */
+    public static Context getAppContext() {
+        return instance.getApplicationContext();
+    }
+
+    /**
+     * Called when the process starts. Configures the Realtime Database disk cache, which must be
+     * done before the first database reference is created, and then warms up Firebase on a
+     * background thread so the first screen does not pay for it.
+     */
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        instance = this;
+        connectEmulators();
+        OfflineSync.configure();
+        // Once per process, before any push or worker can post
+        NotificationPresenter.createChannels(this);
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                // Restores the signed-in user and opens the database connection and disk cache.
+                FirebaseAuth.getInstance().getCurrentUser();
+                FirebaseDatabase.getInstance().getReference();
+            }
+        }, "firebase-warmup").start();
+    }
+
+    /**
+     * Points Auth and the Realtime Database at the local Firebase emulators in builds that set
+     * {@code BuildConfig.FIREBASE_EMULATOR_HOST}, such as the {@code benchmark} build type.
+     * Like the persistence settings, this must happen before the first database reference.
+     */
+    private static void connectEmulators() {
+        String host = BuildConfig.FIREBASE_EMULATOR_HOST;
+        if (host.isEmpty()) {
+            return;
+        }
+        FirebaseAuth.getInstance().useEmulator(host, 9099);
+        FirebaseDatabase.getInstance().useEmulator(host, 9000);
+    }
+}
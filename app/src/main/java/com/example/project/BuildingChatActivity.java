@@ -0,0 +1,344 @@
+package com.example.project;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import android.os.Bundle;
+import android.text.TextUtils;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.EditText;
+import android.widget.ProgressBar;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
+
+/**
+ * The real-time chat of the user's building, stored under {@code chats/{buildingCode}}.
+ *
+ * Messages are ordered by their server timestamp and shown through a {@link PagedChildEventFeed}:
+ * the chat opens with the newest {@link #PAGE_SIZE} messages, read with {@code limitToLast} and
+ * kept live, and every new, edited or removed message is applied to the list as a single
+ * positional update. Older history is read a page at a time when the user scrolls to the top,
+ * continuing into the {@link HistoryArchive} one month at a time, so what the screen downloads and
+ * holds does not depend on how long the chat is. Outgoing messages go through a
+ * {@link ChatBatcher}.
+ */
+public class BuildingChatActivity extends AppCompatActivity {
+
+    /** Number of messages loaded per page; only the newest page is kept live. */
+    static final int PAGE_SIZE = 50;
+
+    private RecyclerView chatRecyclerView;
+    private TextView emptyChatTextView;
+    private ProgressBar chatProgressBar;
+    private EditText editTextMessage;
+    private Button buttonSendMessage;
+    private LinearLayoutManager layoutManager;
+
+    private String currentUserId;
+    private String currentUserFullName;
+    private MessageAdapter adapter;
+    private PagedChildEventFeed<message> chatFeed;
+    private HistoryArchive.Pager<message> archivePager;
+    private ChatBatcher batcher;
+
+    /**
+     * Called when the activity is first created. Sets up the list and the input bar, then loads
+     * the chat of the user's building from the {@link UserSession}.
+     *
+     * @param savedInstanceState If the activity is being re-initialized after
+     * previously being shut down then this Bundle contains the data it most
+     * recently supplied in {@link #onSaveInstanceState}.  <b>Note: Otherwise it is null.</b>
+     */
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_building_chat);
+
+        chatRecyclerView = findViewById(R.id.chatRecyclerView);
+        emptyChatTextView = findViewById(R.id.emptyChatTextView);
+        chatProgressBar = findViewById(R.id.chatProgressBar);
+        editTextMessage = findViewById(R.id.editTextMessage);
+        buttonSendMessage = findViewById(R.id.buttonSendMessage);
+
+        layoutManager = new LinearLayoutManager(this);
+        layoutManager.setStackFromEnd(true); // Open at the newest message
+        chatRecyclerView.setLayoutManager(layoutManager);
+
+        // Load the previous page when the user scrolls up to the oldest loaded message
+        chatRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy < 0 && !recyclerView.canScrollVertically(-1)) {
+                    loadOlderMessages();
+                }
+            }
+        });
+
+        buttonSendMessage.setEnabled(false);
+        buttonSendMessage.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                sendMessage();
+            }
+        });
+
+        chatProgressBar.setVisibility(View.VISIBLE);
+        loadSession();
+    }
+
+    /**
+     * Reads the user's building and name from the {@link UserSession} and opens the building's
+     * chat.
+     */
+    private void loadSession() {
+        UserSession session = UserSession.getInstance();
+        if (!session.startForCurrentUser()) {
+            handleError("משתמש לא מחובר."); // User not logged in.
+            finish();
+            return;
+        }
+        session.whenReady(new UserSession.Callback() {
+            @Override
+            public void onSessionReady(@NonNull UserSession session) {
+                String buildingCode = session.getBuildingCode();
+                if (!session.hasProfile() || buildingCode == null) {
+                    handleError("לא נמצא קוד בניין עבור משתמש זה."); // Building code not found for this user.
+                    finish();
+                    return;
+                }
+                currentUserId = session.getUserId();
+                currentUserFullName = session.getFullName();
+                batcher = new ChatBatcher(buildingCode, BuildingChatActivity.this,
+                        e -> handleError("שגיאה בשליחת הודעה: " + e.getMessage())); // Error sending message:
+                buttonSendMessage.setEnabled(true);
+                startChat(buildingCode);
+            }
+
+            @Override
+            public void onSessionError(@NonNull DatabaseError error) {
+                handleError("שגיאה בקבלת קוד בניין: " + error.getMessage()); // Error getting building code:
+            }
+        });
+    }
+
+    /**
+     * Attaches the live page of the chat and applies its child events to the list.
+     *
+     * @param buildingCode The user's building.
+     */
+    private void startChat(@NonNull String buildingCode) {
+        Query query = FirebaseDatabase.getInstance().getReference(FanOutWrite.CHATS_PATH).child(buildingCode)
+                .orderByChild(SnapshotMappers.TIMESTAMP);
+        chatFeed = new PagedChildEventFeed<>(query, PAGE_SIZE, SnapshotMappers::toMessage, message::getTimestamp);
+        archivePager = new HistoryArchive.Pager<>(HistoryArchive.TYPE_CHATS, buildingCode, chatFeed,
+                SnapshotMappers::toMessage, message::getTimestamp);
+        adapter = new MessageAdapter(chatFeed);
+        chatRecyclerView.setAdapter(adapter);
+
+        chatFeed.setCallback(new ChildEventFeed.Callback() {
+            @Override
+            public void onItemInserted(int position) {
+                boolean atBottom = isAtBottom();
+                adapter.notifyItemInserted(position);
+                updateEmptyState();
+                // Follow new messages only if the user is not reading older ones
+                if (atBottom && position == chatFeed.size() - 1) {
+                    chatRecyclerView.scrollToPosition(position);
+                }
+            }
+
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                adapter.notifyItemRangeInserted(positionStart, itemCount);
+                updateEmptyState();
+            }
+
+            @Override
+            public void onItemChanged(int position) {
+                adapter.notifyItemChanged(position);
+            }
+
+            @Override
+            public void onItemRemoved(int position) {
+                adapter.notifyItemRemoved(position);
+                updateEmptyState();
+            }
+
+            @Override
+            public void onItemMoved(int fromPosition, int toPosition) {
+                adapter.notifyItemMoved(fromPosition, toPosition);
+            }
+
+            @Override
+            public void onFeedError(@NonNull DatabaseError databaseError) {
+                handleError("שגיאה בטעינת הצ'אט: " + databaseError.getMessage()); // Error loading the chat:
+            }
+        });
+        chatFeed.start(new PagedChildEventFeed.PageListener() {
+            @Override
+            public void onPageLoaded(int itemCount, boolean hasMore) {
+                chatProgressBar.setVisibility(View.GONE);
+                updateEmptyState();
+            }
+
+            @Override
+            public void onPageError(@NonNull DatabaseError databaseError) {
+                handleError("שגיאה בטעינת הצ'אט: " + databaseError.getMessage()); // Error loading the chat:
+            }
+        });
+    }
+
+    /**
+     * Queues the typed message in the {@link ChatBatcher} and clears the input.
+     */
+    private void sendMessage() {
+        String text = editTextMessage.getText().toString().trim();
+        if (TextUtils.isEmpty(text) || batcher == null) {
+            return;
+        }
+        batcher.send(SnapshotMappers.messageData(currentUserId, currentUserFullName, text));
+        editTextMessage.setText("");
+        if (chatFeed != null && !chatFeed.isEmpty()) {
+            chatRecyclerView.scrollToPosition(chatFeed.size() - 1);
+        }
+    }
+
+    /**
+     * Loads the page of messages that precedes the oldest one on screen, if there is one, and
+     * then the archived months.
+     */
+    private void loadOlderMessages() {
+        if (chatFeed == null || chatFeed.isLoadingOlder() || archivePager.isLoading()) {
+            return;
+        }
+        PagedChildEventFeed.PageListener listener = new PagedChildEventFeed.PageListener() {
+            @Override
+            public void onPageLoaded(int itemCount, boolean hasMore) {
+                // Items were already inserted through the feed callback
+            }
+
+            @Override
+            public void onPageError(@NonNull DatabaseError databaseError) {
+                handleError("שגיאה בטעינת הודעות קודמות: " + databaseError.getMessage()); // Error loading older messages:
+            }
+        };
+        if (chatFeed.hasMore()) {
+            chatFeed.loadOlder(listener);
+        } else {
+            archivePager.loadPrevious(listener);
+        }
+    }
+
+    private boolean isAtBottom() {
+        return layoutManager.findLastVisibleItemPosition() >= chatFeed.size() - 1;
+    }
+
+    /**
+     * Shows the empty message when the chat has no messages and hides it otherwise.
+     */
+    private void updateEmptyState() {
+        emptyChatTextView.setVisibility(chatFeed.isEmpty() ? View.VISIBLE : View.GONE);
+        if (!chatFeed.isEmpty()) {
+            chatProgressBar.setVisibility(View.GONE); // Cached messages are shown while the server reconciles
+        }
+    }
+
+    private void handleError(String errorMessage) {
+        chatProgressBar.setVisibility(View.GONE);
+        Toast.makeText(this, errorMessage, Toast.LENGTH_SHORT).show();
+    }
+
+    /**
+     * Writes any messages still waiting in the batch window when the user leaves the chat.
+     */
+    @Override
+    protected void onPause() {
+        super.onPause();
+        if (batcher != null) {
+            batcher.flush();
+        }
+    }
+
+    /**
+     * Detaches the live page from Firebase when the activity is destroyed.
+     */
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (chatFeed != null) {
+            chatFeed.stop();
+            chatFeed.setCallback(null);
+        }
+    }
+
+    /**
+     * RecyclerView Adapter for the chat messages.
+     */
+    private static class MessageAdapter extends RecyclerView.Adapter<MessageViewHolder> {
+        private final ChildEventFeed<message> messages;
+
+        /**
+         * @param messages The feed of {@link message} objects to display.
+         */
+        MessageAdapter(ChildEventFeed<message> messages) {
+            this.messages = messages;
+            setHasStableIds(true);
+        }
+
+        /**
+         * Returns the stable ID of the item, derived from its Firebase push key.
+         */
+        @Override
+        public long getItemId(int position) {
+            return StableIds.of(messages.getKey(position));
+        }
+
+        @NonNull
+        @Override
+        public MessageViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_chat_message, parent, false);
+            return new MessageViewHolder(view);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull MessageViewHolder holder, int position) {
+            message chatMessage = messages.get(position);
+            holder.messageNameTextView.setText(chatMessage.getName());
+            holder.messageTextTextView.setText(chatMessage.getText());
+            holder.messageTimeTextView.setText(chatMessage.getTime());
+        }
+
+        @Override
+        public int getItemCount() {
+            return messages.size();
+        }
+    }
+
+    /**
+     * ViewHolder for a single chat message.
+     */
+    public static class MessageViewHolder extends RecyclerView.ViewHolder {
+        TextView messageNameTextView;
+        TextView messageTextTextView;
+        TextView messageTimeTextView;
+
+        /**
+         * @param itemView The view for a single list item.
+         */
+        public MessageViewHolder(@NonNull View itemView) {
+            super(itemView);
+            messageNameTextView = itemView.findViewById(R.id.messageNameTextView);
+            messageTextTextView = itemView.findViewById(R.id.messageTextTextView);
+            messageTimeTextView = itemView.findViewById(R.id.messageTimeTextView);
+        }
+    }
+}
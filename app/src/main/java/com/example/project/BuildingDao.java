@@ -0,0 +1,45 @@
+package com.example.project;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * Data access object of the local building store. Writes are issued by {@link BuildingDataSync}
+ * on a background thread; screens observe the {@link LiveData} queries.
+ */
+@Dao
+public interface BuildingDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertHelpRequest(HelpRequestEntity request);
+
+    @Query("DELETE FROM help_requests WHERE `key` = :key")
+    void deleteHelpRequest(String key);
+
+    /**
+     * Deletes the requests whose {@link HelpRequestStatusKey} lies in a range, the same predicate
+     * {@link HelpRequestStatusKey#closedUpTo} applies on the server.
+     */
+    @Query("DELETE FROM help_requests WHERE buildingCode = :buildingCode AND statusTime BETWEEN :fromStatusTime AND :toStatusTime")
+    void deleteHelpRequestsByStatusTime(String buildingCode, String fromStatusTime, String toStatusTime);
+
+    @Query("SELECT * FROM help_requests WHERE buildingCode = :buildingCode ORDER BY timestamp")
+    LiveData<List<HelpRequestEntity>> observeHelpRequests(String buildingCode);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertOutboxEntry(OutboxEntity entry);
+
+    @Query("DELETE FROM outbox WHERE `key` = :key")
+    void deleteOutboxEntry(String key);
+
+    @Query("SELECT * FROM outbox WHERE createdAt <= :createdBefore ORDER BY createdAt")
+    List<OutboxEntity> getOutboxEntries(long createdBefore);
+
+    @Query("SELECT `key` FROM outbox WHERE buildingCode = :buildingCode AND kind = :kind")
+    LiveData<List<String>> observeOutboxKeys(String buildingCode, String kind);
+}
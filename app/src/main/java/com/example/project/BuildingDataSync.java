@@ -0,0 +1,153 @@
+package com.example.project;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Background component that mirrors the help requests of a manager's building into
+ * {@link BuildingDatabase}, for {@link ViewSubmittedRequestsActivity}.
+ *
+ * Firebase child events are applied as single-row upserts and deletes on a background executor,
+ * so the screen is updated incrementally and never parses snapshots on the main thread. Other
+ * users do not view help requests, so nothing is mirrored for them; the notification board pages
+ * straight from Firebase.
+ */
+public final class BuildingDataSync {
+
+    private static BuildingDataSync instance;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private String buildingCode;
+    private Query requestsQuery;
+    private ChildEventListener requestsListener;
+
+    private BuildingDataSync() {
+    }
+
+    /**
+     * @return The shared {@code BuildingDataSync}.
+     */
+    public static synchronized BuildingDataSync getInstance() {
+        if (instance == null) {
+            instance = new BuildingDataSync();
+        }
+        return instance;
+    }
+
+    private BuildingDao dao() {
+        return BuildingDatabase.getInstance(BinYanApplication.getAppContext()).buildingDao();
+    }
+
+    /**
+     * Mirrors the help requests of the given building for a manager, replacing any previously
+     * mirrored building.
+     *
+     * @param newBuildingCode The building code, or {@code null} to stop mirroring.
+     * @param isManager Whether the user has manager privileges; nothing is mirrored otherwise.
+     */
+    public synchronized void syncBuilding(@Nullable String newBuildingCode, boolean isManager) {
+        String code = isManager ? newBuildingCode : null;
+        if (code != null && code.equals(buildingCode)) {
+            return;
+        }
+        stop();
+        if (code == null) {
+            return;
+        }
+        buildingCode = code;
+
+        requestsQuery = FirebaseDatabase.getInstance().getReference(OpenHelpRequestsIndex.REQUESTS_PATH).child(code)
+                .orderByChild("timestamp");
+        requestsListener = new MirrorListener() {
+            @Override
+            void upsert(DataSnapshot snapshot) {
+                HelpRequestEntity entity = toHelpRequestEntity(code, snapshot);
+                executor.execute(() -> dao().upsertHelpRequest(entity));
+            }
+
+            @Override
+            void delete(String key) {
+                executor.execute(() -> dao().deleteHelpRequest(key));
+            }
+        };
+        requestsQuery.addChildEventListener(requestsListener);
+    }
+
+    /**
+     * Detaches all Firebase listeners. Rows already mirrored stay in the local store.
+     */
+    public synchronized void stop() {
+        if (requestsQuery != null) {
+            requestsQuery.removeEventListener(requestsListener);
+        }
+        requestsQuery = null;
+        requestsListener = null;
+        buildingCode = null;
+    }
+
+    static HelpRequestEntity toHelpRequestEntity(String buildingCode, DataSnapshot snapshot) {
+        HelpRequestEntity entity = new HelpRequestEntity();
+        entity.key = snapshot.getKey();
+        entity.buildingCode = buildingCode;
+        entity.content = snapshot.child("content").getValue(String.class);
+        entity.publisherId = snapshot.child("publisherId").getValue(String.class);
+        // v2 records omit details that match the publisher's profile; store them resolved
+        entity.fullName = PublisherDirectory.getInstance().fullName(entity.publisherId,
+                snapshot.child("fullName").getValue(String.class));
+        entity.apartmentNumber = PublisherDirectory.getInstance().apartmentNumber(entity.publisherId,
+                snapshot.child("apartmentNumber").getValue(String.class));
+        entity.date = snapshot.child("date").getValue(String.class);
+        entity.time = snapshot.child("time").getValue(String.class);
+        Long timestamp = snapshot.child("timestamp").getValue(Long.class);
+        entity.timestamp = timestamp != null ? timestamp : 0L;
+        Boolean isOpen = snapshot.child("isOpen").getValue(Boolean.class);
+        entity.isOpen = isOpen == null || isOpen;
+        entity.statusTime = snapshot.child(HelpRequestStatusKey.FIELD).getValue(String.class);
+        return entity;
+    }
+
+    /**
+     * Child listener that turns adds and changes into upserts and removals into deletes.
+     */
+    private abstract static class MirrorListener implements ChildEventListener {
+
+        abstract void upsert(DataSnapshot snapshot);
+
+        abstract void delete(String key);
+
+        @Override
+        public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            upsert(snapshot);
+        }
+
+        @Override
+        public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            upsert(snapshot);
+        }
+
+        @Override
+        public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+            delete(snapshot.getKey());
+        }
+
+        @Override
+        public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+            // Order is derived from the timestamp column locally
+        }
+
+        @Override
+        public void onCancelled(@NonNull DatabaseError error) {
+            // The mirror keeps its last known rows
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.project;
+
+import android.content.Context;
+
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+
+/**
+ * Local relational store of the user's building: the help requests a manager views, plus the
+ * {@link Outbox} of submissions not yet acknowledged by the server.
+ *
+ * The store is the single source of truth for the lists that observe it. It outlives activities,
+ * so re-entering a screen shows the last known data immediately. Only the manager's help request
+ * list is mirrored: the notification board, the open request list and the chat page from Firebase,
+ * whose disk persistence already serves them offline, and profiles are looked up by
+ * {@link PublisherDirectory}.
+ *
+ * The schema of every version is exported to {@code app/schemas}. The outbox cannot be rebuilt
+ * from the server, so every version after the first must add a {@code Migration} rather than fall
+ * back to recreating the database.
+ */
+@Database(entities = {HelpRequestEntity.class, OutboxEntity.class}, version = 1)
+public abstract class BuildingDatabase extends RoomDatabase {
+
+    private static final String DATABASE_NAME = "building.db";
+
+    private static volatile BuildingDatabase instance;
+
+    /**
+     * @return The data access object of the store.
+     */
+    public abstract BuildingDao buildingDao();
+
+    /**
+     * Returns the process-wide database, opening it on first use.
+     *
+     * @param context Any context; the application context is retained.
+     * @return The shared {@code BuildingDatabase}.
+     */
+    public static BuildingDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (BuildingDatabase.class) {
+                if (instance == null) {
+                    instance = Room.databaseBuilder(context.getApplicationContext(), BuildingDatabase.class, DATABASE_NAME)
+                            .build();
+                }
+            }
+        }
+        return instance;
+    }
+}
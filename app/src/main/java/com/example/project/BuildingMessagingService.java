@@ -0,0 +1,62 @@
+package com.example.project;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.messaging.FirebaseMessagingService;
+import com.google.firebase.messaging.RemoteMessage;
+
+import java.util.Map;
+
+/**
+ * Receives the building pushes sent by the {@code notifyBuilding} Cloud Function to the topic of
+ * {@link BuildingTopics} and hands them to {@link NotificationPresenter}, which groups bursts.
+ * Each push also advances the {@link NotificationHighWaterMark}, so {@link NotificationDeltaWorker}
+ * skips it.
+ *
+ * The pushes are data-only messages, so they reach this service whether the app is in the
+ * foreground or not, and the app decides what to show: a resident is not notified of their own
+ * notification.
+ */
+public class BuildingMessagingService extends FirebaseMessagingService {
+
+    private static final String TAG = "BuildingMessaging";
+
+    /** Value of {@code type} in pushes about a new building notification */
+    static final String TYPE_BUILDING_NOTIFICATION = "building_notification";
+
+    @Override
+    public void onMessageReceived(@NonNull RemoteMessage remoteMessage) {
+        Map<String, String> data = remoteMessage.getData();
+        if (!TYPE_BUILDING_NOTIFICATION.equals(data.get("type"))) {
+            return;
+        }
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        String notificationId = data.get("notificationId");
+        if (user == null || notificationId == null) {
+            return;
+        }
+        if (!user.getUid().equals(data.get(SnapshotMappers.PUBLISHER_ID))) {
+            NotificationPresenter.enqueue(this, notificationId, data.get(SnapshotMappers.FULL_NAME), data.get(SnapshotMappers.CONTENT));
+        }
+        // The periodic delta check must not announce it again
+        String buildingCode = data.get(SnapshotMappers.BUILDING_CODE);
+        String timestamp = data.get(SnapshotMappers.TIMESTAMP);
+        if (buildingCode != null && timestamp != null) {
+            try {
+                NotificationHighWaterMark.advance(this, buildingCode, Long.parseLong(timestamp), notificationId);
+            } catch (NumberFormatException e) {
+                Log.w(TAG, "Push without a valid timestamp", e);
+            }
+        }
+    }
+
+    @Override
+    public void onNewToken(@NonNull String token) {
+        // Topic subscriptions belong to the registration token
+        BuildingTopics.resubscribe(this);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.project;
+
+import android.Manifest;
+import android.app.Activity;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.pm.PackageManager;
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.app.ActivityCompat;
+import androidx.core.content.ContextCompat;
+
+import com.google.firebase.messaging.FirebaseMessaging;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Subscribes the device to the push topic of the signed-in user's building.
+ *
+ * When a notification is published under {@code building_notifications/{code}}, the
+ * {@code notifyBuilding} Cloud Function (see {@code functions/}) sends one data message to the
+ * topic {@link #topicFor(String) building_{code}}, and {@link BuildingMessagingService} shows it.
+ * The subscribed building is remembered so that moving to another building, or logging out,
+ * unsubscribes from the previous topic even after a process restart.
+ */
+public final class BuildingTopics {
+
+    private static final String PREFS_NAME = "building_topics";
+    private static final String KEY_BUILDING_CODE = "buildingCode";
+    private static final String TOPIC_PREFIX = "building_";
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private BuildingTopics() {
+    }
+
+    /**
+     * Returns the topic of a building. Topic names are limited to {@code [a-zA-Z0-9-_.~%]}, so
+     * every other byte of the UTF-8 building code is percent-encoded. The Cloud Function encodes
+     * the same way.
+     *
+     * @param buildingCode The building code.
+     * @return The topic name.
+     */
+    @NonNull
+    public static String topicFor(@NonNull String buildingCode) {
+        StringBuilder topic = new StringBuilder(TOPIC_PREFIX);
+        for (byte b : buildingCode.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~') {
+                topic.append(c);
+            } else {
+                topic.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+            }
+        }
+        return topic.toString();
+    }
+
+    /**
+     * Subscribes to the topic of the given building and unsubscribes from the previous one.
+     * Subscribing again to the same building is a no-op.
+     *
+     * @param context Any context.
+     * @param buildingCode The building code, or {@code null} to unsubscribe (e.g. on logout).
+     */
+    public static synchronized void sync(@NonNull Context context, @Nullable String buildingCode) {
+        SharedPreferences prefs = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        String subscribed = prefs.getString(KEY_BUILDING_CODE, null);
+        if (buildingCode != null && buildingCode.equals(subscribed)) {
+            return;
+        }
+        if (subscribed != null) {
+            FirebaseMessaging.getInstance().unsubscribeFromTopic(topicFor(subscribed));
+        }
+        if (buildingCode != null) {
+            FirebaseMessaging.getInstance().subscribeToTopic(topicFor(buildingCode));
+        }
+        prefs.edit().putString(KEY_BUILDING_CODE, buildingCode).apply();
+    }
+
+    /**
+     * Subscribes again to the remembered building, e.g. after the registration token changed.
+     *
+     * @param context Any context.
+     */
+    public static synchronized void resubscribe(@NonNull Context context) {
+        String subscribed = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+                .getString(KEY_BUILDING_CODE, null);
+        if (subscribed != null) {
+            FirebaseMessaging.getInstance().subscribeToTopic(topicFor(subscribed));
+        }
+    }
+
+    /**
+     * Asks for the notification permission on Android 13 and later, where pushes are not shown
+     * without it. Called from the home screens; the system shows the prompt only until the user
+     * answers it.
+     *
+     * @param activity The home screen.
+     */
+    public static void requestPermissionIfNeeded(@NonNull Activity activity) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU
+                && ContextCompat.checkSelfPermission(activity, Manifest.permission.POST_NOTIFICATIONS)
+                != PackageManager.PERMISSION_GRANTED) {
+            ActivityCompat.requestPermissions(activity, new String[]{Manifest.permission.POST_NOTIFICATIONS}, 0);
+        }
+    }
+}
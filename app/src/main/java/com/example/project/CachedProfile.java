@@ -0,0 +1,84 @@
+package com.example.project;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * The role and building code of the signed-in user, persisted on the device.
+ *
+ * {@link LoginActivity} uses it on cold start to route to the role-appropriate home screen
+ * immediately, without waiting for Firebase Authentication or a read of {@code users/{uid}}.
+ * The {@link UserSession} rewrites it whenever the live profile changes and clears it on logout,
+ * and the home screens verify it against the server asynchronously.
+ */
+public final class CachedProfile {
+
+    private static final String PREFS_NAME = "cached_profile";
+    private static final String KEY_UID = "uid";
+    private static final String KEY_BUILDING_CODE = "buildingCode";
+    private static final String KEY_IS_MANAGER = "isManager";
+
+    /** The UID of the cached user */
+    public final String uid;
+
+    /** The building code of the cached user */
+    public final String buildingCode;
+
+    /** Whether the cached user has manager privileges */
+    public final boolean isManager;
+
+    private CachedProfile(String uid, String buildingCode, boolean isManager) {
+        this.uid = uid;
+        this.buildingCode = buildingCode;
+        this.isManager = isManager;
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Reads the cached profile.
+     *
+     * @param context Any context.
+     * @return The cached profile, or {@code null} if no user has been cached.
+     */
+    @Nullable
+    public static CachedProfile read(@NonNull Context context) {
+        SharedPreferences prefs = prefs(context);
+        String uid = prefs.getString(KEY_UID, null);
+        String buildingCode = prefs.getString(KEY_BUILDING_CODE, null);
+        if (uid == null || buildingCode == null) {
+            return null;
+        }
+        return new CachedProfile(uid, buildingCode, prefs.getBoolean(KEY_IS_MANAGER, false));
+    }
+
+    /**
+     * Persists the profile of the signed-in user.
+     *
+     * @param context Any context.
+     * @param uid The user's UID.
+     * @param buildingCode The user's building code.
+     * @param isManager Whether the user has manager privileges.
+     */
+    public static void write(@NonNull Context context, @NonNull String uid, @Nullable String buildingCode, boolean isManager) {
+        prefs(context).edit()
+                .putString(KEY_UID, uid)
+                .putString(KEY_BUILDING_CODE, buildingCode)
+                .putBoolean(KEY_IS_MANAGER, isManager)
+                .apply();
+    }
+
+    /**
+     * Removes the cached profile, e.g. on logout.
+     *
+     * @param context Any context.
+     */
+    public static void clear(@NonNull Context context) {
+        prefs(context).edit().clear().apply();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.project;
+
+import android.app.Activity;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.OnFailureListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the chat messages a user sends in quick succession and writes them together.
+ *
+ * The first message of a burst starts a {@link #WINDOW_MS} window; every message sent within it
+ * joins the same {@link FanOutWrite#sendChatMessages multi-path write}, so a burst costs one
+ * round trip instead of one per message. The messages show up in the chat as soon as the write is
+ * applied to the local cache, at the end of the window. Used on the main thread only.
+ */
+final class ChatBatcher {
+
+    /** How long messages are collected before they are written together. */
+    static final long WINDOW_MS = 300;
+
+    private final String buildingCode;
+    private final Activity owner;
+    private final OnFailureListener failureListener;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final List<Map<String, Object>> pending = new ArrayList<>();
+    private final Runnable flushRunnable = this::flush;
+
+    /**
+     * @param buildingCode The building the chat belongs to.
+     * @param owner The activity failures are reported to while it is alive.
+     * @param failureListener Notified when a write is rejected.
+     */
+    ChatBatcher(@NonNull String buildingCode, @NonNull Activity owner, @NonNull OnFailureListener failureListener) {
+        this.buildingCode = buildingCode;
+        this.owner = owner;
+        this.failureListener = failureListener;
+    }
+
+    /**
+     * Queues a message; it is written with everything else sent within the window.
+     *
+     * @param message The message, built by {@link SnapshotMappers#messageData}.
+     */
+    void send(@NonNull Map<String, Object> message) {
+        pending.add(message);
+        if (pending.size() == 1) {
+            handler.postDelayed(flushRunnable, WINDOW_MS);
+        }
+    }
+
+    /**
+     * Writes the queued messages now, e.g. when the chat is closed.
+     */
+    void flush() {
+        handler.removeCallbacks(flushRunnable);
+        if (pending.isEmpty()) {
+            return;
+        }
+        FanOutWrite write = FanOutWrite.sendChatMessages(buildingCode, new ArrayList<>(pending));
+        pending.clear();
+        write.commit().addOnFailureListener(owner, failureListener);
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.project;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An ordered, keyed list that is kept in sync with a Firebase query through child events.
+ *
+ * Unlike a {@code ValueEventListener} that rebuilds the whole list on every change, this feed
+ * deserializes only the child that was added or changed and reports a single positional update
+ * (insert, change, remove or move) to its {@link Callback}, which is usually wired straight to the
+ * {@code notifyItem*} methods of a RecyclerView adapter.
+ *
+ * Positions are resolved from the {@code previousChildName} Firebase passes with each event. A hash
+ * set of the keys answers "is this key in the feed" without a scan, and position lookups start at
+ * the tail, where new items almost always arrive, so the common append costs O(1) and loading n
+ * children costs O(n).
+ *
+ * @param <T> The model type stored in the feed.
+ */
+public class ChildEventFeed<T> implements ChildEventListener {
+
+    /**
+     * Converts one child snapshot into a model object.
+     *
+     * @param <T> The model type.
+     */
+    public interface Parser<T> {
+        /**
+         * @param snapshot The child snapshot.
+         * @return The model object, or {@code null} if the child cannot be mapped.
+         */
+        @Nullable
+        T parse(@NonNull DataSnapshot snapshot);
+    }
+
+    /**
+     * Receives positional changes of the feed.
+     */
+    public interface Callback {
+        /** @param position The position of the newly inserted item. */
+        void onItemInserted(int position);
+
+        /**
+         * @param positionStart The position of the first inserted item.
+         * @param itemCount The number of items inserted.
+         */
+        void onItemRangeInserted(int positionStart, int itemCount);
+
+        /** @param position The position of the item whose content changed. */
+        void onItemChanged(int position);
+
+        /** @param position The position the item was removed from. */
+        void onItemRemoved(int position);
+
+        /**
+         * @param fromPosition The previous position of the item.
+         * @param toPosition The new position of the item.
+         */
+        void onItemMoved(int fromPosition, int toPosition);
+
+        /** @param error The error that cancelled the underlying query. */
+        void onFeedError(@NonNull DatabaseError error);
+    }
+
+    final Parser<T> parser;
+    private final List<String> keys;
+    private final List<T> items = new ArrayList<>();
+    private final Set<String> keySet = new HashSet<>();
+    private Callback callback;
+
+    /**
+     * Constructs a new {@code ChildEventFeed}.
+     *
+     * @param parser The parser used to map a single child snapshot to a model object.
+     */
+    public ChildEventFeed(@NonNull Parser<T> parser) {
+        this(parser, new ArrayList<>());
+    }
+
+    /**
+     * Constructs a feed over a given, empty key list, so tests can observe how the feed reads it.
+     *
+     * @param parser The parser used to map a single child snapshot to a model object.
+     * @param keys The list that holds the keys in display order.
+     */
+    ChildEventFeed(@NonNull Parser<T> parser, @NonNull List<String> keys) {
+        this.parser = parser;
+        this.keys = keys;
+    }
+
+    /**
+     * Sets the callback that is notified of positional changes.
+     *
+     * @param callback The callback, or {@code null} to stop notifications.
+     */
+    public void setCallback(@Nullable Callback callback) {
+        this.callback = callback;
+    }
+
+    /**
+     * @return The number of items currently in the feed.
+     */
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * @param position The position of the item.
+     * @return The item at the given position.
+     */
+    public T get(int position) {
+        return items.get(position);
+    }
+
+    /**
+     * @param position The position of the item.
+     * @return The Firebase key of the item at the given position.
+     */
+    public String getKey(int position) {
+        return keys.get(position);
+    }
+
+    /**
+     * @return {@code true} if the feed holds no items.
+     */
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    /**
+     * Removes all items without notifying the callback. Used when the feed is detached.
+     */
+    public void clear() {
+        keys.clear();
+        items.clear();
+        keySet.clear();
+    }
+
+    @Override
+    public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+        T item = parser.parse(snapshot);
+        if (item != null) {
+            insert(snapshot.getKey(), item, previousChildName);
+        }
+    }
+
+    @Override
+    public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+        int index = indexOfKey(snapshot.getKey());
+        if (index < 0) {
+            // The child could not be parsed when it was added; treat the change as an add.
+            onChildAdded(snapshot, previousChildName);
+            return;
+        }
+        T item = parser.parse(snapshot);
+        if (item == null) {
+            remove(index);
+            return;
+        }
+        items.set(index, item);
+        if (callback != null) {
+            callback.onItemChanged(index);
+        }
+    }
+
+    @Override
+    public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+        int index = indexOfKey(snapshot.getKey());
+        if (index >= 0) {
+            remove(index);
+        }
+    }
+
+    @Override
+    public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+        int fromIndex = indexOfKey(snapshot.getKey());
+        if (fromIndex < 0) {
+            return;
+        }
+        String key = keys.remove(fromIndex);
+        T item = items.remove(fromIndex);
+        keySet.remove(key);
+        int toIndex = positionAfter(previousChildName);
+        keySet.add(key);
+        keys.add(toIndex, key);
+        items.add(toIndex, item);
+        if (callback != null) {
+            callback.onItemMoved(fromIndex, toIndex);
+        }
+    }
+
+    @Override
+    public void onCancelled(@NonNull DatabaseError error) {
+        if (callback != null) {
+            callback.onFeedError(error);
+        }
+    }
+
+    /**
+     * Inserts an already parsed item right after {@code previousKey}.
+     *
+     * @param key The Firebase key of the item.
+     * @param item The item.
+     * @param previousKey The key of the item that precedes it, or {@code null} for the head.
+     * @return The position the item was inserted at.
+     */
+    int insert(String key, T item, @Nullable String previousKey) {
+        int existing = indexOfKey(key);
+        if (existing >= 0) {
+            remove(existing);
+        }
+        int index = positionAfter(previousKey);
+        keys.add(index, key);
+        items.add(index, item);
+        keySet.add(key);
+        if (callback != null) {
+            callback.onItemInserted(index);
+        }
+        return index;
+    }
+
+    /**
+     * Inserts a block of already parsed items at the head of the feed, e.g. an older page.
+     *
+     * @param newKeys The Firebase keys of the items, in display order.
+     * @param newItems The items, in display order.
+     */
+    void prepend(List<String> newKeys, List<T> newItems) {
+        if (newItems.isEmpty()) {
+            return;
+        }
+        keys.addAll(0, newKeys);
+        items.addAll(0, newItems);
+        keySet.addAll(newKeys);
+        if (callback != null) {
+            callback.onItemRangeInserted(0, newItems.size());
+        }
+    }
+
+    /**
+     * Removes the item at the given position and notifies the callback.
+     *
+     * @param index The position to remove.
+     */
+    void remove(int index) {
+        keySet.remove(keys.remove(index));
+        items.remove(index);
+        if (callback != null) {
+            callback.onItemRemoved(index);
+        }
+    }
+
+    /**
+     * Returns the position of the item with the given key. Unknown keys are answered from the key
+     * set without a scan; known keys are searched from the tail, because that is where new
+     * children land and where the previous sibling of a new child almost always is.
+     *
+     * @param key The Firebase key.
+     * @return The position, or {@code -1} if the key is not in the feed.
+     */
+    int indexOfKey(@Nullable String key) {
+        if (key == null || !keySet.contains(key)) {
+            return -1;
+        }
+        for (int i = keys.size() - 1; i >= 0; i--) {
+            if (key.equals(keys.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the position a child with no previous sibling is inserted at. Subclasses that keep
+     * items ahead of the listened query (e.g. older pages) override this.
+     *
+     * @return The head position of the live query.
+     */
+    int headPosition() {
+        return 0;
+    }
+
+    private int positionAfter(@Nullable String previousKey) {
+        if (previousKey == null) {
+            return headPosition();
+        }
+        int previousIndex = indexOfKey(previousKey);
+        return previousIndex < 0 ? keys.size() : previousIndex + 1;
+    }
+}
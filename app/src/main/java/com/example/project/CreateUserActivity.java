@@ -144,6 +144,7 @@ public class CreateUserActivity extends AppCompatActivity {
                                                 String userId = mAuth.getCurrentUser().getUid();
                                                 usersRef.child(userId)
                                                         .setValue(new User(fullName, buildingCode, email, false)); // ברירת מחדל: לא מנהל
+                                                UserSession.getInstance().start(userId);
                                                 Toast.makeText(CreateUserActivity.this, "הרשמה בוצעה בהצלחה", Toast.LENGTH_SHORT).show();
                                                 startActivity(new Intent(CreateUserActivity.this, MainActivity.class));
                                                 finish();
@@ -186,6 +187,7 @@ public class CreateUserActivity extends AppCompatActivity {
      * @version 1.0
      * @since 1.0
      */
+    @DatabaseModel
     public static class User {
 
         /** The user's full name as provided during registration */
@@ -0,0 +1,22 @@
+package com.example.project;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class that Firebase maps to and from the Realtime Database by reflection, through
+ * {@code DataSnapshot.getValue(Class)} or {@code DatabaseReference.setValue(Object)}.
+ *
+ * Firebase finds the properties of such a class by name at run time, so R8 must neither rename
+ * nor remove its constructor, fields and accessors. The single rule in {@code proguard-rules.pro}
+ * keeps exactly the annotated classes, so a new model only needs this annotation and no rule of
+ * its own.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface DatabaseModel {
+}
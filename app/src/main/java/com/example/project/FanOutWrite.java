@@ -0,0 +1,178 @@
+package com.example.project;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.FirebaseDatabase;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A single all-or-nothing write that spans every path a submission affects.
+ *
+ * Each factory method starts from the primary record (a notification, a new help request or the
+ * closing of one) and adds the secondary views that must change with it, such as the
+ * {@link OpenHelpRequestsIndex} entry. Further views are added with {@link #put(String, Object)}.
+ * {@link #commit()} sends everything as one root {@code updateChildren} call: one round trip, and
+ * either every path is written or none is.
+ */
+public final class FanOutWrite {
+
+    /** Root node of the building notifications, keyed by building code. */
+    public static final String NOTIFICATIONS_PATH = "building_notifications";
+
+    /** Root node of the building chats, keyed by building code. */
+    public static final String CHATS_PATH = "chats";
+
+    private final Map<String, Object> updates = new HashMap<>();
+    private final String key;
+
+    private FanOutWrite(@Nullable String key) {
+        this.key = key;
+    }
+
+    /**
+     * Generates a new chronological push key, without any network access.
+     *
+     * @param path The list the key is generated for.
+     * @return The new key.
+     */
+    @NonNull
+    public static String newKey(@NonNull String path) {
+        return FirebaseDatabase.getInstance().getReference(path).push().getKey();
+    }
+
+    /**
+     * Publishes a building notification and increments the building's notification counter
+     * (see {@link UnreadCounter}).
+     *
+     * @param buildingCode The building the notification belongs to.
+     * @param notificationData The fields, built by {@link SnapshotMappers#notificationData}.
+     * @return The write; {@link #getKey()} is the notification's key.
+     */
+    @NonNull
+    public static FanOutWrite publishNotification(@NonNull String buildingCode, @NonNull Map<String, Object> notificationData) {
+        String path = NOTIFICATIONS_PATH + "/" + buildingCode;
+        FanOutWrite write = new FanOutWrite(newKey(path));
+        write.put(path + "/" + write.key, SnapshotMappers.stored(notificationData, false));
+        UnreadCounter.putIncrement(write, buildingCode);
+        return write;
+    }
+
+    /**
+     * Submits a new, open help request together with its open-requests index entry.
+     *
+     * @param buildingCode The building the request belongs to.
+     * @param requestData The fields, built by {@link SnapshotMappers#requestData}.
+     * @return The write; {@link #getKey()} is the request's key.
+     */
+    @NonNull
+    public static FanOutWrite submitHelpRequest(@NonNull String buildingCode, @NonNull Map<String, Object> requestData) {
+        FanOutWrite write = new FanOutWrite(newKey(OpenHelpRequestsIndex.REQUESTS_PATH + "/" + buildingCode));
+        OpenHelpRequestsIndex.putOpenRequest(write.updates, buildingCode, write.key, requestData);
+        return write;
+    }
+
+    /**
+     * Closes a help request and removes its open-requests index entry.
+     *
+     * @param buildingCode The building the request belongs to.
+     * @param requestId The push key of the request.
+     * @param timestamp The timestamp of the request, used for its composite status key.
+     * @return The write.
+     */
+    @NonNull
+    public static FanOutWrite closeHelpRequest(@NonNull String buildingCode, @NonNull String requestId, long timestamp) {
+        FanOutWrite write = new FanOutWrite(requestId);
+        OpenHelpRequestsIndex.putCloseRequest(write.updates, buildingCode, requestId, timestamp);
+        return write;
+    }
+
+    /**
+     * Sends several chat messages of one building together. Keys are generated in list order, so
+     * messages that get the same server timestamp keep the order they were sent in.
+     *
+     * @param buildingCode The building the chat belongs to.
+     * @param messages The messages, oldest first, each built by {@link SnapshotMappers#messageData}.
+     * @return The write; {@link #getKey()} is the key of the last message.
+     */
+    @NonNull
+    public static FanOutWrite sendChatMessages(@NonNull String buildingCode, @NonNull List<Map<String, Object>> messages) {
+        String path = CHATS_PATH + "/" + buildingCode;
+        String lastKey = null;
+        Map<String, Object> updates = new HashMap<>();
+        for (Map<String, Object> message : messages) {
+            lastKey = newKey(path);
+            updates.put(path + "/" + lastKey, message);
+        }
+        FanOutWrite write = new FanOutWrite(lastKey);
+        write.updates.putAll(updates);
+        return write;
+    }
+
+    /**
+     * Moves records of a live list into their {@link HistoryArchive} month buckets. Records
+     * without a timestamp are left in place.
+     *
+     * @param type The name of the live list, e.g. {@link HistoryArchive#TYPE_NOTIFICATIONS}.
+     * @param buildingCode The building the records belong to.
+     * @param records Children of {@code {type}/{buildingCode}}.
+     * @return The write; it has no primary record, so {@link #getKey()} is {@code null}.
+     */
+    @NonNull
+    public static FanOutWrite archiveRecords(@NonNull String type, @NonNull String buildingCode,
+                                             @NonNull Iterable<DataSnapshot> records) {
+        FanOutWrite write = new FanOutWrite(null);
+        for (DataSnapshot record : records) {
+            Long timestamp = record.child(SnapshotMappers.TIMESTAMP).getValue(Long.class);
+            Object value = record.getValue();
+            if (timestamp != null && value != null) {
+                HistoryArchive.putMove(write.updates, type, buildingCode, record.getKey(), value, timestamp);
+            }
+        }
+        return write;
+    }
+
+    /**
+     * Adds another path to the write.
+     *
+     * @param path The path relative to the database root.
+     * @param value The value to write, or {@code null} to delete the path.
+     * @return This write, for chaining.
+     */
+    @NonNull
+    public FanOutWrite put(@NonNull String path, @Nullable Object value) {
+        updates.put(path, value);
+        return this;
+    }
+
+    /**
+     * @return The key of the primary record.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return The paths and values of the write, keyed by path relative to the database root.
+     */
+    @NonNull
+    public Map<String, Object> getUpdates() {
+        return Collections.unmodifiableMap(updates);
+    }
+
+    /**
+     * Sends the write as one atomic multi-path update.
+     *
+     * @return The task of the write.
+     */
+    @NonNull
+    public Task<Void> commit() {
+        return FirebaseDatabase.getInstance().getReference().updateChildren(new HashMap<>(updates));
+    }
+}
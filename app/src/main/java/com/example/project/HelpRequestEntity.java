@@ -0,0 +1,50 @@
+package com.example.project;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Local row of a help request, mirrored from {@code help_requests/{buildingCode}}.
+ */
+@Entity(tableName = "help_requests",
+        indices = {
+                @Index({"buildingCode", "timestamp"}),
+                @Index({"buildingCode", "statusTime"})
+        })
+public class HelpRequestEntity {
+
+    /** The Firebase push key of the request */
+    @PrimaryKey
+    @NonNull
+    public String key = "";
+
+    /** The building the request belongs to */
+    @NonNull
+    public String buildingCode = "";
+
+    public String content;
+    public String fullName;
+    public String apartmentNumber;
+    public String date;
+    public String time;
+    public long timestamp;
+    public boolean isOpen;
+    public String publisherId;
+
+    /** The {@link HelpRequestStatusKey} as stored in Firebase, or {@code null} if not derived yet */
+    public String statusTime;
+
+    /**
+     * Converts the row into the model shown by {@link ViewSubmittedRequestsActivity}.
+     *
+     * @return The equivalent {@link ViewSubmittedRequestsActivity.SubmittedRequest}.
+     */
+    public ViewSubmittedRequestsActivity.SubmittedRequest toSubmittedRequest() {
+        ViewSubmittedRequestsActivity.SubmittedRequest request = new ViewSubmittedRequestsActivity.SubmittedRequest(
+                content, fullName, apartmentNumber, date, time, timestamp, isOpen, publisherId, buildingCode);
+        request.setKey(key);
+        return request;
+    }
+}
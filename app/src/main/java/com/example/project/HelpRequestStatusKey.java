@@ -0,0 +1,105 @@
+package com.example.project;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.Query;
+
+import java.util.Locale;
+
+/**
+ * Composite status+time key stored on every help request.
+ *
+ * Realtime Database can order a query by one child only, so a query cannot both filter on
+ * {@code isOpen} and order by {@code timestamp}. Each record under
+ * {@code help_requests/{buildingCode}} therefore carries a derived {@link #FIELD} whose value is a
+ * status prefix followed by the zero-padded timestamp, e.g. {@code "open_000001717171717171"}.
+ * Because the padded timestamps sort lexicographically in time order, "closed requests older
+ * than t" becomes a single {@code startAt}/{@code endAt} range scan on that child, which the
+ * server answers from its {@code .indexOn} index.
+ *
+ * The key must agree with the stored {@code timestamp}, which only the server resolves. It is
+ * therefore never estimated at submission: the {@code stampHelpRequest} Cloud Function (see
+ * {@code functions/statusKey.js}) derives it from the resolved timestamp as soon as a request is
+ * created, closing a request derives it from the same stored value, and {@link TimestampRepair}
+ * backfills requests written before the function existed.
+ */
+public final class HelpRequestStatusKey {
+
+    /** Name of the derived child on every help request. */
+    public static final String FIELD = "statusTime";
+
+    /** Prefix of open requests. */
+    public static final String OPEN = "open_";
+
+    /** Prefix of closed requests. */
+    public static final String CLOSED = "closed_";
+
+    private HelpRequestStatusKey() {
+    }
+
+    /**
+     * Builds the composite key of a request.
+     *
+     * @param isOpen Whether the request is open.
+     * @param timestamp The request timestamp in milliseconds.
+     * @return The composite key.
+     */
+    public static String of(boolean isOpen, long timestamp) {
+        return (isOpen ? OPEN : CLOSED) + String.format(Locale.US, "%018d", Math.max(0L, timestamp));
+    }
+
+    /**
+     * Builds the query for open requests of one building submitted between two times.
+     * Realtime Database returns children in ascending order; callers that show the newest first
+     * read the result from the end.
+     *
+     * @param buildingRequestsRef The reference to {@code help_requests/{buildingCode}}.
+     * @param fromTimestamp The earliest timestamp, inclusive.
+     * @param toTimestamp The latest timestamp, inclusive.
+     * @return The range query.
+     */
+    public static Query openBetween(@NonNull DatabaseReference buildingRequestsRef, long fromTimestamp, long toTimestamp) {
+        return buildingRequestsRef.orderByChild(FIELD)
+                .startAt(of(true, fromTimestamp))
+                .endAt(of(true, toTimestamp));
+    }
+
+    /**
+     * Builds the query for the newest open requests of one building submitted between two
+     * times, limited to {@code limit} results.
+     *
+     * @param buildingRequestsRef The reference to {@code help_requests/{buildingCode}}.
+     * @param fromTimestamp The earliest timestamp, inclusive.
+     * @param toTimestamp The latest timestamp, inclusive.
+     * @param limit The maximum number of requests to return.
+     * @return The range query, limited to the newest {@code limit} matches.
+     */
+    public static Query newestOpenBetween(@NonNull DatabaseReference buildingRequestsRef, long fromTimestamp, long toTimestamp, int limit) {
+        return openBetween(buildingRequestsRef, fromTimestamp, toTimestamp).limitToLast(limit);
+    }
+
+    /**
+     * Builds the query for closed requests of one building submitted up to a time, oldest first.
+     *
+     * @param buildingRequestsRef The reference to {@code help_requests/{buildingCode}}.
+     * @param toTimestamp The latest timestamp, inclusive.
+     * @return The range query.
+     */
+    public static Query closedUpTo(@NonNull DatabaseReference buildingRequestsRef, long toTimestamp) {
+        return buildingRequestsRef.orderByChild(FIELD)
+                .startAt(of(false, 0))
+                .endAt(of(false, toTimestamp));
+    }
+
+    /**
+     * Evicts from the local store the requests {@link #closedUpTo} matches on the server.
+     *
+     * @param dao The local store.
+     * @param buildingCode The building of the requests.
+     * @param toTimestamp The latest timestamp, inclusive.
+     */
+    public static void deleteClosedUpTo(@NonNull BuildingDao dao, @NonNull String buildingCode, long toTimestamp) {
+        dao.deleteHelpRequestsByStatusTime(buildingCode, of(false, 0), of(false, toTimestamp));
+    }
+}
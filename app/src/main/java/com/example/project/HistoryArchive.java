@@ -0,0 +1,244 @@
+package com.example.project;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.FirebaseDatabase;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Month buckets that old records are moved into, so the live lists only hold recent activity.
+ *
+ * A record of a live list ({@code building_notifications/{code}}, {@code help_requests/{code}} or
+ * {@code chats/{code}}) that is older than {@code BuildConfig.ARCHIVE_AFTER_DAYS} is moved by
+ * {@link HistoryArchiveWorker} to {@code archive/{type}/{code}/{yyyy-mm}/{key}}, where the type is
+ * the name of the live list and the month is the record's timestamp in UTC. The same write adds
+ * the month to {@code archive_months/{type}/{code}} and deletes the live copy, so a record is
+ * always in exactly one place. Open help requests are never archived.
+ *
+ * Listeners, {@link OfflineSync} and the local stores then only ever see the recent records.
+ * Screens reach older history through a {@link Pager}, which reads one archived month per
+ * single-path read once the live list is exhausted.
+ */
+public final class HistoryArchive {
+
+    /** Root node of the archived records. */
+    public static final String ARCHIVE_PATH = "archive";
+
+    /** Root node of the archived months of every list, keyed like {@link #ARCHIVE_PATH}. */
+    public static final String MONTHS_PATH = "archive_months";
+
+    /** Archived building notifications. */
+    public static final String TYPE_NOTIFICATIONS = FanOutWrite.NOTIFICATIONS_PATH;
+
+    /** Archived, closed help requests. */
+    public static final String TYPE_HELP_REQUESTS = OpenHelpRequestsIndex.REQUESTS_PATH;
+
+    /** Archived chat messages. */
+    public static final String TYPE_CHATS = FanOutWrite.CHATS_PATH;
+
+    // Buckets follow UTC so every device files a record under the same month
+    private static final SimpleDateFormat MONTH_FORMAT = new SimpleDateFormat("yyyy-MM", Locale.US);
+
+    static {
+        MONTH_FORMAT.setTimeZone(TimeZone.getTimeZone("UTC"));
+    }
+
+    private HistoryArchive() {
+    }
+
+    /**
+     * @param timestamp A record's timestamp.
+     * @return The month bucket of the record, e.g. {@code "2026-10"}.
+     */
+    @NonNull
+    static synchronized String monthOf(long timestamp) {
+        return MONTH_FORMAT.format(new Date(timestamp));
+    }
+
+    /**
+     * @param now The current server time.
+     * @param archiveAfterDays The age after which records are archived.
+     * @return The latest timestamp that is archived.
+     */
+    static long cutoff(long now, int archiveAfterDays) {
+        return now - TimeUnit.DAYS.toMillis(archiveAfterDays);
+    }
+
+    /**
+     * Adds the paths that move one record from its live list into its month bucket.
+     *
+     * @param updates The multi-path update, keyed by path relative to the database root.
+     * @param type The name of the live list, e.g. {@link #TYPE_NOTIFICATIONS}.
+     * @param buildingCode The building the record belongs to.
+     * @param key The record's key.
+     * @param value The record as stored, moved unchanged.
+     * @param timestamp The record's timestamp.
+     */
+    static void putMove(@NonNull Map<String, Object> updates, @NonNull String type, @NonNull String buildingCode,
+                        @NonNull String key, @NonNull Object value, long timestamp) {
+        String month = monthOf(timestamp);
+        updates.put(ARCHIVE_PATH + "/" + type + "/" + buildingCode + "/" + month + "/" + key, value);
+        updates.put(MONTHS_PATH + "/" + type + "/" + buildingCode + "/" + month, true);
+        updates.put(type + "/" + buildingCode + "/" + key, null);
+    }
+
+    /**
+     * Reads the archived months of one list.
+     *
+     * @return The task of the read; the children's keys are the months, oldest first.
+     */
+    @NonNull
+    public static Task<DataSnapshot> readMonths(@NonNull String type, @NonNull String buildingCode) {
+        return FirebaseDatabase.getInstance().getReference(MONTHS_PATH).child(type).child(buildingCode).get();
+    }
+
+    /**
+     * Reads one archived month with a single path read.
+     *
+     * @return The task of the read; the children are the records of the month.
+     */
+    @NonNull
+    public static Task<DataSnapshot> readMonth(@NonNull String type, @NonNull String buildingCode, @NonNull String month) {
+        return FirebaseDatabase.getInstance().getReference(ARCHIVE_PATH).child(type).child(buildingCode).child(month).get();
+    }
+
+    /**
+     * Continues a {@link PagedChildEventFeed} into the archive: each call prepends the next older
+     * archived month. Used on the main thread once the feed's live history is exhausted.
+     *
+     * @param <T> The model type of the feed.
+     */
+    public static final class Pager<T> {
+
+        private final String type;
+        private final String buildingCode;
+        private final PagedChildEventFeed<T> feed;
+        private final ChildEventFeed.Parser<T> parser;
+        private final PagedChildEventFeed.SortValue<T> sortValue;
+
+        private List<String> months;
+        private boolean loading;
+
+        /**
+         * @param type The name of the live list the feed shows.
+         * @param buildingCode The building of the feed.
+         * @param feed The feed to prepend the archived months to.
+         * @param parser The feed's parser; archived records keep their stored shape.
+         * @param sortValue The feed's ordering value, used to order each month.
+         */
+        public Pager(@NonNull String type, @NonNull String buildingCode, @NonNull PagedChildEventFeed<T> feed,
+                     @NonNull ChildEventFeed.Parser<T> parser, @NonNull PagedChildEventFeed.SortValue<T> sortValue) {
+            this.type = type;
+            this.buildingCode = buildingCode;
+            this.feed = feed;
+            this.parser = parser;
+            this.sortValue = sortValue;
+        }
+
+        /**
+         * @return {@code true} while a month or the month list is being read.
+         */
+        public boolean isLoading() {
+            return loading;
+        }
+
+        /**
+         * @return {@code true} once every archived month has been prepended.
+         */
+        public boolean isExhausted() {
+            return months != null && months.isEmpty();
+        }
+
+        /**
+         * Prepends the newest archived month not shown yet. The month list is read on the first
+         * call. Does nothing while loading or once exhausted.
+         *
+         * @param listener Notified with the number of records prepended and whether older months
+         *                 remain.
+         */
+        public void loadPrevious(@NonNull PagedChildEventFeed.PageListener listener) {
+            if (loading || isExhausted()) {
+                return;
+            }
+            loading = true;
+            if (months == null) {
+                readMonths(type, buildingCode).addOnCompleteListener(task -> {
+                    if (!task.isSuccessful()) {
+                        loading = false;
+                        listener.onPageError(DatabaseError.fromException(task.getException()));
+                        return;
+                    }
+                    months = new ArrayList<>();
+                    for (DataSnapshot month : task.getResult().getChildren()) {
+                        months.add(month.getKey());
+                    }
+                    loadNewestMonth(listener);
+                });
+            } else {
+                loadNewestMonth(listener);
+            }
+        }
+
+        private void loadNewestMonth(PagedChildEventFeed.PageListener listener) {
+            if (months.isEmpty()) {
+                loading = false;
+                listener.onPageLoaded(0, false);
+                return;
+            }
+            String month = months.remove(months.size() - 1);
+            readMonth(type, buildingCode, month).addOnCompleteListener(task -> {
+                loading = false;
+                if (!task.isSuccessful()) {
+                    months.add(month); // Retry the same month on the next call
+                    listener.onPageError(DatabaseError.fromException(task.getException()));
+                    return;
+                }
+                List<DataSnapshot> records = new ArrayList<>();
+                for (DataSnapshot record : task.getResult().getChildren()) {
+                    records.add(record);
+                }
+                listener.onPageLoaded(prepend(records), !months.isEmpty());
+            });
+        }
+
+        private int prepend(List<DataSnapshot> records) {
+            List<String> keys = new ArrayList<>();
+            List<T> items = new ArrayList<>();
+            for (DataSnapshot record : records) {
+                T item = parser.parse(record);
+                if (item != null) {
+                    keys.add(record.getKey());
+                    items.add(item);
+                }
+            }
+            // Order the month like the feed: by the sort value, then by key
+            List<Integer> order = new ArrayList<>();
+            for (int i = 0; i < items.size(); i++) {
+                order.add(i);
+            }
+            Collections.sort(order, (a, b) -> {
+                int bySortValue = Double.compare(sortValue.of(items.get(a)), sortValue.of(items.get(b)));
+                return bySortValue != 0 ? bySortValue : keys.get(a).compareTo(keys.get(b));
+            });
+            List<String> sortedKeys = new ArrayList<>();
+            List<T> sortedItems = new ArrayList<>();
+            for (int i : order) {
+                sortedKeys.add(keys.get(i));
+                sortedItems.add(items.get(i));
+            }
+            return feed.prependHistory(sortedKeys, sortedItems);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.project;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Daily retention run for the user's building, see {@link HistoryArchive}.
+ *
+ * On a manager's device it moves the records older than {@code BuildConfig.ARCHIVE_AFTER_DAYS}
+ * out of the live lists, {@link #BATCH_SIZE} at a time: each batch is read with one range query
+ * ({@code endAt(cutoff)} on the timestamp, or on the closed range of
+ * {@link HelpRequestStatusKey#FIELD} for help requests) and moved with one atomic multi-path
+ * write. Runs of several managers of one building write the same values, so they may overlap.
+ * It then evicts the archived help requests from the local {@link BuildingDatabase}, which keeps
+ * rows its listeners no longer see, by their mirrored status key: the same predicate as the
+ * server query.
+ */
+public class HistoryArchiveWorker extends Worker {
+
+    private static final String TAG = "HistoryArchive";
+    private static final String WORK_NAME = "history_archive";
+
+    /** Maximum number of records moved per write. */
+    static final int BATCH_SIZE = 200;
+
+    /** Maximum number of writes per list and run; the rest is moved by the next run. */
+    static final int MAX_BATCHES = 10;
+
+    private static final long TIMEOUT_SECONDS = 60;
+
+    public HistoryArchiveWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Schedules the daily run. Keeps an already scheduled run, so it may be called on every
+     * profile update.
+     *
+     * @param context Any context.
+     */
+    public static void schedule(@NonNull Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .setRequiresBatteryNotLow(true)
+                .build();
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(HistoryArchiveWorker.class, 1, TimeUnit.DAYS)
+                .setConstraints(constraints)
+                .build();
+        WorkManager.getInstance(context).enqueueUniquePeriodicWork(WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    /**
+     * Cancels the daily run, e.g. on logout.
+     *
+     * @param context Any context.
+     */
+    public static void cancel(@NonNull Context context) {
+        WorkManager.getInstance(context).cancelUniqueWork(WORK_NAME);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        CachedProfile profile = CachedProfile.read(context);
+        if (profile == null || FirebaseAuth.getInstance().getCurrentUser() == null) {
+            return Result.success();
+        }
+        String buildingCode = profile.buildingCode;
+        long cutoff = HistoryArchive.cutoff(ServerClock.getInstance().now(), BuildConfig.ARCHIVE_AFTER_DAYS);
+
+        if (profile.isManager) {
+            FirebaseDatabase database = FirebaseDatabase.getInstance();
+            DatabaseReference notifications = database.getReference(HistoryArchive.TYPE_NOTIFICATIONS).child(buildingCode);
+            DatabaseReference requests = database.getReference(HistoryArchive.TYPE_HELP_REQUESTS).child(buildingCode);
+            DatabaseReference chats = database.getReference(HistoryArchive.TYPE_CHATS).child(buildingCode);
+            try {
+                archive(HistoryArchive.TYPE_NOTIFICATIONS, buildingCode,
+                        notifications.orderByChild(SnapshotMappers.TIMESTAMP).endAt(cutoff));
+                // Open requests stay live however old they are
+                archive(HistoryArchive.TYPE_HELP_REQUESTS, buildingCode,
+                        HelpRequestStatusKey.closedUpTo(requests, cutoff));
+                archive(HistoryArchive.TYPE_CHATS, buildingCode,
+                        chats.orderByChild(SnapshotMappers.TIMESTAMP).endAt(cutoff));
+            } catch (Exception e) {
+                Log.w(TAG, "Archiving failed, will retry", e);
+                return Result.retry();
+            }
+        }
+
+        HelpRequestStatusKey.deleteClosedUpTo(BuildingDatabase.getInstance(context).buildingDao(), buildingCode, cutoff);
+        return Result.success();
+    }
+
+    /**
+     * Moves the records matched by {@code expired} in batches until none are left or
+     * {@link #MAX_BATCHES} writes have been made.
+     */
+    private void archive(String type, String buildingCode, Query expired) throws Exception {
+        for (int batch = 0; batch < MAX_BATCHES && !isStopped(); batch++) {
+            DataSnapshot result = Tasks.await(expired.limitToFirst(BATCH_SIZE).get(), TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            FanOutWrite write = FanOutWrite.archiveRecords(type, buildingCode, result.getChildren());
+            if (write.getUpdates().isEmpty()) {
+                return;
+            }
+            Tasks.await(write.commit(), TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            Log.d(TAG, "Archived " + result.getChildrenCount() + " records of " + type);
+            if (result.getChildrenCount() < BATCH_SIZE) {
+                return;
+            }
+        }
+    }
+}
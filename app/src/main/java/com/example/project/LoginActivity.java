@@ -2,6 +2,7 @@ package com.example.project;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.splashscreen.SplashScreen;
 
 import android.content.Intent;
 import android.os.Bundle;
@@ -16,11 +17,7 @@ import com.google.android.gms.tasks.Task;
 import com.google.firebase.auth.AuthResult;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
 
 /**
  * LoginActivity handles user authentication and navigation based on user roles.
@@ -63,17 +60,20 @@ public class LoginActivity extends AppCompatActivity {
     /** Firebase Authentication instance for handling user authentication */
     private FirebaseAuth mAuth;
 
-    /** Firebase Database reference for accessing user data */
-    private DatabaseReference usersRef;
+    /** Keeps the splash screen up while an automatic login waits for the user's profile */
+    private boolean waitingForSession;
 
     /**
      * Called when the activity is first created. Handles automatic login for
      * authenticated users and sets up the login interface for new users.
      *
      * The method performs the following operations:
-     * 1. Checks if a user is already authenticated
-     * 2. If authenticated, verifies user data and redirects based on manager status
-     * 3. If not authenticated, displays the login interface
+     * 1. Installs the splash screen
+     * 2. If a {@link CachedProfile} exists, opens its home screen immediately; the home screen
+     *    verifies the role in the background through {@link StartupRouter}
+     * 3. Otherwise, if a user is already authenticated, starts the {@link UserSession} behind the
+     *    splash screen and redirects based on manager status
+     * 4. If not authenticated, displays the login interface
      *
      * @param savedInstanceState If the activity is being re-initialized after
      *                          previously being shut down, this Bundle contains
@@ -81,22 +81,32 @@ public class LoginActivity extends AppCompatActivity {
      */
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        SplashScreen splashScreen = SplashScreen.installSplashScreen(this);
         super.onCreate(savedInstanceState);
 
+        // נתיב מהיר: התפקיד שמור במכשיר, עבור מיד למסך הבית
+        CachedProfile cachedProfile = CachedProfile.read(this);
+        if (cachedProfile != null) {
+            StartupRouter.openHome(this, cachedProfile.isManager);
+            return;
+        }
+
         mAuth = FirebaseAuth.getInstance();
         FirebaseUser currentUser = mAuth.getCurrentUser();
 
         // בדיקה האם משתמש מחובר כבר
         if (currentUser != null) {
-            // משתמש מחובר, קבל את ה-UID שלו ובדוק את סטטוס המנהל
-            String userId = currentUser.getUid();
-            usersRef = FirebaseDatabase.getInstance().getReference().child("users").child(userId);
-            usersRef.addListenerForSingleValueEvent(new ValueEventListener() {
+            // משתמש מחובר, הפעל את הסשן ובדוק את סטטוס המנהל
+            waitingForSession = true;
+            splashScreen.setKeepOnScreenCondition(() -> waitingForSession);
+            UserSession session = UserSession.getInstance();
+            session.start(currentUser.getUid());
+            session.whenReady(new UserSession.Callback() {
                 @Override
-                public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                    if (dataSnapshot.exists()) {
-                        Boolean isManager = dataSnapshot.child("isManager").getValue(Boolean.class);
-                        if (isManager != null && isManager) {
+                public void onSessionReady(@NonNull UserSession session) {
+                    waitingForSession = false;
+                    if (session.hasProfile()) {
+                        if (session.isManager()) {
                             startManagerActivity();
                         } else {
                             startUserActivity();
@@ -113,7 +123,8 @@ public class LoginActivity extends AppCompatActivity {
                 }
 
                 @Override
-                public void onCancelled(@NonNull DatabaseError databaseError) {
+                public void onSessionError(@NonNull DatabaseError databaseError) {
+                    waitingForSession = false;
                     Toast.makeText(LoginActivity.this, "שגיאה בקריאת נתוני משתמש: " + databaseError.getMessage(), Toast.LENGTH_LONG).show();
                     setContentView(R.layout.activity_login); // הצג את מסך ההתחברות
                     setupLoginButtons(); // הגדר את פעולות הכפתורים
@@ -131,19 +142,17 @@ public class LoginActivity extends AppCompatActivity {
      * Sets up the login interface by initializing UI components and setting up event listeners.
      *
      * This method performs the following operations:
-     * 1. Initializes Firebase database reference
-     * 2. Binds UI components to their respective views
-     * 3. Sets up click listeners for login, forgot password, and signup buttons
-     * 4. Implements login validation and authentication logic
+     * 1. Binds UI components to their respective views
+     * 2. Sets up click listeners for login, forgot password, and signup buttons
+     * 3. Implements login validation and authentication logic
      *
      * The login process includes:
      * - Input validation for email, password, and building code
      * - Firebase authentication
-     * - Building code verification against user data
+     * - Building code verification against the {@link UserSession} profile
      * - Role-based navigation after successful authentication
      */
     private void setupLoginButtons() {
-        usersRef = FirebaseDatabase.getInstance().getReference().child("users");
         editTextEmail = findViewById(R.id.editTextEmailLogin);
         editTextPassword = findViewById(R.id.editTextPasswordLogin);
         editTextBuildingCode = findViewById(R.id.editTextBuildingCodeLogin);
@@ -178,16 +187,14 @@ public class LoginActivity extends AppCompatActivity {
                             @Override
                             public void onComplete(@NonNull Task<AuthResult> task) {
                                 if (task.isSuccessful()) {
-                                    String userId = mAuth.getCurrentUser().getUid();
-                                    usersRef.child(userId).addListenerForSingleValueEvent(new ValueEventListener() {
+                                    UserSession session = UserSession.getInstance();
+                                    session.start(mAuth.getCurrentUser().getUid());
+                                    session.whenReady(new UserSession.Callback() {
                                         @Override
-                                        public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                                            if (dataSnapshot.exists()) {
-                                                String userBuildingCode = dataSnapshot.child("buildingCode").getValue(String.class);
-                                                Boolean isManager = dataSnapshot.child("isManager").getValue(Boolean.class);
-
-                                                if (buildingCode.equals(userBuildingCode)) {
-                                                    if (isManager != null && isManager) {
+                                        public void onSessionReady(@NonNull UserSession session) {
+                                            if (session.hasProfile()) {
+                                                if (buildingCode.equals(session.getBuildingCode())) {
+                                                    if (session.isManager()) {
                                                         startManagerActivity();
                                                     } else {
                                                         startUserActivity();
@@ -202,7 +209,7 @@ public class LoginActivity extends AppCompatActivity {
                                         }
 
                                         @Override
-                                        public void onCancelled(@NonNull DatabaseError databaseError) {
+                                        public void onSessionError(@NonNull DatabaseError databaseError) {
                                             Toast.makeText(LoginActivity.this, "שגיאה בקריאת נתוני משתמש: " + databaseError.getMessage(), Toast.LENGTH_LONG).show();
                                         }
                                     });
@@ -1,23 +1,17 @@
 package com.example.project;
 
-import android.app.AlarmManager;
-import android.app.PendingIntent;
-import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
-import android.util.Log;
 import android.view.View;
 import android.widget.Button;
 
 import androidx.appcompat.app.AppCompatActivity;
 
-import java.util.Calendar;
-
 /**
  * MainActivity serves as the main entry point for the application.
- * This activity provides navigation to three main sections of the app:
- * building notifications, user profile, and request submission form.
- * It also sets up a daily notification alarm system.
+ * This activity provides navigation to the main sections of the app:
+ * building notifications, user profile, request submission form and the building chat.
+ * New building notifications arrive as pushes on the building's topic (see {@link BuildingTopics}).
  *
  * @author [Author Name]
  * @version 1.0
@@ -25,13 +19,16 @@ import java.util.Calendar;
  */
 public class MainActivity extends AppCompatActivity {
 
-    /** Tag used for logging purposes */
-    private static final String TAG = "MainActivity";
+    /** Pending background check of the cached role, see {@link StartupRouter} */
+    private UserSession.Callback sessionCheck;
+
+    /** Shows the unread notifications count on the board button */
+    private UnreadCounter.Listener unreadBadge;
 
     /**
      * Called when the activity is first created.
      * Initializes the UI components, sets up button click listeners for navigation,
-     * and configures the daily alarm notification system.
+     * and asks for the notification permission used by building pushes.
      *
      * @param savedInstanceState If the activity is being re-initialized after
      *                          previously being shut down then this Bundle contains
@@ -44,10 +41,20 @@ public class MainActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
+        // אימות התפקיד השמור מול השרת ברקע
+        sessionCheck = StartupRouter.verify(this, false);
+        StartupMetrics.homeScreenShown(this);
+
         // Initialize UI components
         Button buttonBoard = findViewById(R.id.buttonBoard);
         Button buttonProfile = findViewById(R.id.buttonProfile);
         Button buttonForm = findViewById(R.id.buttonForm);
+        Button buttonChat = findViewById(R.id.buttonChat);
+
+        // מספר ההודעות שלא נקראו על כפתור הלוח
+        final String boardLabel = buttonBoard.getText().toString();
+        unreadBadge = unread -> buttonBoard.setText(UnreadCounter.badgeText(boardLabel, unread));
+        UnreadCounter.getInstance().addListener(unreadBadge);
 
         /**
          * Button click listener for navigation to building notifications view.
@@ -91,48 +98,31 @@ public class MainActivity extends AppCompatActivity {
             }
         });
 
-        // Set up daily notification alarm
-        setDailyAlarm();
+        /**
+         * Button click listener for navigation to the building chat.
+         * Opens BuildingChatActivity when clicked.
+         */
+        buttonChat.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                // מעבר לצ'אט הבניין
+                Intent intent = new Intent(MainActivity.this, BuildingChatActivity.class);
+                startActivity(intent);
+            }
+        });
+
+        BuildingTopics.requestPermissionIfNeeded(this);
     }
 
     /**
-     * Sets up a daily repeating alarm that triggers at 4:00 PM every day.
-     * The alarm uses AlarmManager.setInexactRepeating() for battery optimization
-     * and triggers a NotificationReceiver broadcast receiver.
-     *
-     * <p><b>Note:</b> This alarm will not persist across device reboots.
-     * For more reliable scheduling, consider using WorkManager.</p>
-     *
-     * <p><b>Warning:</b> If the current time is already past 4:00 PM when this method
-     * is called, the alarm will trigger immediately rather than waiting for the next day.</p>
-     *
-     * @see AlarmManager#setInexactRepeating(int, long, long, PendingIntent)
-     * @see NotificationReceiver
+     * Cancels the pending role check and detaches the unread badge when the activity is destroyed.
      */
-    private void setDailyAlarm() {
-        AlarmManager alarmMgr = (AlarmManager) getSystemService(Context.ALARM_SERVICE);
-        Intent intent = new Intent(this, NotificationReceiver.class);
-        PendingIntent alarmIntent = PendingIntent.getBroadcast(this, 0, intent,
-                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
-
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTimeInMillis(System.currentTimeMillis());
-
-        // Set start time to 4:00 PM (16:00)
-        int hour = 16;
-        int minute = 0;
-
-        calendar.set(Calendar.HOUR_OF_DAY, hour);
-        calendar.set(Calendar.MINUTE, minute);
-        calendar.set(Calendar.SECOND, 0);
-        calendar.set(Calendar.MILLISECOND, 0);
-
-        Log.d(TAG, "Setting alarm for: " + calendar.getTime().toString());
-
-        // Repeat the alarm every day (INTERVAL_DAY represents 24 hours in milliseconds)
-        alarmMgr.setInexactRepeating(AlarmManager.RTC_WAKEUP, calendar.getTimeInMillis(),
-                AlarmManager.INTERVAL_DAY, alarmIntent);
-
-        Log.d(TAG, "Daily alarm scheduled");
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (sessionCheck != null) {
+            UserSession.getInstance().cancel(sessionCheck);
+        }
+        UnreadCounter.getInstance().removeListener(unreadBadge);
     }
-}
\ No newline at end of file
+}
@@ -18,6 +18,12 @@ import androidx.core.view.WindowInsetsCompat;
  */
 public class ManagerActivity extends AppCompatActivity {
 
+    /** Pending background check of the cached role, see {@link StartupRouter} */
+    private UserSession.Callback sessionCheck;
+
+    /** Shows the unread notifications count on the board button */
+    private UnreadCounter.Listener unreadBadge;
+
     /**
      * Called when the activity is first created. This is where you should do all of your normal static set up:
      * create views, bind data to lists, etc.
@@ -33,11 +39,22 @@ public class ManagerActivity extends AppCompatActivity {
         EdgeToEdge.enable(this);
         setContentView(R.layout.activity_manager);
 
+        // אימות התפקיד השמור מול השרת ברקע
+        sessionCheck = StartupRouter.verify(this, true);
+        StartupMetrics.homeScreenShown(this);
+        BuildingTopics.requestPermissionIfNeeded(this);
+
         // Initialize buttons from the layout
         Button buttonBoard = findViewById(R.id.buttonBoard);
         Button buttonProfile = findViewById(R.id.buttonProfile);
         Button buttonForm = findViewById(R.id.buttonForm);
         Button buttonPublish = findViewById(R.id.buttonPublish);
+        Button buttonChat = findViewById(R.id.buttonChat);
+
+        // מספר ההודעות שלא נקראו על כפתור הלוח
+        final String boardLabel = buttonBoard.getText().toString();
+        unreadBadge = unread -> buttonBoard.setText(UnreadCounter.badgeText(boardLabel, unread));
+        UnreadCounter.getInstance().addListener(unreadBadge);
 
         /**
          * Sets an {@link View.OnClickListener} for the 'Board' button.
@@ -94,5 +111,31 @@ public class ManagerActivity extends AppCompatActivity {
                 startActivity(intent);
             }
         });
+
+        /**
+         * Sets an {@link View.OnClickListener} for the 'Chat' button.
+         * When clicked, it navigates the user to the {@link BuildingChatActivity}.
+         */
+        buttonChat.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                // Create an Intent to switch to BuildingChatActivity
+                Intent intent = new Intent(ManagerActivity.this, BuildingChatActivity.class);
+                // Start the new activity
+                startActivity(intent);
+            }
+        });
+    }
+
+    /**
+     * Cancels the pending role check and detaches the unread badge when the activity is destroyed.
+     */
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (sessionCheck != null) {
+            UserSession.getInstance().cancel(sessionCheck);
+        }
+        UnreadCounter.getInstance().removeListener(unreadBadge);
     }
 }
\ No newline at end of file
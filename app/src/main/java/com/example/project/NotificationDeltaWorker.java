@@ -0,0 +1,117 @@
+package com.example.project;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodic fallback for building pushes: asks only for the notifications published after the
+ * {@link NotificationHighWaterMark} and announces them with their real content.
+ *
+ * The query is {@code startAfter(mark)} with {@code limitToFirst(DELTA_LIMIT)}, so a run with
+ * nothing new transfers an empty result and a run after a burst transfers at most
+ * {@link #DELTA_LIMIT} notifications; the rest are picked up by the next run. Nothing is posted
+ * when the delta is empty, and the first run for a building only sets the mark, so history is
+ * never announced.
+ */
+public class NotificationDeltaWorker extends Worker {
+
+    private static final String TAG = "NotificationDelta";
+    private static final String WORK_NAME = "notification_delta";
+
+    /** Maximum number of notifications read per run. */
+    static final int DELTA_LIMIT = 5;
+
+    private static final long REPEAT_INTERVAL_HOURS = 3;
+    private static final long READ_TIMEOUT_SECONDS = 30;
+
+    public NotificationDeltaWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Schedules the periodic run. Keeps an already scheduled run, so it may be called on every
+     * profile update.
+     *
+     * @param context Any context.
+     */
+    public static void schedule(@NonNull Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .setRequiresBatteryNotLow(true)
+                .build();
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(NotificationDeltaWorker.class,
+                REPEAT_INTERVAL_HOURS, TimeUnit.HOURS)
+                .setConstraints(constraints)
+                .build();
+        WorkManager.getInstance(context).enqueueUniquePeriodicWork(WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    /**
+     * Cancels the periodic run, e.g. on logout.
+     *
+     * @param context Any context.
+     */
+    public static void cancel(@NonNull Context context) {
+        WorkManager.getInstance(context).cancelUniqueWork(WORK_NAME);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        CachedProfile profile = CachedProfile.read(context);
+        if (profile == null || FirebaseAuth.getInstance().getCurrentUser() == null) {
+            return Result.success();
+        }
+        String buildingCode = profile.buildingCode;
+
+        NotificationHighWaterMark mark = NotificationHighWaterMark.read(context, buildingCode);
+        if (mark == null) {
+            NotificationHighWaterMark.advance(context, buildingCode, ServerClock.getInstance().now(), null);
+            return Result.success();
+        }
+
+        Query ordered = FirebaseDatabase.getInstance().getReference(FanOutWrite.NOTIFICATIONS_PATH).child(buildingCode)
+                .orderByChild(SnapshotMappers.TIMESTAMP);
+        Query delta = (mark.key != null ? ordered.startAfter(mark.timestamp, mark.key) : ordered.startAfter(mark.timestamp))
+                .limitToFirst(DELTA_LIMIT);
+        DataSnapshot result;
+        try {
+            result = Tasks.await(delta.get(), READ_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            Log.w(TAG, "Delta read failed, will retry", e);
+            return Result.retry();
+        }
+
+        for (DataSnapshot child : result.getChildren()) {
+            ViewBuildingNotificationsActivity.BuildingNotification notification = SnapshotMappers.toBuildingNotification(child);
+            if (notification == null) {
+                continue;
+            }
+            if (!profile.uid.equals(notification.getPublisherId())) {
+                NotificationPresenter.enqueue(context, child.getKey(), notification.getFullName(), notification.getContent());
+            }
+            NotificationHighWaterMark.advance(context, buildingCode, notification.getTimestamp(), child.getKey());
+        }
+        // Post the whole delta as one group now, before the process may go idle
+        NotificationPresenter.flush(context);
+        return Result.success();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.project;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * The newest building notification this device has already surfaced, as a (timestamp, key)
+ * cursor into {@code building_notifications/{code}} ordered by timestamp.
+ *
+ * It advances whenever a notification reaches the user: a push shown by
+ * {@link BuildingMessagingService}, a delta posted by {@link NotificationDeltaWorker}, or the
+ * board showing the newest notification. The worker asks only for notifications after it, so the
+ * same notification is never announced twice and each run downloads only what is new.
+ */
+public final class NotificationHighWaterMark {
+
+    private static final String PREFS_NAME = "notification_high_water_mark";
+    private static final String KEY_BUILDING_CODE = "buildingCode";
+    private static final String KEY_TIMESTAMP = "timestamp";
+    private static final String KEY_KEY = "key";
+
+    /** Timestamp of the newest surfaced notification. */
+    public final long timestamp;
+
+    /** Push key of the newest surfaced notification, or {@code null} if only the time is known. */
+    @Nullable
+    public final String key;
+
+    private NotificationHighWaterMark(long timestamp, @Nullable String key) {
+        this.timestamp = timestamp;
+        this.key = key;
+    }
+
+    /**
+     * @param context Any context.
+     * @param buildingCode The user's building.
+     * @return The mark of the building, or {@code null} if none is stored yet for it.
+     */
+    @Nullable
+    public static synchronized NotificationHighWaterMark read(@NonNull Context context, @NonNull String buildingCode) {
+        SharedPreferences prefs = prefs(context);
+        if (!buildingCode.equals(prefs.getString(KEY_BUILDING_CODE, null))) {
+            return null;
+        }
+        return new NotificationHighWaterMark(prefs.getLong(KEY_TIMESTAMP, 0L), prefs.getString(KEY_KEY, null));
+    }
+
+    /**
+     * Moves the mark forward to the given notification. A notification at or before the current
+     * mark leaves it unchanged; a different building replaces it.
+     *
+     * @param context Any context.
+     * @param buildingCode The notification's building.
+     * @param timestamp The notification's timestamp.
+     * @param key The notification's push key, or {@code null} to mark a point in time.
+     */
+    public static synchronized void advance(@NonNull Context context, @NonNull String buildingCode,
+                                            long timestamp, @Nullable String key) {
+        NotificationHighWaterMark current = read(context, buildingCode);
+        if (current != null && !isAfter(timestamp, key, current.timestamp, current.key)) {
+            return;
+        }
+        prefs(context).edit()
+                .putString(KEY_BUILDING_CODE, buildingCode)
+                .putLong(KEY_TIMESTAMP, timestamp)
+                .putString(KEY_KEY, key)
+                .apply();
+    }
+
+    /**
+     * Orders cursors like {@code orderByChild("timestamp")}: by timestamp, then by key, where a
+     * missing key sorts after every key of the same timestamp.
+     */
+    static boolean isAfter(long timestamp, @Nullable String key, long otherTimestamp, @Nullable String otherKey) {
+        if (timestamp != otherTimestamp) {
+            return timestamp > otherTimestamp;
+        }
+        if (otherKey == null) {
+            return false;
+        }
+        return key == null || key.compareTo(otherKey) > 0;
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+}
@@ -0,0 +1,312 @@
+package com.example.project;
+
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.service.notification.StatusBarNotification;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shows new building notifications as one group: a child per notification and an inbox-style
+ * summary with the count and the latest lines.
+ *
+ * Items are not posted as they arrive. {@link #enqueue} collects them for {@link #WINDOW_MS} and
+ * a single flush then posts the batch, so a burst of announcements costs one summary update and
+ * one alert instead of one of each per announcement. Children are posted silently and only the
+ * summary alerts. The group state lives in the status bar itself (the active notifications), so
+ * the count survives process death without any stored state.
+ *
+ * The channels are created once, at process start, by {@link #createChannels}.
+ */
+public final class NotificationPresenter {
+
+    private static final String TAG = "NotificationPresenter";
+
+    /** Channel of new building notifications */
+    public static final String CHANNEL_ID = "building_notifications_channel";
+
+    /** Channel of the daily reminder, see {@link ReminderScheduler} */
+    public static final String REMINDER_CHANNEL_ID = "daily_reminder_channel";
+
+    private static final String GROUP_KEY = "com.example.project.BUILDING_NOTIFICATIONS";
+    private static final int SUMMARY_ID = 1;
+    private static final int CHILD_ID = 2;
+    private static final int REMINDER_ID = 123;
+    private static final int SEND_FAILED_ID = 4;
+
+    /** How long items are collected before they are posted together. */
+    static final long WINDOW_MS = 2000;
+
+    /** Maximum number of lines in the summary. */
+    static final int MAX_LINES = 5;
+
+    /** Extra holding a child's summary line, read back from the status bar by the next flush. */
+    private static final String EXTRA_LINE = "com.example.project.LINE";
+
+    private static final List<Item> pending = new ArrayList<>();
+    private static Handler handler;
+    private static boolean flushScheduled;
+
+    /**
+     * One notification to show.
+     */
+    static final class Item {
+        final String key;
+        final String title;
+        final String content;
+
+        Item(String key, String title, String content) {
+            this.key = key;
+            this.title = title;
+            this.content = content;
+        }
+
+        /** @return The summary line of the item. */
+        String line() {
+            return title + ": " + content;
+        }
+    }
+
+    private NotificationPresenter() {
+    }
+
+    /**
+     * Creates the notification channels. Called once from {@link BinYanApplication#onCreate()};
+     * creating an existing channel only updates its name and description.
+     *
+     * @param context Any context.
+     */
+    public static void createChannels(@NonNull Context context) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O) {
+            return;
+        }
+        NotificationManager notificationManager = context.getSystemService(NotificationManager.class);
+        if (notificationManager == null) {
+            return;
+        }
+        NotificationChannel building = new NotificationChannel(CHANNEL_ID, "הודעות הבניין", // Building notifications
+                NotificationManager.IMPORTANCE_DEFAULT);
+        building.setDescription("הודעות חדשות מוועד הבית"); // New notifications from the building committee
+        notificationManager.createNotificationChannel(building);
+
+        NotificationChannel reminder = new NotificationChannel(REMINDER_CHANNEL_ID, "תזכורת יומית", // Daily Reminder
+                NotificationManager.IMPORTANCE_DEFAULT);
+        reminder.setDescription("ערוץ עבור תזכורות יומיות לאפליקציה"); // Channel for daily reminders for the app
+        notificationManager.createNotificationChannel(reminder);
+    }
+
+    /**
+     * Queues a new building notification; it is posted with everything else queued within
+     * {@link #WINDOW_MS}. May be called from any thread.
+     *
+     * @param context Any context.
+     * @param key The push key of the notification.
+     * @param fullName The publisher's name, if known.
+     * @param content The notification's text.
+     */
+    public static void enqueue(@NonNull Context context, @NonNull String key, @Nullable String fullName,
+                               @Nullable String content) {
+        Context appContext = context.getApplicationContext();
+        synchronized (pending) {
+            pending.add(new Item(key, fullName != null ? fullName : "ועד הבית", content != null ? content : "")); // Building committee
+            if (flushScheduled) {
+                return;
+            }
+            flushScheduled = true;
+            if (handler == null) {
+                handler = new Handler(Looper.getMainLooper());
+            }
+        }
+        handler.postDelayed(() -> flush(appContext), WINDOW_MS);
+    }
+
+    /**
+     * Posts everything queued so far, without waiting for the window to end. Used by callers that
+     * are about to let the process go idle, such as {@link NotificationDeltaWorker}.
+     *
+     * @param context Any context.
+     */
+    public static void flush(@NonNull Context context) {
+        List<Item> batch;
+        synchronized (pending) {
+            batch = new ArrayList<>(pending);
+            pending.clear();
+            flushScheduled = false;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        NotificationManagerCompat notificationManager = NotificationManagerCompat.from(context);
+        if (!notificationManager.areNotificationsEnabled()) {
+            return;
+        }
+
+        // Lines of the children already in the status bar, newest first
+        List<String> shownLines = new ArrayList<>();
+        List<String> batchKeys = new ArrayList<>();
+        for (Item item : batch) {
+            batchKeys.add(item.key);
+        }
+        for (StatusBarNotification active : activeChildren(context)) {
+            if (!batchKeys.contains(active.getTag())) {
+                CharSequence text = active.getNotification().extras.getCharSequence(EXTRA_LINE);
+                shownLines.add(text != null ? text.toString() : "");
+            }
+        }
+        List<String> lines = summaryLines(batch, shownLines);
+        int count = batch.size() + shownLines.size();
+
+        PendingIntent openBoard = openBoardIntent(context);
+        try {
+            for (Item item : batch) {
+                notificationManager.notify(item.key, CHILD_ID, new NotificationCompat.Builder(context, CHANNEL_ID)
+                        .setSmallIcon(R.drawable.ic_launcher_foreground)
+                        .setContentTitle(item.title)
+                        .setContentText(item.content)
+                        .setStyle(new NotificationCompat.BigTextStyle().bigText(item.content))
+                        .setContentIntent(openBoard)
+                        .setAutoCancel(true)
+                        .setGroup(GROUP_KEY)
+                        .setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_SUMMARY)
+                        .addExtras(lineExtras(item))
+                        .build());
+            }
+
+            NotificationCompat.InboxStyle inbox = new NotificationCompat.InboxStyle()
+                    .setSummaryText(count + " הודעות חדשות"); // ... new notifications
+            for (String line : lines) {
+                inbox.addLine(line);
+            }
+            notificationManager.notify(SUMMARY_ID, new NotificationCompat.Builder(context, CHANNEL_ID)
+                    .setSmallIcon(R.drawable.ic_launcher_foreground)
+                    .setContentTitle(count == 1 ? batch.get(0).title : count + " הודעות חדשות מועד הבית") // ... new notifications from the building committee
+                    .setContentText(lines.get(0))
+                    .setStyle(inbox)
+                    .setNumber(count)
+                    .setContentIntent(openBoard)
+                    .setAutoCancel(true)
+                    .setGroup(GROUP_KEY)
+                    .setGroupSummary(true)
+                    .setGroupAlertBehavior(NotificationCompat.GROUP_ALERT_SUMMARY)
+                    .build());
+        } catch (SecurityException e) {
+            // The permission was revoked between the check and the post
+            Log.w(TAG, "Notification permission missing", e);
+        }
+    }
+
+    /**
+     * Shows the daily reminder to check the board. Showing it again replaces the previous one.
+     *
+     * @param context Any context.
+     */
+    public static void showReminder(@NonNull Context context) {
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, REMINDER_CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_launcher_foreground)
+                .setContentTitle("תזכורת יומית!") // Daily Reminder!
+                .setContentText("אל תשכחו לבדוק הודעות חדשות מועד הבית!") // Don't forget to check for new messages from the building committee!
+                .setPriority(NotificationCompat.PRIORITY_DEFAULT)
+                .setContentIntent(openBoardIntent(context))
+                .setAutoCancel(true);
+        try {
+            NotificationManagerCompat.from(context).notify(REMINDER_ID, builder.build());
+        } catch (SecurityException e) {
+            Log.w(TAG, "Notification permission missing", e);
+        }
+    }
+
+    /**
+     * Tells the user that the server refused one of their submissions, so it will not appear.
+     *
+     * @param context Any context.
+     * @param key The push key of the submission.
+     * @param kind {@link Outbox#KIND_NOTIFICATION} or {@link Outbox#KIND_HELP_REQUEST}.
+     */
+    public static void showSendFailed(@NonNull Context context, @NonNull String key, @NonNull String kind) {
+        String title = Outbox.KIND_NOTIFICATION.equals(kind)
+                ? "ההודעה לא פורסמה" // The notification was not published
+                : "הפנייה לא הוגשה"; // The request was not submitted
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_launcher_foreground)
+                .setContentTitle(title)
+                .setContentText("השרת דחה את השליחה. נסו שוב.") // The server rejected it. Please try again.
+                .setPriority(NotificationCompat.PRIORITY_DEFAULT)
+                .setAutoCancel(true);
+        try {
+            NotificationManagerCompat.from(context).notify(key, SEND_FAILED_ID, builder.build());
+        } catch (SecurityException e) {
+            Log.w(TAG, "Notification permission missing", e);
+        }
+    }
+
+    /**
+     * Removes the whole group, e.g. when the user opens the board and has seen everything.
+     *
+     * @param context Any context.
+     */
+    public static void clear(@NonNull Context context) {
+        NotificationManagerCompat notificationManager = NotificationManagerCompat.from(context);
+        for (StatusBarNotification active : activeChildren(context)) {
+            notificationManager.cancel(active.getTag(), CHILD_ID);
+        }
+        notificationManager.cancel(SUMMARY_ID);
+    }
+
+    /**
+     * Picks the lines of the summary: the new items, newest first, then the ones already shown,
+     * up to {@link #MAX_LINES}.
+     */
+    static List<String> summaryLines(List<Item> batch, List<String> shownLines) {
+        List<String> lines = new ArrayList<>();
+        for (int i = batch.size() - 1; i >= 0 && lines.size() < MAX_LINES; i--) {
+            lines.add(batch.get(i).line());
+        }
+        for (int i = 0; i < shownLines.size() && lines.size() < MAX_LINES; i++) {
+            lines.add(shownLines.get(i));
+        }
+        return lines;
+    }
+
+    private static Bundle lineExtras(Item item) {
+        Bundle extras = new Bundle();
+        extras.putCharSequence(EXTRA_LINE, item.line());
+        return extras;
+    }
+
+    private static List<StatusBarNotification> activeChildren(Context context) {
+        List<StatusBarNotification> children = new ArrayList<>();
+        NotificationManager notificationManager = context.getSystemService(NotificationManager.class);
+        if (notificationManager == null) {
+            return children;
+        }
+        for (StatusBarNotification active : notificationManager.getActiveNotifications()) {
+            if (active.getId() == CHILD_ID && GROUP_KEY.equals(active.getNotification().getGroup())) {
+                children.add(active);
+            }
+        }
+        // Newest first
+        children.sort((a, b) -> Long.compare(b.getPostTime(), a.getPostTime()));
+        return children;
+    }
+
+    private static PendingIntent openBoardIntent(Context context) {
+        Intent intent = new Intent(context, ViewBuildingNotificationsActivity.class);
+        intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+        return PendingIntent.getActivity(context, 0, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+    }
+}
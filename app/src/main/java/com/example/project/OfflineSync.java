@@ -0,0 +1,91 @@
+package com.example.project;
+
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.Query;
+
+/**
+ * Offline-first configuration of the Realtime Database.
+ *
+ * With disk persistence enabled, listeners are first answered from the local cache and then
+ * reconciled when the server responds, so a list the device has already seen renders without
+ * waiting for the network. {@link #syncBuilding(String, boolean)} additionally keeps the data of
+ * the signed-in user's building synced in the background, so the cache is fresh when a screen opens.
+ *
+ * The mode is controlled by {@code BuildConfig.OFFLINE_FIRST} and the cache is bounded by
+ * {@code BuildConfig.DATABASE_CACHE_SIZE_BYTES}.
+ */
+public final class OfflineSync {
+
+    private static String syncedBuildingCode;
+    private static boolean syncedRequests;
+
+    private OfflineSync() {
+    }
+
+    /**
+     * Enables disk persistence with the configured cache size. Must run before any other use of
+     * {@link FirebaseDatabase}, which is why it is called from {@link BinYanApplication#onCreate()}.
+     */
+    public static void configure() {
+        if (!BuildConfig.OFFLINE_FIRST) {
+            return;
+        }
+        FirebaseDatabase database = FirebaseDatabase.getInstance();
+        database.setPersistenceCacheSizeBytes(BuildConfig.DATABASE_CACHE_SIZE_BYTES);
+        database.setPersistenceEnabled(true);
+    }
+
+    /**
+     * @return {@code true} if offline-first mode is enabled in this build.
+     */
+    public static boolean isEnabled() {
+        return BuildConfig.OFFLINE_FIRST;
+    }
+
+    /**
+     * Keeps the given building's data synced, replacing any previously synced building.
+     * The newest page of {@code building_notifications/{code}} is synced for every user, using the
+     * same query the notification board listens to so both share one cache view. The whole
+     * {@code help_requests/{code}} list is synced only for managers, the only users that view it;
+     * closed requests leave it once they are archived (see {@link HistoryArchive}).
+     *
+     * @param buildingCode The building code, or {@code null} to stop syncing.
+     * @param isManager Whether the user has manager privileges.
+     */
+    public static synchronized void syncBuilding(@Nullable String buildingCode, boolean isManager) {
+        if (!BuildConfig.OFFLINE_FIRST) {
+            return;
+        }
+        boolean sameBuilding = buildingCode != null && buildingCode.equals(syncedBuildingCode);
+        if (sameBuilding && syncedRequests == isManager) {
+            return;
+        }
+        if (syncedBuildingCode != null) {
+            notificationsQuery(syncedBuildingCode).keepSynced(false);
+            if (syncedRequests) {
+                requestsQuery(syncedBuildingCode).keepSynced(false);
+            }
+        }
+        syncedBuildingCode = buildingCode;
+        syncedRequests = buildingCode != null && isManager;
+        if (buildingCode != null) {
+            notificationsQuery(buildingCode).keepSynced(true);
+            if (syncedRequests) {
+                requestsQuery(buildingCode).keepSynced(true);
+            }
+        }
+    }
+
+    private static Query notificationsQuery(String buildingCode) {
+        return FirebaseDatabase.getInstance().getReference("building_notifications").child(buildingCode)
+                .orderByChild("timestamp")
+                .limitToLast(ViewBuildingNotificationsActivity.PAGE_SIZE);
+    }
+
+    private static Query requestsQuery(String buildingCode) {
+        return FirebaseDatabase.getInstance().getReference(OpenHelpRequestsIndex.REQUESTS_PATH).child(buildingCode)
+                .orderByChild("timestamp");
+    }
+}
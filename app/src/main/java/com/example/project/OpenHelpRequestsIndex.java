@@ -0,0 +1,94 @@
+package com.example.project;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maintains the denormalized {@code open_help_requests} index.
+ *
+ * Every open help request of every building is mirrored under {@code open_help_requests/{requestId}}
+ * together with its building code. The entry is written in the same multi-path
+ * {@code updateChildren} call as the request itself and removed in the same call that closes the
+ * request, so the index can never disagree with {@code help_requests}. Screens that show open
+ * requests listen to this small index instead of the whole {@code help_requests} tree.
+ */
+public final class OpenHelpRequestsIndex {
+
+    /** Root node of the index. */
+    public static final String INDEX_PATH = "open_help_requests";
+
+    /** Root node of the help requests, keyed by building code. */
+    public static final String REQUESTS_PATH = "help_requests";
+
+    private OpenHelpRequestsIndex() {
+    }
+
+    /**
+     * Adds the paths that create an open request and its index entry to a multi-path update.
+     *
+     * @param updates The multi-path update, keyed by path relative to the database root.
+     * @param buildingCode The building the request belongs to.
+     * @param requestId The push key of the request.
+     * @param requestData The request fields; must contain {@code "timestamp"}. The composite
+     *                    {@link HelpRequestStatusKey#FIELD} is not known until the server resolves
+     *                    the timestamp and is added by the {@code stampHelpRequest} Cloud
+     *                    Function once it has.
+     */
+    public static void putOpenRequest(@NonNull Map<String, Object> updates, @NonNull String buildingCode,
+                                      @NonNull String requestId, @NonNull Map<String, Object> requestData) {
+        updates.put(REQUESTS_PATH + "/" + buildingCode + "/" + requestId, SnapshotMappers.stored(requestData, false));
+
+        updates.put(INDEX_PATH + "/" + requestId, SnapshotMappers.stored(indexEntry(buildingCode, requestData), true));
+    }
+
+    /**
+     * Builds the index entry of a request: its fields plus the building code. The index is ordered
+     * by timestamp, so the entry does not carry the request's composite status key.
+     *
+     * @param buildingCode The building the request belongs to.
+     * @param requestFields The fields of the request, as built or as stored.
+     * @return A new map to store under {@code open_help_requests/{requestId}}.
+     */
+    @NonNull
+    public static Map<String, Object> indexEntry(@NonNull String buildingCode, @NonNull Map<?, ?> requestFields) {
+        Map<String, Object> entry = new HashMap<>();
+        for (Map.Entry<?, ?> field : requestFields.entrySet()) {
+            entry.put(field.getKey().toString(), field.getValue());
+        }
+        entry.remove(HelpRequestStatusKey.FIELD);
+        entry.put(SnapshotMappers.BUILDING_CODE, buildingCode);
+        return entry;
+    }
+
+    /**
+     * Adds the paths that close a request and drop its index entry to a multi-path update.
+     *
+     * @param updates The multi-path update, keyed by path relative to the database root.
+     * @param buildingCode The building the request belongs to.
+     * @param requestId The push key of the request.
+     * @param timestamp The stored timestamp of the request, used for its composite status key.
+     */
+    public static void putCloseRequest(@NonNull Map<String, Object> updates, @NonNull String buildingCode,
+                                       @NonNull String requestId, long timestamp) {
+        updates.put(REQUESTS_PATH + "/" + buildingCode + "/" + requestId + "/isOpen", false);
+        updates.put(REQUESTS_PATH + "/" + buildingCode + "/" + requestId + "/" + HelpRequestStatusKey.FIELD,
+                HelpRequestStatusKey.of(false, timestamp));
+        updates.put(INDEX_PATH + "/" + requestId, null);
+    }
+
+    /**
+     * Closes a request and removes it from the index in one atomic write.
+     *
+     * @param buildingCode The building the request belongs to.
+     * @param requestId The push key of the request.
+     * @param timestamp The timestamp of the request, used for its composite status key.
+     * @return The task of the write.
+     */
+    public static Task<Void> closeRequest(@NonNull String buildingCode, @NonNull String requestId, long timestamp) {
+        return FanOutWrite.closeHelpRequest(buildingCode, requestId, timestamp).commit();
+    }
+}
@@ -0,0 +1,306 @@
+package com.example.project;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.LiveData;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseException;
+import com.google.firebase.database.FirebaseDatabase;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable queue of submissions that the server has not acknowledged yet.
+ *
+ * {@link #submit} stores the {@link FanOutWrite} in the {@code outbox} table of the
+ * {@link BuildingDatabase} before sending it, and deletes the row once the write completes. If the
+ * process dies first, or the write fails, the row survives and {@link OutboxWorker} resends it in
+ * the background once the device is online, retrying with exponential backoff. Screens therefore
+ * return as soon as the submission is queued, and lists mark the items that are still waiting with
+ * {@link #observePendingKeys}.
+ *
+ * While the process that made a submission is alive, Firebase itself keeps retrying the write, so
+ * the worker leaves it alone ({@link #isInFlight}). After a restart the worker first checks whether
+ * the record already reached the server, and resends only if it did not: a replay would apply the
+ * notification counter's increment a second time and re-stamp the record's timestamp.
+ *
+ * A write the server refuses (a rules or validation failure, see {@link #isRejected}) can never
+ * succeed. It is dropped from the queue and the user is told with
+ * {@link NotificationPresenter#showSendFailed}, rather than retried forever ahead of the entries
+ * behind it. Any other failure leaves the entry queued.
+ */
+public final class Outbox {
+
+    /** A building notification, see {@link FanOutWrite#publishNotification}. */
+    public static final String KIND_NOTIFICATION = "notification";
+
+    /** A new help request, see {@link FanOutWrite#submitHelpRequest}. */
+    public static final String KIND_HELP_REQUEST = "help_request";
+
+    /** How long a submission may stay in flight in the foreground before the worker resends it. */
+    static final long GRACE_PERIOD_MS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final String TAG = "Outbox";
+    private static final String WORK_NAME = "outbox";
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    // Keys whose write this process has handed to Firebase and not yet seen complete
+    private static final Set<String> inFlight = Collections.synchronizedSet(new HashSet<>());
+
+    private Outbox() {
+    }
+
+    /**
+     * Queues a submission and sends it. Returns immediately; the write is retried in the
+     * background until it is acknowledged, even across process restarts.
+     *
+     * @param context Any context.
+     * @param buildingCode The building the submission belongs to.
+     * @param kind {@link #KIND_NOTIFICATION} or {@link #KIND_HELP_REQUEST}.
+     * @param write The write to send.
+     */
+    public static void submit(@NonNull Context context, @NonNull String buildingCode,
+                              @NonNull String kind, @NonNull FanOutWrite write) {
+        Context appContext = context.getApplicationContext();
+        OutboxEntity entry = new OutboxEntity();
+        entry.key = write.getKey();
+        entry.kind = kind;
+        entry.buildingCode = buildingCode;
+        entry.updates = toJson(write.getUpdates()).toString();
+        entry.createdAt = System.currentTimeMillis();
+
+        // The row is written on the same single thread that later deletes it, so the delete can
+        // never overtake the insert, however fast the acknowledgement arrives
+        executor.execute(() -> dao(appContext).insertOutboxEntry(entry));
+        scheduleDrain(appContext);
+
+        inFlight.add(entry.key);
+        send(write.getUpdates())
+                .addOnSuccessListener(unused -> {
+                    inFlight.remove(entry.key);
+                    executor.execute(() -> dao(appContext).deleteOutboxEntry(entry.key));
+                })
+                .addOnFailureListener(e -> {
+                    inFlight.remove(entry.key);
+                    if (e instanceof RejectedWriteException) {
+                        reject(appContext, entry, e);
+                    } else {
+                        // The row stays queued and the worker resends it
+                        Log.w(TAG, "Outbox entry " + entry.key + " not sent, will retry", e);
+                    }
+                });
+    }
+
+    /**
+     * @param key The push key of a submission.
+     * @return {@code true} if this process sent the submission and Firebase is still delivering it.
+     */
+    static boolean isInFlight(@NonNull String key) {
+        return inFlight.contains(key);
+    }
+
+    /**
+     * @param entry A queued submission.
+     * @return The path of the submission's primary record, relative to the database root.
+     */
+    @NonNull
+    static String primaryPath(@NonNull OutboxEntity entry) {
+        String list = KIND_NOTIFICATION.equals(entry.kind) ? FanOutWrite.NOTIFICATIONS_PATH : OpenHelpRequestsIndex.REQUESTS_PATH;
+        return list + "/" + entry.buildingCode + "/" + entry.key;
+    }
+
+    /**
+     * Sends a multi-path update from the database root, like {@link FanOutWrite#commit()}, but
+     * keeps the server's error code: the task fails with a {@link RejectedWriteException} if the
+     * server refused the write, and with the plain {@link DatabaseException} of any other error.
+     *
+     * @param updates The multi-path update, keyed by path relative to the database root.
+     * @return A task that completes when the server has acknowledged the write.
+     */
+    @NonNull
+    static Task<Void> send(@NonNull Map<String, Object> updates) {
+        TaskCompletionSource<Void> result = new TaskCompletionSource<>();
+        FirebaseDatabase.getInstance().getReference().updateChildren(new HashMap<>(updates), (error, ref) -> {
+            if (error == null) {
+                result.setResult(null);
+            } else if (isRejected(error)) {
+                result.setException(new RejectedWriteException(error));
+            } else {
+                result.setException(error.toException());
+            }
+        });
+        return result.getTask();
+    }
+
+    /**
+     * Tells a refused write from one that may still succeed. Only the completion of the write
+     * itself is classified: the server answers a rules or validation failure with
+     * {@link DatabaseError#PERMISSION_DENIED}, while every other code (a cancelled write, a lost
+     * connection) is worth sending again.
+     *
+     * @param error The error the write completed with.
+     * @return {@code true} if sending the same write again cannot succeed.
+     */
+    static boolean isRejected(@NonNull DatabaseError error) {
+        return error.getCode() == DatabaseError.PERMISSION_DENIED;
+    }
+
+    /**
+     * Failure of a write that {@link #isRejected} classifies as refused.
+     */
+    static final class RejectedWriteException extends Exception {
+
+        RejectedWriteException(@NonNull DatabaseError error) {
+            super(error.getMessage(), error.toException());
+        }
+    }
+
+    /**
+     * Drops a refused submission from the queue and tells the user.
+     *
+     * @param context The application context.
+     * @param entry The refused submission.
+     * @param error Why it was refused.
+     */
+    static void reject(@NonNull Context context, @NonNull OutboxEntity entry, @NonNull Throwable error) {
+        Log.e(TAG, "Server refused outbox entry " + entry.key + ", dropping it", error);
+        executor.execute(() -> dao(context).deleteOutboxEntry(entry.key));
+        NotificationPresenter.showSendFailed(context, entry.key, entry.kind);
+    }
+
+    /**
+     * Observes the keys of the submissions of one building that are still waiting to be sent.
+     *
+     * @param context Any context.
+     * @param buildingCode The building to observe.
+     * @param kind {@link #KIND_NOTIFICATION} or {@link #KIND_HELP_REQUEST}.
+     * @return The pending keys, updated whenever the outbox changes.
+     */
+    @NonNull
+    public static LiveData<List<String>> observePendingKeys(@NonNull Context context, @NonNull String buildingCode,
+                                                            @NonNull String kind) {
+        return dao(context.getApplicationContext()).observeOutboxKeys(buildingCode, kind);
+    }
+
+    /**
+     * Schedules {@link OutboxWorker} to run once the grace period has passed and the device is
+     * online. Each submission appends a run, so entries queued while a run is in progress are
+     * picked up by the next one.
+     */
+    static void scheduleDrain(@NonNull Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(OutboxWorker.class)
+                .setConstraints(constraints)
+                .setInitialDelay(GRACE_PERIOD_MS, TimeUnit.MILLISECONDS)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 30, TimeUnit.SECONDS)
+                .build();
+        WorkManager.getInstance(context).enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.APPEND_OR_REPLACE, request);
+    }
+
+    static BuildingDao dao(Context context) {
+        return BuildingDatabase.getInstance(context).buildingDao();
+    }
+
+    /**
+     * Converts a multi-path update to JSON. {@code null} values, which delete their path, are kept
+     * as JSON {@code null}.
+     */
+    @NonNull
+    static JSONObject toJson(@NonNull Map<String, ?> map) {
+        JSONObject json = new JSONObject();
+        try {
+            for (Map.Entry<String, ?> entry : map.entrySet()) {
+                json.put(entry.getKey(), toJsonValue(entry.getValue()));
+            }
+        } catch (JSONException e) {
+            throw new IllegalArgumentException("Unsupported value in outbox write", e);
+        }
+        return json;
+    }
+
+    private static Object toJsonValue(@Nullable Object value) {
+        if (value == null) {
+            return JSONObject.NULL;
+        }
+        if (value instanceof Map) {
+            Map<String, Object> map = new HashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                map.put(String.valueOf(entry.getKey()), entry.getValue());
+            }
+            return toJson(map);
+        }
+        if (value instanceof List) {
+            JSONArray array = new JSONArray();
+            for (Object item : (List<?>) value) {
+                array.put(toJsonValue(item));
+            }
+            return array;
+        }
+        return value;
+    }
+
+    /**
+     * Converts JSON written by {@link #toJson} back to a multi-path update.
+     */
+    @NonNull
+    static Map<String, Object> fromJson(@NonNull String json) throws JSONException {
+        return fromJsonObject(new JSONObject(json));
+    }
+
+    private static Map<String, Object> fromJsonObject(JSONObject json) throws JSONException {
+        Map<String, Object> map = new HashMap<>();
+        Iterator<String> keys = json.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            map.put(key, fromJsonValue(json.get(key)));
+        }
+        return map;
+    }
+
+    private static Object fromJsonValue(Object value) throws JSONException {
+        if (value == JSONObject.NULL) {
+            return null;
+        }
+        if (value instanceof JSONObject) {
+            return fromJsonObject((JSONObject) value);
+        }
+        if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            List<Object> list = new ArrayList<>(array.length());
+            for (int i = 0; i < array.length(); i++) {
+                list.add(fromJsonValue(array.get(i)));
+            }
+            return list;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.project;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Local row of a submission that has not been acknowledged by the server yet. See {@link Outbox}.
+ */
+@Entity(tableName = "outbox",
+        indices = {@Index({"buildingCode", "kind"})})
+public class OutboxEntity {
+
+    /** The push key of the submitted record */
+    @PrimaryKey
+    @NonNull
+    public String key = "";
+
+    /** What was submitted, {@link Outbox#KIND_NOTIFICATION} or {@link Outbox#KIND_HELP_REQUEST} */
+    @NonNull
+    public String kind = "";
+
+    /** The building the record belongs to */
+    @NonNull
+    public String buildingCode = "";
+
+    /** The multi-path update of the submission, as a JSON object keyed by path */
+    @NonNull
+    public String updates = "";
+
+    /** When the submission was made, on the device clock */
+    public long createdAt;
+}
@@ -0,0 +1,90 @@
+package com.example.project;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+
+import org.json.JSONException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resends the {@link Outbox} entries whose foreground write was not acknowledged within
+ * {@link Outbox#GRACE_PERIOD_MS}, oldest first. Runs only while the device is online.
+ *
+ * Entries this process is still delivering are skipped and checked again later. An entry whose
+ * record already reached the server is removed without being sent again, and one the server
+ * refuses is dropped (see {@link Outbox#reject}). If the check or the write fails for any other
+ * reason, the remaining entries stay queued and the work is retried with backoff.
+ */
+public class OutboxWorker extends Worker {
+
+    private static final String TAG = "OutboxWorker";
+    private static final long WRITE_TIMEOUT_SECONDS = 60;
+
+    public OutboxWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        BuildingDao dao = Outbox.dao(context);
+        DatabaseReference root = FirebaseDatabase.getInstance().getReference();
+        List<OutboxEntity> entries = dao.getOutboxEntries(System.currentTimeMillis() - Outbox.GRACE_PERIOD_MS);
+        boolean waiting = false;
+        for (OutboxEntity entry : entries) {
+            if (Outbox.isInFlight(entry.key)) {
+                // Firebase still holds this process's own write and delivers it when it can
+                waiting = true;
+                continue;
+            }
+            Map<String, Object> updates;
+            try {
+                updates = Outbox.fromJson(entry.updates);
+            } catch (JSONException e) {
+                // A row that cannot be parsed will never succeed; drop it rather than block the queue
+                Log.e(TAG, "Dropping unreadable outbox entry " + entry.key, e);
+                dao.deleteOutboxEntry(entry.key);
+                continue;
+            }
+            // Firebase may have delivered the write before the process died, or after it
+            // restarted; sending it again would count the notification twice
+            DataSnapshot sent;
+            try {
+                sent = Tasks.await(root.child(Outbox.primaryPath(entry)).get(),
+                        WRITE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                // Says nothing about the write itself, so the entry is never dropped for it
+                Log.w(TAG, "Outbox entry " + entry.key + " not checked, will retry", e);
+                return Result.retry();
+            }
+            if (!sent.exists()) {
+                try {
+                    Tasks.await(Outbox.send(updates), WRITE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    if (e instanceof ExecutionException && e.getCause() instanceof Outbox.RejectedWriteException) {
+                        Outbox.reject(context, entry, e.getCause());
+                        continue;
+                    }
+                    Log.w(TAG, "Outbox entry " + entry.key + " not sent, will retry", e);
+                    return Result.retry();
+                }
+            }
+            dao.deleteOutboxEntry(entry.key);
+        }
+        return waiting ? Result.retry() : Result.success();
+    }
+}
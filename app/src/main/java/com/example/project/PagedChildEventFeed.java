@@ -0,0 +1,281 @@
+package com.example.project;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link ChildEventFeed} that loads a query one page at a time.
+ *
+ * Only the newest page is live: it is read with {@code limitToLast(pageSize)} and kept in sync
+ * through child events. Older pages are fetched on demand with a single read that uses an
+ * {@code endBefore(sortValue, key)} cursor taken from the oldest item already in the feed, and
+ * are prepended to the list. The amount of data downloaded when a screen opens is therefore
+ * bounded by the page size, not by the length of the history.
+ *
+ * When a new child enters the live window, Firebase evicts the oldest live child with a
+ * {@code child_removed} event, followed by the {@code child_added} of the new child in the same
+ * event batch. Such children are kept in the feed as part of the loaded history rather than
+ * removed from the screen. A removal of the oldest live child is therefore only decided at the end
+ * of its batch, which a value listener on the same query marks (value events are always raised
+ * after the child events of a change): it is an eviction if a newer child was added in the batch,
+ * and a real deletion, e.g. by the {@link HistoryArchive}, otherwise.
+ *
+ * @param <T> The model type stored in the feed.
+ */
+public class PagedChildEventFeed<T> extends ChildEventFeed<T> {
+
+    /**
+     * Extracts the value the query is ordered by, used to build the paging cursor.
+     *
+     * @param <T> The model type.
+     */
+    public interface SortValue<T> {
+        /**
+         * @param item An item of the feed.
+         * @return The value of the child the query is ordered by.
+         */
+        double of(@NonNull T item);
+    }
+
+    /**
+     * Receives the result of loading a page.
+     */
+    public interface PageListener {
+        /**
+         * @param itemCount The number of items in the loaded page.
+         * @param hasMore {@code true} if older items may still exist.
+         */
+        void onPageLoaded(int itemCount, boolean hasMore);
+
+        /** @param error The error that prevented the page from loading. */
+        void onPageError(@NonNull DatabaseError error);
+    }
+
+    private final Query orderedQuery;
+    private final int pageSize;
+    private final SortValue<T> sortValue;
+
+    private Query liveQuery;
+    private ValueEventListener batchListener;
+    private int historyCount;
+    private final List<String> pendingRemovals = new ArrayList<>();
+    private int newerChildrenAdded;
+    private boolean loadingOlder;
+    private boolean hasMore = true;
+
+    /**
+     * Constructs a new {@code PagedChildEventFeed}.
+     *
+     * @param orderedQuery The query, already ordered (e.g. {@code orderByChild("timestamp")}).
+     * @param pageSize The number of items per page.
+     * @param parser The parser used to map a single child snapshot to a model object.
+     * @param sortValue Extracts the ordering value of an item for the paging cursor.
+     */
+    public PagedChildEventFeed(@NonNull Query orderedQuery, int pageSize, @NonNull Parser<T> parser, @NonNull SortValue<T> sortValue) {
+        super(parser);
+        this.orderedQuery = orderedQuery;
+        this.pageSize = pageSize;
+        this.sortValue = sortValue;
+    }
+
+    /**
+     * Attaches the live listener to the newest page.
+     *
+     * @param listener Notified once the newest page has been loaded.
+     */
+    public void start(@NonNull PageListener listener) {
+        liveQuery = orderedQuery.limitToLast(pageSize);
+        liveQuery.addChildEventListener(this);
+        // Fires after the child events of every change, served from the data synced for them;
+        // the first call reports the initial page.
+        batchListener = new ValueEventListener() {
+            private boolean firstPageReported;
+
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                onBatchEnd();
+                if (!firstPageReported) {
+                    firstPageReported = true;
+                    int count = (int) snapshot.getChildrenCount();
+                    hasMore = count >= pageSize;
+                    listener.onPageLoaded(count, hasMore);
+                }
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                if (!firstPageReported) {
+                    firstPageReported = true;
+                    listener.onPageError(error);
+                }
+            }
+        };
+        liveQuery.addValueEventListener(batchListener);
+    }
+
+    /**
+     * Detaches the live listeners.
+     */
+    public void stop() {
+        if (liveQuery != null) {
+            liveQuery.removeEventListener(this);
+            liveQuery.removeEventListener(batchListener);
+            liveQuery = null;
+            batchListener = null;
+        }
+        pendingRemovals.clear();
+        newerChildrenAdded = 0;
+    }
+
+    /**
+     * @return {@code true} if older items may still exist on the server.
+     */
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    /**
+     * @return {@code true} while an older page is being fetched.
+     */
+    public boolean isLoadingOlder() {
+        return loadingOlder;
+    }
+
+    /**
+     * Fetches the page that precedes the oldest item in the feed with a single read and
+     * prepends it. Does nothing if a page is already loading or the history is exhausted.
+     *
+     * @param listener Notified when the page has been loaded.
+     */
+    public void loadOlder(@NonNull PageListener listener) {
+        if (loadingOlder || !hasMore || isEmpty()) {
+            return;
+        }
+        loadingOlder = true;
+        T oldest = get(0);
+        orderedQuery.endBefore(sortValue.of(oldest), getKey(0))
+                .limitToLast(pageSize)
+                .addListenerForSingleValueEvent(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(@NonNull DataSnapshot snapshot) {
+                        loadingOlder = false;
+                        List<String> pageKeys = new ArrayList<>();
+                        List<T> pageItems = new ArrayList<>();
+                        for (DataSnapshot child : snapshot.getChildren()) {
+                            if (indexOfKey(child.getKey()) >= 0) {
+                                continue;
+                            }
+                            T item = parser.parse(child);
+                            if (item != null) {
+                                pageKeys.add(child.getKey());
+                                pageItems.add(item);
+                            }
+                        }
+                        hasMore = snapshot.getChildrenCount() >= pageSize;
+                        historyCount += pageItems.size();
+                        prepend(pageKeys, pageItems);
+                        listener.onPageLoaded(pageItems.size(), hasMore);
+                    }
+
+                    @Override
+                    public void onCancelled(@NonNull DatabaseError error) {
+                        loadingOlder = false;
+                        listener.onPageError(error);
+                    }
+                });
+    }
+
+    /**
+     * Prepends items that are older than everything in the feed and no longer part of the query,
+     * e.g. a month read from the {@link HistoryArchive}. Items already in the feed are skipped.
+     *
+     * @param newKeys The keys of the items, in display order.
+     * @param newItems The items, in display order.
+     * @return The number of items prepended.
+     */
+    public int prependHistory(@NonNull List<String> newKeys, @NonNull List<T> newItems) {
+        List<String> pageKeys = new ArrayList<>();
+        List<T> pageItems = new ArrayList<>();
+        for (int i = 0; i < newKeys.size(); i++) {
+            if (indexOfKey(newKeys.get(i)) < 0) {
+                pageKeys.add(newKeys.get(i));
+                pageItems.add(newItems.get(i));
+            }
+        }
+        historyCount += pageItems.size();
+        prepend(pageKeys, pageItems);
+        return pageItems.size();
+    }
+
+    @Override
+    public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+        T item = parser.parse(snapshot);
+        if (item == null) {
+            return;
+        }
+        int index = insert(snapshot.getKey(), item, previousChildName);
+        if (!pendingRemovals.isEmpty() && index >= historyCount + pendingRemovals.size()) {
+            // Landed after the removed children, so it is newer and may have pushed them out
+            newerChildrenAdded++;
+        }
+    }
+
+    @Override
+    public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+        int index = indexOfKey(snapshot.getKey());
+        if (index >= 0 && index == historyCount + pendingRemovals.size() && size() - historyCount >= pageSize) {
+            // The oldest child of a full live window: either evicted by a newer child or deleted.
+            // Keep it until the end of the batch shows which.
+            pendingRemovals.add(snapshot.getKey());
+            return;
+        }
+        super.onChildRemoved(snapshot);
+    }
+
+    /**
+     * Settles the removals of the batch that just ended: as many of the oldest removed children as
+     * newer children were added left the window and become history; the rest were deleted.
+     */
+    void onBatchEnd() {
+        if (pendingRemovals.isEmpty()) {
+            return;
+        }
+        int evicted = Math.min(newerChildrenAdded, pendingRemovals.size());
+        List<String> removals = new ArrayList<>(pendingRemovals);
+        pendingRemovals.clear();
+        newerChildrenAdded = 0;
+        for (int i = 0; i < removals.size(); i++) {
+            int index = indexOfKey(removals.get(i));
+            if (index < 0) {
+                continue;
+            }
+            if (i < evicted && index == historyCount) {
+                historyCount++;
+                hasMore = true;
+            } else {
+                remove(index);
+            }
+        }
+    }
+
+    @Override
+    void remove(int index) {
+        super.remove(index);
+        if (index < historyCount) {
+            historyCount--;
+        }
+    }
+
+    @Override
+    int headPosition() {
+        return historyCount;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.project;
+
+import android.util.LruCache;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.appcompat.widget.AppCompatTextView;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures long list bodies off the main thread and caches the result per item key.
+ *
+ * Committee announcements are often several paragraphs of RTL text with mixed numbers. Setting
+ * them with a plain {@code setText} runs bidi analysis and glyph measurement on the UI thread
+ * while the list scrolls. Here the text is turned into a {@link PrecomputedTextCompat} on a
+ * background thread with the exact text metrics of the row's {@link TextView}, so layout during
+ * scroll only has to break lines over already measured runs. Results are kept in an LRU cache
+ * keyed by the item's Firebase key, and {@link #prefetch} warms the cache as soon as items
+ * arrive, before they are bound.
+ */
+public final class PrecomputedTextCache {
+
+    private static final int MAX_ENTRIES = 200;
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private static final LruCache<String, PrecomputedTextCompat> cache = new LruCache<>(MAX_ENTRIES);
+
+    /** Text metrics of the last bound body view, used to prefetch items that are not bound yet. */
+    private static volatile PrecomputedTextCompat.Params lastParams;
+
+    private PrecomputedTextCache() {
+    }
+
+    /**
+     * Sets a body text on a row, using the cached measurement when it matches, or measuring it on
+     * the background thread otherwise.
+     *
+     * @param textView The row's body view.
+     * @param key The Firebase key of the item.
+     * @param text The body text.
+     */
+    public static void bind(@NonNull TextView textView, @NonNull String key, @Nullable CharSequence text) {
+        if (text == null || text.length() == 0) {
+            textView.setText(text);
+            return;
+        }
+        PrecomputedTextCompat.Params params = TextViewCompat.getTextMetricsParams(textView);
+        lastParams = params;
+        PrecomputedTextCompat cached = lookup(key, text, params);
+        if (cached != null) {
+            TextViewCompat.setPrecomputedText(textView, cached);
+        } else if (textView instanceof AppCompatTextView) {
+            // The future is resolved in onMeasure; by then the background thread has usually finished
+            ((AppCompatTextView) textView).setTextFuture(submit(key, text, params));
+        } else {
+            textView.setText(text);
+        }
+    }
+
+    /**
+     * Measures a body text in the background before its row is bound. Does nothing until a row
+     * has been bound once, because the text metrics are taken from a real row view.
+     *
+     * @param key The Firebase key of the item.
+     * @param text The body text.
+     */
+    public static void prefetch(@NonNull String key, @Nullable CharSequence text) {
+        PrecomputedTextCompat.Params params = lastParams;
+        if (params == null || text == null || text.length() == 0 || lookup(key, text, params) != null) {
+            return;
+        }
+        submit(key, text, params);
+    }
+
+    @Nullable
+    private static PrecomputedTextCompat lookup(String key, CharSequence text, PrecomputedTextCompat.Params params) {
+        PrecomputedTextCompat cached = cache.get(key);
+        if (cached != null && cached.getParams().equals(params) && cached.toString().contentEquals(text)) {
+            return cached;
+        }
+        return null;
+    }
+
+    private static Future<PrecomputedTextCompat> submit(String key, CharSequence text, PrecomputedTextCompat.Params params) {
+        return executor.submit(() -> {
+            PrecomputedTextCompat precomputed = PrecomputedTextCompat.create(text, params);
+            cache.put(key, precomputed);
+            return precomputed;
+        });
+    }
+}
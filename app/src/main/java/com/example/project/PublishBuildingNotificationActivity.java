@@ -13,17 +13,8 @@ import android.widget.Toast;
 
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ServerValue;
-import com.google.firebase.database.ValueEventListener;
-
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
-import java.util.HashMap;
-import java.util.Locale;
+
 import java.util.Map;
 
 /**
@@ -67,12 +58,6 @@ public class PublishBuildingNotificationActivity extends AppCompatActivity {
     /** Firebase Authentication instance for user verification */
     private FirebaseAuth mAuth;
 
-    /** Firebase Database reference for accessing user data */
-    private DatabaseReference usersRef;
-
-    /** Firebase Database reference for publishing building notifications */
-    private DatabaseReference buildingNotificationsRef;
-
     /** Current authenticated user's unique identifier */
     private String currentUserId;
 
@@ -92,7 +77,7 @@ public class PublishBuildingNotificationActivity extends AppCompatActivity {
      * This method performs the following operations:
      * 1. Sets up the activity layout and UI components
      * 2. Initializes Firebase Authentication and verifies user login status
-     * 3. Retrieves current user details from Firebase Database
+     * 3. Retrieves current user details from the {@link UserSession}
      * 4. Sets up click listeners for the publish button
      * 5. Handles cases where user is not authenticated
      *
@@ -117,7 +102,6 @@ public class PublishBuildingNotificationActivity extends AppCompatActivity {
         FirebaseUser currentUser = mAuth.getCurrentUser();
         if (currentUser != null) {
             currentUserId = currentUser.getUid();
-            usersRef = FirebaseDatabase.getInstance().getReference("users").child(currentUserId);
             getUserDetails();
         } else {
             Toast.makeText(this, "משתמש לא מחובר.", Toast.LENGTH_SHORT).show();
@@ -133,7 +117,7 @@ public class PublishBuildingNotificationActivity extends AppCompatActivity {
     }
 
     /**
-     * Retrieves the current user's details from Firebase Realtime Database.
+     * Retrieves the current user's details from the process-wide {@link UserSession}.
      *
      * This method fetches essential user information required for notification publishing:
      * - Building code: Used to determine which building's notification channel to publish to
@@ -141,7 +125,7 @@ public class PublishBuildingNotificationActivity extends AppCompatActivity {
      * - Apartment number: Provides additional context for other residents
      *
      * The method includes comprehensive error handling:
-     * - Shows progress indicator during database operation
+     * - Shows progress indicator only while the session is still loading
      * - Handles cases where user data doesn't exist
      * - Manages database operation cancellations
      * - Terminates activity if critical data is missing
@@ -150,18 +134,20 @@ public class PublishBuildingNotificationActivity extends AppCompatActivity {
      * for the user's specific building.
      */
     private void getUserDetails() {
-        progressBar.setVisibility(View.VISIBLE);
-        usersRef.addListenerForSingleValueEvent(new ValueEventListener() {
+        UserSession session = UserSession.getInstance();
+        session.start(currentUserId);
+        if (!session.isReady()) {
+            progressBar.setVisibility(View.VISIBLE);
+        }
+        session.whenReady(new UserSession.Callback() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
+            public void onSessionReady(@NonNull UserSession session) {
                 progressBar.setVisibility(View.GONE);
-                if (dataSnapshot.exists()) {
-                    currentBuildingCode = dataSnapshot.child("buildingCode").getValue(String.class);
-                    currentUserFullName = dataSnapshot.child("fullName").getValue(String.class);
-                    currentUserApartmentNumber = dataSnapshot.child("apartmentNumber").getValue(String.class);
-                    if (currentBuildingCode != null) {
-                        buildingNotificationsRef = FirebaseDatabase.getInstance().getReference("building_notifications").child(currentBuildingCode);
-                    } else {
+                if (session.hasProfile()) {
+                    currentBuildingCode = session.getBuildingCode();
+                    currentUserFullName = session.getFullName();
+                    currentUserApartmentNumber = session.getApartmentNumber();
+                    if (currentBuildingCode == null) {
                         Toast.makeText(PublishBuildingNotificationActivity.this, "קוד בניין לא נמצא.", Toast.LENGTH_SHORT).show();
                         finish();
                     }
@@ -172,7 +158,7 @@ public class PublishBuildingNotificationActivity extends AppCompatActivity {
             }
 
             @Override
-            public void onCancelled(@NonNull DatabaseError databaseError) {
+            public void onSessionError(@NonNull DatabaseError databaseError) {
                 progressBar.setVisibility(View.GONE);
                 Toast.makeText(PublishBuildingNotificationActivity.this, "שגיאה בקבלת פרטי משתמש: " + databaseError.getMessage(), Toast.LENGTH_SHORT).show();
                 finish();
@@ -205,8 +191,9 @@ public class PublishBuildingNotificationActivity extends AppCompatActivity {
      * Error handling covers:
      * - Empty notification content validation
      * - Missing user details verification
-     * - Database operation failures
-     * - Network connectivity issues
+     *
+     * Database failures and connectivity issues are not surfaced here: the notification is queued
+     * in the {@link Outbox}, which resends it in the background until the server acknowledges it.
      */
     private void publishNotification() {
         String notificationContent = editTextNotificationContent.getText().toString().trim();
@@ -216,36 +203,17 @@ public class PublishBuildingNotificationActivity extends AppCompatActivity {
             return;
         }
 
-        if (buildingNotificationsRef != null && currentBuildingCode != null && currentUserId != null && currentUserFullName != null) {
-            progressBar.setVisibility(View.VISIBLE);
-
-            String notificationId = buildingNotificationsRef.push().getKey();
-            Calendar calendar = Calendar.getInstance();
-            SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault());
-            SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm", Locale.getDefault());
-            String currentDate = dateFormat.format(calendar.getTime());
-            String currentTime = timeFormat.format(calendar.getTime());
-            long timestamp = ServerValue.TIMESTAMP.size();
-
-            Map<String, Object> notificationData = new HashMap<>();
-            notificationData.put("publisherId", currentUserId);
-            notificationData.put("fullName", currentUserFullName);
-            notificationData.put("apartmentNumber", currentUserApartmentNumber);
-            notificationData.put("content", notificationContent);
-            notificationData.put("date", currentDate);
-            notificationData.put("time", currentTime);
-            notificationData.put("timestamp", timestamp);
-
-            buildingNotificationsRef.child(notificationId).setValue(notificationData)
-                    .addOnCompleteListener(task -> {
-                        progressBar.setVisibility(View.GONE);
-                        if (task.isSuccessful()) {
-                            Toast.makeText(PublishBuildingNotificationActivity.this, "ההודעה פורסמה בהצלחה.", Toast.LENGTH_SHORT).show();
-                            editTextNotificationContent.setText(""); // ניקוי שדה ההודעה לאחר הפרסום
-                        } else {
-                            Toast.makeText(PublishBuildingNotificationActivity.this, "שגיאה בפרסום ההודעה: " + task.getException().getMessage(), Toast.LENGTH_SHORT).show();
-                        }
-                    });
+        if (currentBuildingCode != null && currentUserId != null && currentUserFullName != null) {
+            // The ordering timestamp is assigned by the server
+            Map<String, Object> notificationData = SnapshotMappers.notificationData(currentUserId, currentUserFullName,
+                    currentUserApartmentNumber, notificationContent, ServerClock.getInstance().now());
+
+            // One atomic multi-path update covering the notification and every view derived from it,
+            // queued in the outbox so it is resent until acknowledged, even if the app is closed
+            Outbox.submit(this, currentBuildingCode, Outbox.KIND_NOTIFICATION,
+                    FanOutWrite.publishNotification(currentBuildingCode, notificationData));
+            Toast.makeText(PublishBuildingNotificationActivity.this, "ההודעה פורסמה בהצלחה.", Toast.LENGTH_SHORT).show();
+            editTextNotificationContent.setText(""); // ניקוי שדה ההודעה לאחר הפרסום
         } else {
             Toast.makeText(this, "לא ניתן לפרסם הודעה כרגע.", Toast.LENGTH_SHORT).show();
         }
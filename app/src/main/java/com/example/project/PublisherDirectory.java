@@ -0,0 +1,205 @@
+package com.example.project;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Names and apartments of the publishers shown in the signed-in user's building, keyed by UID.
+ *
+ * v2 records (see {@link RecordSchema}) no longer repeat the publisher's full name and apartment
+ * number when they match the publisher's profile; the list models look them up here instead. Only
+ * publishers that are actually looked up are loaded: the first lookup of a UID starts live
+ * listeners on that profile's {@code fullName} and {@code apartmentNumber}, and the lookup answers
+ * {@code null} until they load. A directory of the whole building would download, keep synced and
+ * cache on disk every neighbour's profile, most of whom never published anything the user sees.
+ * Screens that show names register a {@link Listener} to rebind once a publisher (re)loads.
+ *
+ * Lookups may run on any thread; everything else runs on the main thread, the same thread Firebase
+ * uses for listeners.
+ */
+public final class PublisherDirectory {
+
+    /**
+     * Notified whenever the directory changes.
+     */
+    public interface Listener {
+        void onDirectoryChanged();
+    }
+
+    private static final String[] FIELDS = {RecordSchema.FULL_NAME, RecordSchema.APARTMENT_NUMBER};
+
+    private static PublisherDirectory instance;
+
+    // Replaced as a whole on every change, so lookups are safe from any thread (e.g. DiffUtil)
+    private volatile Map<String, String[]> publishers = Collections.emptyMap();
+    private final List<Listener> listeners = new ArrayList<>();
+
+    // Publishers looked up since the building was set, from any thread
+    private final Set<String> requested = Collections.synchronizedSet(new HashSet<>());
+    private final Map<DatabaseReference, ValueEventListener> fieldListeners = new HashMap<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private volatile String buildingCode;
+
+    private PublisherDirectory() {
+    }
+
+    /**
+     * @return The shared {@code PublisherDirectory}.
+     */
+    public static synchronized PublisherDirectory getInstance() {
+        if (instance == null) {
+            instance = new PublisherDirectory();
+        }
+        return instance;
+    }
+
+    /**
+     * Sets the building whose publishers are looked up, forgetting the publishers of any previous
+     * building.
+     *
+     * @param newBuildingCode The building code, or {@code null} to stop and forget all publishers.
+     */
+    public void syncBuilding(@Nullable String newBuildingCode) {
+        if (newBuildingCode != null && newBuildingCode.equals(buildingCode)) {
+            return;
+        }
+        for (Map.Entry<DatabaseReference, ValueEventListener> entry : fieldListeners.entrySet()) {
+            entry.getKey().removeEventListener(entry.getValue());
+        }
+        fieldListeners.clear();
+        requested.clear();
+        buildingCode = newBuildingCode;
+        if (!publishers.isEmpty()) {
+            publishers = Collections.emptyMap();
+            dispatchChanged();
+        }
+    }
+
+    /**
+     * Starts loading a publisher the first time it is looked up.
+     */
+    private void request(@NonNull String publisherId) {
+        String code = buildingCode;
+        if (code == null || !requested.add(publisherId)) {
+            return;
+        }
+        mainHandler.post(() -> {
+            if (!code.equals(buildingCode)) {
+                // The building changed before the listeners could start
+                return;
+            }
+            DatabaseReference profile = FirebaseDatabase.getInstance().getReference("users").child(publisherId);
+            for (int i = 0; i < FIELDS.length; i++) {
+                DatabaseReference ref = profile.child(FIELDS[i]);
+                ValueEventListener listener = new FieldListener(publisherId, i);
+                fieldListeners.put(ref, listener);
+                ref.addValueEventListener(listener);
+            }
+        });
+    }
+
+    /**
+     * Copies one loaded profile field into the directory.
+     */
+    private final class FieldListener implements ValueEventListener {
+
+        private final String publisherId;
+        private final int index;
+
+        FieldListener(String publisherId, int index) {
+            this.publisherId = publisherId;
+            this.index = index;
+        }
+
+        @Override
+        public void onDataChange(@NonNull DataSnapshot snapshot) {
+            String value = snapshot.getValue(String.class);
+            String[] current = publishers.get(publisherId);
+            if (current != null && Objects.equals(current[index], value)) {
+                return;
+            }
+            String[] publisher = current != null ? current.clone() : new String[FIELDS.length];
+            publisher[index] = value;
+            Map<String, String[]> updated = new HashMap<>(publishers);
+            updated.put(publisherId, publisher);
+            publishers = updated;
+            dispatchChanged();
+        }
+
+        @Override
+        public void onCancelled(@NonNull DatabaseError error) {
+            // Records that carry their own details still render; the rest show no name
+        }
+    }
+
+    /**
+     * @param publisherId The UID of a publisher.
+     * @param stored The full name stored in the record, if any.
+     * @return {@code stored} if set, otherwise the full name in the publisher's profile.
+     */
+    @Nullable
+    public String fullName(@Nullable String publisherId, @Nullable String stored) {
+        return stored != null ? stored : field(publisherId, 0);
+    }
+
+    /**
+     * @param publisherId The UID of a publisher.
+     * @param stored The apartment number stored in the record, if any.
+     * @return {@code stored} if set, otherwise the apartment number in the publisher's profile.
+     */
+    @Nullable
+    public String apartmentNumber(@Nullable String publisherId, @Nullable String stored) {
+        return stored != null ? stored : field(publisherId, 1);
+    }
+
+    private String field(String publisherId, int index) {
+        if (publisherId == null) {
+            return null;
+        }
+        String[] publisher = publishers.get(publisherId);
+        if (publisher == null) {
+            request(publisherId);
+            return null;
+        }
+        return publisher[index];
+    }
+
+    /**
+     * @param listener The listener to notify of changes.
+     */
+    public void addListener(@NonNull Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @param listener A listener passed to {@link #addListener(Listener)}.
+     */
+    public void removeListener(@NonNull Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private void dispatchChanged() {
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.onDirectoryChanged();
+        }
+    }
+}
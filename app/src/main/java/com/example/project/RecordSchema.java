@@ -0,0 +1,95 @@
+package com.example.project;
+
+import java.util.Map;
+
+/**
+ * The stored shape of notifications and help requests, and the rules that turn a v1 record into
+ * a v2 one.
+ *
+ * v1 records carry display strings and copies of data that is stored elsewhere:
+ * <ul>
+ *     <li>{@code date} and {@code time}, formatted from the same instant as {@code timestamp};</li>
+ *     <li>{@code fullName} and {@code apartmentNumber}, usually identical to the publisher's
+ *     profile under {@code users/{publisherId}};</li>
+ *     <li>sometimes {@code buildingCode}, which is already the parent key of the record.</li>
+ * </ul>
+ * v2 records drop all of these, except the display strings of records whose {@code timestamp} is
+ * not a real time (early clients stored a constant). Readers derive the display strings from
+ * {@code timestamp} when they are absent and
+ * take the publisher's name and apartment from {@link PublisherDirectory}. A name or apartment
+ * that differs from the profile (a resident may submit under another name) is kept, so v2 loses
+ * nothing. The entries of {@code open_help_requests} keep {@code buildingCode} and the publisher's
+ * details: the index spans all buildings, so neither is implied by its path or available from the
+ * reader's own building.
+ *
+ * This class is plain Java on purpose: the offline migration tool in {@code :migration} compiles
+ * it unchanged, so the app and the tool cannot disagree on what v2 is.
+ */
+public final class RecordSchema {
+
+    /** Records with display strings and publisher details stored inline. */
+    public static final int V1 = 1;
+
+    /** Records without derived or duplicated fields. */
+    public static final int V2 = 2;
+
+    public static final String PUBLISHER_ID = "publisherId";
+    public static final String FULL_NAME = "fullName";
+    public static final String APARTMENT_NUMBER = "apartmentNumber";
+    public static final String DATE = "date";
+    public static final String TIME = "time";
+    public static final String BUILDING_CODE = "buildingCode";
+    public static final String TIMESTAMP = "timestamp";
+
+    /** Timestamps before 2020-01-01 cannot be real publication times, see {@code TimestampRepair}. */
+    public static final long MIN_VALID_TIMESTAMP = 1577836800000L;
+
+    private RecordSchema() {
+    }
+
+    /**
+     * Removes from a record, in place, the fields v2 no longer stores. Compacting a v2 record
+     * again changes nothing. {@code date} and {@code time} are kept while the record's timestamp
+     * is missing or implausible (see {@link #MIN_VALID_TIMESTAMP}), as they cannot be derived
+     * from it.
+     *
+     * @param record The fields of a notification or help request.
+     * @param profileFullName The full name in the publisher's profile, or {@code null} if unknown.
+     * @param profileApartmentNumber The apartment number in the publisher's profile, or
+     *                               {@code null} if unknown.
+     * @param indexEntry {@code true} for {@code open_help_requests} entries, which keep their
+     *                   building code and publisher details.
+     */
+    public static void compact(Map<String, Object> record, String profileFullName, String profileApartmentNumber,
+                               boolean indexEntry) {
+        // Early clients stored a constant timestamp; their display strings are the only real time
+        if (hasPlausibleTimestamp(record)) {
+            record.remove(DATE);
+            record.remove(TIME);
+        }
+        if (indexEntry) {
+            return;
+        }
+        record.remove(BUILDING_CODE);
+        removeIfEqual(record, FULL_NAME, profileFullName);
+        removeIfEqual(record, APARTMENT_NUMBER, profileApartmentNumber);
+    }
+
+    /**
+     * @return {@code true} if the record's time can be derived from its timestamp: a number from
+     * {@link #MIN_VALID_TIMESTAMP} on, or the server timestamp placeholder of a new record.
+     */
+    private static boolean hasPlausibleTimestamp(Map<String, Object> record) {
+        Object timestamp = record.get(TIMESTAMP);
+        if (timestamp instanceof Number) {
+            return ((Number) timestamp).longValue() >= MIN_VALID_TIMESTAMP;
+        }
+        return timestamp instanceof Map;
+    }
+
+    private static void removeIfEqual(Map<String, Object> record, String field, String profileValue) {
+        if (profileValue != null && profileValue.equals(record.get(field))) {
+            record.remove(field);
+        }
+    }
+}
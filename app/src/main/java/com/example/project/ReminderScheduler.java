@@ -0,0 +1,201 @@
+package com.example.project;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns the daily reminder: the only scheduled wakeup of the app besides the outbox and the
+ * notification delta check.
+ *
+ * Each user picks a reminder time, stored as minutes after midnight in
+ * {@code users/{uid}/reminderTime}; without one the reminder is off, since building pushes already
+ * announce what is new. The {@link UserSession} hands the time to {@link #sync} on every profile
+ * update. Scheduling is idempotent: the next occurrence is one unique {@link ReminderWorker} run,
+ * kept as is while the time is unchanged and replaced when it changes, so calling {@link #sync}
+ * any number of times never adds a wakeup. Each run schedules the following day's run itself.
+ *
+ * WorkManager persists the run in its own database and reschedules it after a reboot, a clock
+ * change or an app update, and it runs the work within the maintenance windows Doze allows. No
+ * {@code BOOT_COMPLETED} receiver or exact alarm is needed.
+ */
+public final class ReminderScheduler {
+
+    private static final String TAG = "ReminderScheduler";
+    private static final String WORK_NAME = "daily_reminder";
+
+    private static final String PREFS_NAME = "reminders";
+    private static final String KEY_SCHEDULED_TIME = "scheduledTime";
+    private static final String KEY_LAST_SHOWN_DAY = "lastShownDay";
+
+    /** Profile field holding the reminder time in minutes after midnight. */
+    public static final String FIELD = "reminderTime";
+
+    /** Stored scheduled time when no reminder is scheduled. */
+    static final int OFF = -1;
+
+    static final int MINUTES_PER_DAY = 24 * 60;
+
+    private ReminderScheduler() {
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * Makes the scheduled reminder match the user's reminder time. Keeps an already scheduled run
+     * of the same time, so it may be called on every profile update.
+     *
+     * @param context Any context.
+     * @param reminderTime Minutes after midnight, or {@code null} for no reminder.
+     */
+    public static void sync(@NonNull Context context, @Nullable Integer reminderTime) {
+        cancelLegacyAlarm(context);
+        int time = isValid(reminderTime) ? reminderTime : OFF;
+        SharedPreferences prefs = prefs(context);
+        int scheduled = prefs.getInt(KEY_SCHEDULED_TIME, OFF);
+        if (time == OFF) {
+            if (scheduled != OFF) {
+                cancel(context);
+            }
+            return;
+        }
+        // Same time: keep the pending run (or restore it if it was lost). New time: replace it.
+        enqueue(context, time, time == scheduled ? ExistingWorkPolicy.KEEP : ExistingWorkPolicy.REPLACE);
+        prefs.edit().putInt(KEY_SCHEDULED_TIME, time).apply();
+    }
+
+    /**
+     * Cancels the reminder, e.g. on logout.
+     *
+     * @param context Any context.
+     */
+    public static void cancel(@NonNull Context context) {
+        WorkManager.getInstance(context).cancelUniqueWork(WORK_NAME);
+        prefs(context).edit().putInt(KEY_SCHEDULED_TIME, OFF).apply();
+    }
+
+    /**
+     * Schedules the run after the current one. Called by {@link ReminderWorker}; the run is
+     * appended, so it starts only once the current run has finished.
+     *
+     * @param context Any context.
+     */
+    static void scheduleNext(@NonNull Context context) {
+        int time = prefs(context).getInt(KEY_SCHEDULED_TIME, OFF);
+        if (time != OFF) {
+            enqueue(context, time, ExistingWorkPolicy.APPEND_OR_REPLACE);
+        }
+    }
+
+    private static void enqueue(Context context, int time, ExistingWorkPolicy policy) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiresBatteryNotLow(true)
+                .build();
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(ReminderWorker.class)
+                .setConstraints(constraints)
+                .setInitialDelay(delayUntilNext(System.currentTimeMillis(), TimeZone.getDefault(), time),
+                        TimeUnit.MILLISECONDS)
+                .build();
+        WorkManager.getInstance(context).enqueueUniqueWork(WORK_NAME, policy, request);
+    }
+
+    /**
+     * Records that today's reminder is being shown.
+     *
+     * @param context Any context.
+     * @return {@code false} if a reminder was already shown today, e.g. before the time was moved
+     *         later in the day; the run is then a duplicate and shows nothing.
+     */
+    static boolean claimToday(@NonNull Context context) {
+        SharedPreferences prefs = prefs(context);
+        int today = dayOf(System.currentTimeMillis(), TimeZone.getDefault());
+        if (prefs.getInt(KEY_LAST_SHOWN_DAY, 0) == today) {
+            return false;
+        }
+        prefs.edit().putInt(KEY_LAST_SHOWN_DAY, today).apply();
+        return true;
+    }
+
+    /**
+     * Computes the time until the next occurrence of a time of day. An occurrence at or before
+     * {@code now} belongs to the next day, so a time already past never fires at once.
+     *
+     * @param now The current time in milliseconds.
+     * @param timeZone The zone the time of day is in; daylight saving changes are accounted for.
+     * @param reminderTime Minutes after midnight.
+     * @return The delay in milliseconds, greater than zero.
+     */
+    static long delayUntilNext(long now, @NonNull TimeZone timeZone, int reminderTime) {
+        Calendar next = Calendar.getInstance(timeZone);
+        next.setTimeInMillis(now);
+        next.set(Calendar.HOUR_OF_DAY, reminderTime / 60);
+        next.set(Calendar.MINUTE, reminderTime % 60);
+        next.set(Calendar.SECOND, 0);
+        next.set(Calendar.MILLISECOND, 0);
+        if (next.getTimeInMillis() <= now) {
+            next.add(Calendar.DAY_OF_MONTH, 1);
+        }
+        return next.getTimeInMillis() - now;
+    }
+
+    /**
+     * @return A number identifying the calendar day of {@code time} in {@code timeZone}.
+     */
+    static int dayOf(long time, @NonNull TimeZone timeZone) {
+        Calendar calendar = Calendar.getInstance(timeZone);
+        calendar.setTimeInMillis(time);
+        return calendar.get(Calendar.YEAR) * 1000 + calendar.get(Calendar.DAY_OF_YEAR);
+    }
+
+    /**
+     * @return {@code true} if {@code reminderTime} is a time of day in minutes.
+     */
+    static boolean isValid(@Nullable Integer reminderTime) {
+        return reminderTime != null && reminderTime >= 0 && reminderTime < MINUTES_PER_DAY;
+    }
+
+    /**
+     * Formats a reminder time as {@code HH:MM}.
+     *
+     * @param reminderTime Minutes after midnight.
+     * @return The formatted time.
+     */
+    @NonNull
+    static String format(int reminderTime) {
+        return String.format(Locale.US, "%02d:%02d", reminderTime / 60, reminderTime % 60);
+    }
+
+    /**
+     * Cancels the repeating 16:00 alarm registered by earlier versions, if it is still set. The
+     * {@link PendingIntent} matches the one those versions registered for their reminder receiver.
+     */
+    private static void cancelLegacyAlarm(Context context) {
+        Intent intent = new Intent().setComponent(new ComponentName(context, "com.example.project.NotificationReceiver"));
+        PendingIntent alarmIntent = PendingIntent.getBroadcast(context, 0, intent,
+                PendingIntent.FLAG_NO_CREATE | PendingIntent.FLAG_IMMUTABLE);
+        if (alarmIntent != null) {
+            AlarmManager alarmMgr = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+            alarmMgr.cancel(alarmIntent);
+            alarmIntent.cancel();
+            Log.d(TAG, "Legacy daily alarm cancelled");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.project;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.google.firebase.auth.FirebaseAuth;
+
+/**
+ * Shows the daily reminder and schedules the next one, see {@link ReminderScheduler}.
+ */
+public class ReminderWorker extends Worker {
+
+    public ReminderWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        if (CachedProfile.read(context) == null || FirebaseAuth.getInstance().getCurrentUser() == null) {
+            // Logged out: the session schedules the reminder again at the next login
+            return Result.success();
+        }
+        if (ReminderScheduler.claimToday(context)) {
+            NotificationPresenter.showReminder(context);
+        }
+        ReminderScheduler.scheduleNext(context);
+        return Result.success();
+    }
+}
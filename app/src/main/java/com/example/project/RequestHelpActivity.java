@@ -11,23 +11,14 @@ import android.widget.Toast;
 
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
 
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
-import java.util.HashMap;
-import java.util.Locale;
 import java.util.Map;
 
 public class RequestHelpActivity extends AppCompatActivity {
 
     private EditText editTextFullName, editTextApartmentNumber, editTextHelpRequestContent;
     private Button buttonPublishHelpRequest;
-    private DatabaseReference helpRequestsRef;
     private String currentBuildingCode;
     private String currentUserId;
 
@@ -45,16 +36,15 @@ public class RequestHelpActivity extends AppCompatActivity {
         FirebaseUser currentUser = FirebaseAuth.getInstance().getCurrentUser();
         if (currentUser != null) {
             currentUserId = currentUser.getUid();
-            // קבל את קוד הבניין של המשתמש הנוכחי
-            DatabaseReference userRef = FirebaseDatabase.getInstance().getReference("users").child(currentUserId);
-            userRef.addListenerForSingleValueEvent(new ValueEventListener() {
+            // קבל את קוד הבניין של המשתמש הנוכחי מהסשן
+            UserSession session = UserSession.getInstance();
+            session.start(currentUserId);
+            session.whenReady(new UserSession.Callback() {
                 @Override
-                public void onDataChange(@NonNull DataSnapshot snapshot) {
-                    if (snapshot.exists()) {
-                        currentBuildingCode = snapshot.child("buildingCode").getValue(String.class);
-                        if (currentBuildingCode != null) {
-                            helpRequestsRef = FirebaseDatabase.getInstance().getReference("help_requests").child(currentBuildingCode);
-                        } else {
+                public void onSessionReady(@NonNull UserSession session) {
+                    if (session.hasProfile()) {
+                        currentBuildingCode = session.getBuildingCode();
+                        if (currentBuildingCode == null) {
                             Toast.makeText(RequestHelpActivity.this, "לא נמצא קוד בניין עבור משתמש זה.", Toast.LENGTH_SHORT).show();
                             finish();
                         }
@@ -65,7 +55,7 @@ public class RequestHelpActivity extends AppCompatActivity {
                 }
 
                 @Override
-                public void onCancelled(@NonNull DatabaseError error) {
+                public void onSessionError(@NonNull DatabaseError error) {
                     Toast.makeText(RequestHelpActivity.this, "שגיאה בקבלת קוד בניין: " + error.getMessage(), Toast.LENGTH_SHORT).show();
                     finish();
                 }
@@ -97,37 +87,19 @@ public class RequestHelpActivity extends AppCompatActivity {
                     return;
                 }
 
-                if (helpRequestsRef != null) {
-                    String requestId = helpRequestsRef.push().getKey();
-                    Calendar calendar = Calendar.getInstance();
-                    SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault());
-                    SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm", Locale.getDefault());
-                    String date = dateFormat.format(calendar.getTime());
-                    String time = timeFormat.format(calendar.getTime());
-                    long timestamp = calendar.getTimeInMillis();
-
-                    Map<String, Object> requestData = new HashMap<>();
-                    requestData.put("fullName", fullName);
-                    requestData.put("apartmentNumber", apartmentNumber);
-                    requestData.put("content", content);
-                    requestData.put("date", date);
-                    requestData.put("time", time);
-                    requestData.put("timestamp", timestamp);
-                    requestData.put("isOpen", true);
-                    requestData.put("publisherId", currentUserId); // שמירת מזהה המפרסם
-
-                    helpRequestsRef.child(requestId).setValue(requestData)
-                            .addOnCompleteListener(task -> {
-                                if (task.isSuccessful()) {
-                                    Toast.makeText(RequestHelpActivity.this, "בקשת עזרה פורסמה בהצלחה", Toast.LENGTH_SHORT).show();
-                                    editTextFullName.setText("");
-                                    editTextApartmentNumber.setText("");
-                                    editTextHelpRequestContent.setText("");
-                                    //
-                                } else {
-                                    Toast.makeText(RequestHelpActivity.this, "שגיאה בפרסום בקשת העזרה: " + task.getException().getMessage(), Toast.LENGTH_SHORT).show();
-                                }
-                            });
+                if (currentBuildingCode != null) {
+                    // שמירת מזהה המפרסם יחד עם פרטי הבקשה; חותמת הזמן נקבעת בשרת
+                    Map<String, Object> requestData = SnapshotMappers.requestData(currentUserId, fullName,
+                            apartmentNumber, content, ServerClock.getInstance().now());
+
+                    // כתיבת הבקשה וכל התצוגות הנגזרות ממנה בעדכון אטומי אחד, דרך תור השליחה
+                    // שממשיך לנסות עד שהשרת מאשר, כך שאין צורך להמתין על המסך
+                    Outbox.submit(RequestHelpActivity.this, currentBuildingCode, Outbox.KIND_HELP_REQUEST,
+                            FanOutWrite.submitHelpRequest(currentBuildingCode, requestData));
+                    Toast.makeText(RequestHelpActivity.this, "בקשת עזרה פורסמה בהצלחה", Toast.LENGTH_SHORT).show();
+                    editTextFullName.setText("");
+                    editTextApartmentNumber.setText("");
+                    editTextHelpRequestContent.setText("");
                 } else {
                     Toast.makeText(RequestHelpActivity.this, "שגיאה: לא ניתן לפרסם בקשת עזרה כרגע.", Toast.LENGTH_SHORT).show();
                 }
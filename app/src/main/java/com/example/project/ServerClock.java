@@ -0,0 +1,58 @@
+package com.example.project;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ValueEventListener;
+
+/**
+ * Estimates the Firebase server time on the device.
+ *
+ * The database exposes the difference between the device clock and the server clock at
+ * {@code .info/serverTimeOffset}. This class keeps that offset up to date so values that must be
+ * computed on the client before a write (e.g. derived index keys) agree with the server clock
+ * rather than with a possibly skewed device clock.
+ */
+public final class ServerClock {
+
+    private static ServerClock instance;
+
+    private volatile long offsetMillis;
+
+    private ServerClock() {
+        FirebaseDatabase.getInstance().getReference(".info/serverTimeOffset")
+                .addValueEventListener(new ValueEventListener() {
+                    @Override
+                    public void onDataChange(@NonNull DataSnapshot snapshot) {
+                        Long offset = snapshot.getValue(Long.class);
+                        offsetMillis = offset != null ? offset : 0L;
+                    }
+
+                    @Override
+                    public void onCancelled(@NonNull DatabaseError error) {
+                        // Keep the last known offset
+                    }
+                });
+    }
+
+    /**
+     * Returns the shared clock, attaching the offset listener on first use.
+     *
+     * @return The shared {@code ServerClock}.
+     */
+    public static synchronized ServerClock getInstance() {
+        if (instance == null) {
+            instance = new ServerClock();
+        }
+        return instance;
+    }
+
+    /**
+     * @return The estimated current server time in milliseconds since the epoch.
+     */
+    public long now() {
+        return System.currentTimeMillis() + offsetMillis;
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.project;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.ServerValue;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reflection-free mapping between Realtime Database children and the list models.
+ *
+ * {@code DataSnapshot.getValue(Class)} goes through Firebase's bean mapper, which introspects the
+ * model class on first use and then sets every property by reflection, boxing primitives on the
+ * way. The readers here take the child's plain value map once and hand the fields straight to the
+ * model's constructor; the writers build the same map shape, so what is submitted is exactly what
+ * the readers expect. The field names are the ones already stored in the database.
+ *
+ * The writers are the single write path for the ordering field: {@link #TIMESTAMP} is always
+ * {@code ServerValue.TIMESTAMP}, resolved by the server, so every feed sorted by it follows one
+ * clock. Records with equal timestamps are ordered by their push key, which Firebase uses as the
+ * tie-breaker of {@code orderByChild} and which is itself chronological, so the pair
+ * (timestamp, key) is a strict, monotonic cursor for windowed reads. Older records written with
+ * other clocks are corrected by {@link TimestampRepair}.
+ *
+ * Readers accept both record versions of {@link RecordSchema}. A v2 record has no display strings
+ * and may omit the publisher's details; the models derive the strings from {@link #TIMESTAMP} when
+ * they are first shown and look the details up in {@link PublisherDirectory}. The writers always
+ * build the full v1 map, which the fan-out indexes copy from; {@link #stored} then compacts each
+ * stored copy when this build writes v2 ({@code BuildConfig.RECORD_SCHEMA_VERSION}).
+ *
+ * Submitted requests are not read here: {@link ViewSubmittedRequestsActivity} shows them from the
+ * local {@link BuildingDatabase}, which {@link BuildingDataSync} fills field by field.
+ */
+public final class SnapshotMappers {
+
+    public static final String PUBLISHER_ID = RecordSchema.PUBLISHER_ID;
+    public static final String FULL_NAME = RecordSchema.FULL_NAME;
+    public static final String APARTMENT_NUMBER = RecordSchema.APARTMENT_NUMBER;
+    public static final String CONTENT = "content";
+    public static final String DATE = RecordSchema.DATE;
+    public static final String TIME = RecordSchema.TIME;
+    public static final String TIMESTAMP = RecordSchema.TIMESTAMP;
+    public static final String IS_OPEN = "isOpen";
+    public static final String BUILDING_CODE = RecordSchema.BUILDING_CODE;
+    public static final String TEXT = "text";
+    public static final String NAME = "name";
+    public static final String SENDER_ID = "senderId";
+
+    // Formatters are reused rather than created per call; access is serialized on the class.
+    private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault());
+    private static final SimpleDateFormat TIME_FORMAT = new SimpleDateFormat("HH:mm", Locale.getDefault());
+
+    private SnapshotMappers() {
+    }
+
+    /**
+     * @param snapshot A child of {@code building_notifications/{code}}.
+     * @return The notification, or {@code null} if the child is not an object.
+     */
+    @Nullable
+    public static ViewBuildingNotificationsActivity.BuildingNotification toBuildingNotification(@NonNull DataSnapshot snapshot) {
+        Map<?, ?> fields = fieldsOf(snapshot);
+        if (fields == null) {
+            return null;
+        }
+        return new ViewBuildingNotificationsActivity.BuildingNotification(
+                string(fields, PUBLISHER_ID),
+                string(fields, FULL_NAME),
+                string(fields, APARTMENT_NUMBER),
+                string(fields, CONTENT),
+                string(fields, DATE),
+                string(fields, TIME),
+                number(fields, TIMESTAMP));
+    }
+
+    /**
+     * @param snapshot A child of {@code open_help_requests}.
+     * @return The request, or {@code null} if the child is not an object.
+     */
+    @Nullable
+    public static ViewOpenHelpRequestsActivity.HelpRequest toHelpRequest(@NonNull DataSnapshot snapshot) {
+        Map<?, ?> fields = fieldsOf(snapshot);
+        if (fields == null) {
+            return null;
+        }
+        ViewOpenHelpRequestsActivity.HelpRequest request = new ViewOpenHelpRequestsActivity.HelpRequest(
+                string(fields, CONTENT),
+                string(fields, DATE),
+                string(fields, TIME),
+                number(fields, TIMESTAMP),
+                bool(fields, IS_OPEN, true),
+                string(fields, PUBLISHER_ID),
+                string(fields, FULL_NAME),
+                string(fields, APARTMENT_NUMBER));
+        request.setBuildingCode(string(fields, BUILDING_CODE));
+        return request;
+    }
+
+    /**
+     * @param snapshot A child of {@code chats/{code}}.
+     * @return The chat message, or {@code null} if the child is not an object.
+     */
+    @Nullable
+    public static message toMessage(@NonNull DataSnapshot snapshot) {
+        Map<?, ?> fields = fieldsOf(snapshot);
+        if (fields == null) {
+            return null;
+        }
+        return new message(
+                string(fields, TEXT),
+                string(fields, NAME),
+                string(fields, SENDER_ID),
+                number(fields, TIMESTAMP));
+    }
+
+    /**
+     * Builds the fields of a new chat message. Chat messages have no display strings; their time
+     * is shown from the timestamp.
+     *
+     * @return The map to write under {@code chats/{code}/{id}}.
+     */
+    @NonNull
+    public static Map<String, Object> messageData(String senderId, String name, String text) {
+        Map<String, Object> data = new HashMap<>();
+        data.put(SENDER_ID, senderId);
+        data.put(NAME, name);
+        data.put(TEXT, text);
+        data.put(TIMESTAMP, ServerValue.TIMESTAMP);
+        return data;
+    }
+
+    /**
+     * Builds the fields of a new building notification.
+     *
+     * @param createdAt The estimated server time of publication (see {@link ServerClock}), used
+     *                  only for the displayed date and time strings.
+     * @return The map to write under {@code building_notifications/{code}/{id}}.
+     */
+    @NonNull
+    public static Map<String, Object> notificationData(String publisherId, String fullName, String apartmentNumber,
+                                                       String content, long createdAt) {
+        Map<String, Object> data = new HashMap<>();
+        data.put(PUBLISHER_ID, publisherId);
+        data.put(FULL_NAME, fullName);
+        data.put(APARTMENT_NUMBER, apartmentNumber);
+        data.put(CONTENT, content);
+        putCreated(data, createdAt);
+        return data;
+    }
+
+    /**
+     * Builds the fields of a new, open help request.
+     *
+     * @param createdAt The estimated server time of submission (see {@link ServerClock}), used
+     *                  only for the displayed date and time strings.
+     * @return The map to write under {@code help_requests/{code}/{id}}.
+     */
+    @NonNull
+    public static Map<String, Object> requestData(String publisherId, String fullName, String apartmentNumber,
+                                                  String content, long createdAt) {
+        Map<String, Object> data = new HashMap<>();
+        data.put(PUBLISHER_ID, publisherId);
+        data.put(FULL_NAME, fullName);
+        data.put(APARTMENT_NUMBER, apartmentNumber);
+        data.put(CONTENT, content);
+        putCreated(data, createdAt);
+        data.put(IS_OPEN, true);
+        return data;
+    }
+
+    private static synchronized void putCreated(Map<String, Object> data, long createdAt) {
+        Date date = new Date(createdAt);
+        data.put(DATE, DATE_FORMAT.format(date));
+        data.put(TIME, TIME_FORMAT.format(date));
+        data.put(TIMESTAMP, ServerValue.TIMESTAMP);
+    }
+
+    /**
+     * @param timestamp A record's timestamp.
+     * @return The displayed date, in the format v1 records store in {@link #DATE}.
+     */
+    @NonNull
+    public static synchronized String displayDate(long timestamp) {
+        return DATE_FORMAT.format(new Date(timestamp));
+    }
+
+    /**
+     * @param timestamp A record's timestamp.
+     * @return The displayed time, in the format v1 records store in {@link #TIME}.
+     */
+    @NonNull
+    public static synchronized String displayTime(long timestamp) {
+        return TIME_FORMAT.format(new Date(timestamp));
+    }
+
+    /**
+     * Returns the copy of a record to store at one of the paths of a write. When this build writes
+     * v2 records, the copy is compacted against the signed-in user's profile, who is the publisher.
+     *
+     * @param data The full record built by {@link #notificationData} or {@link #requestData}.
+     * @param indexEntry {@code true} for an {@code open_help_requests} entry.
+     * @return The map to store.
+     */
+    @NonNull
+    public static Map<String, Object> stored(@NonNull Map<String, Object> data, boolean indexEntry) {
+        Map<String, Object> copy = new HashMap<>(data);
+        if (BuildConfig.RECORD_SCHEMA_VERSION >= RecordSchema.V2) {
+            UserSession session = UserSession.getInstance();
+            boolean ownRecord = session.getUserId() != null && session.getUserId().equals(data.get(PUBLISHER_ID));
+            RecordSchema.compact(copy, ownRecord ? session.getFullName() : null,
+                    ownRecord ? session.getApartmentNumber() : null, indexEntry);
+        }
+        return copy;
+    }
+
+    @Nullable
+    private static Map<?, ?> fieldsOf(DataSnapshot snapshot) {
+        Object value = snapshot.getValue();
+        return value instanceof Map ? (Map<?, ?>) value : null;
+    }
+
+    @Nullable
+    private static String string(Map<?, ?> fields, String name) {
+        Object value = fields.get(name);
+        return value != null ? value.toString() : null;
+    }
+
+    private static long number(Map<?, ?> fields, String name) {
+        Object value = fields.get(name);
+        // Firebase returns whole numbers as Long and everything else as Double.
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+
+    private static boolean bool(Map<?, ?> fields, String name, boolean defaultValue) {
+        Object value = fields.get(name);
+        return value instanceof Boolean ? (Boolean) value : defaultValue;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.project;
+
+/**
+ * Derives stable RecyclerView item IDs from Firebase push keys.
+ *
+ * Push keys are 20 characters (about 120 bits), so they are folded into a 64-bit FNV-1a hash,
+ * which keeps accidental collisions negligible for any list the app shows.
+ */
+public final class StableIds {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private StableIds() {
+    }
+
+    /**
+     * @param key The Firebase key of an item.
+     * @return A stable 64-bit ID for the item.
+     */
+    public static long of(String key) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.project;
+
+import android.app.Activity;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+/**
+ * Records how long it takes for the home screen to become interactive after a cold start and for
+ * a list screen to render its first item.
+ *
+ * Each measurement is logged under the {@code StartupMetrics} tag with the time since the screen
+ * was created, the time since the process started and whether offline-first mode was on, so the
+ * same build can be compared with {@code BuildConfig.OFFLINE_FIRST} on and off. The first
+ * measurement of a screen also calls {@link Activity#reportFullyDrawn()}.
+ */
+public final class StartupMetrics {
+
+    private static final String TAG = "StartupMetrics";
+
+    // Whether a home screen was already shown by this process; touched on the main thread only
+    private static boolean homeScreenLogged;
+
+    private StartupMetrics() {
+    }
+
+    /**
+     * @return The current time on the clock used by all measurements.
+     */
+    public static long now() {
+        return SystemClock.elapsedRealtime();
+    }
+
+    /**
+     * Logs the cold-start time to an interactive home screen, measured from process start to the
+     * first frame of the home screen, and reports the screen as fully drawn. Only the first home
+     * screen of a process is logged: any later one (back from another screen, a warm start, a
+     * rotation) was not started with the process, so the time since process start says nothing.
+     *
+     * @param activity The home screen ({@link MainActivity} or {@link ManagerActivity}).
+     */
+    public static void homeScreenShown(Activity activity) {
+        activity.getWindow().getDecorView().post(() -> {
+            if (!homeScreenLogged) {
+                homeScreenLogged = true;
+                long sinceProcess = now() - Process.getStartElapsedRealtime();
+                Log.i(TAG, activity.getClass().getSimpleName() + " interactive: " + sinceProcess + " ms since process start");
+            }
+            activity.reportFullyDrawn();
+        });
+    }
+
+    /**
+     * Logs the time to the first rendered item of a screen and reports the screen as fully drawn.
+     *
+     * @param activity The screen.
+     * @param screenStartMillis The value of {@link #now()} when the screen was created.
+     */
+    public static void firstItemRendered(Activity activity, long screenStartMillis) {
+        long end = now();
+        long sinceScreen = end - screenStartMillis;
+        long sinceProcess = end - Process.getStartElapsedRealtime();
+        Log.i(TAG, activity.getClass().getSimpleName() + " first item: " + sinceScreen + " ms since onCreate, "
+                + sinceProcess + " ms since process start, offlineFirst=" + OfflineSync.isEnabled());
+        activity.reportFullyDrawn();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.project;
+
+import android.app.Activity;
+import android.content.Intent;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.database.DatabaseError;
+
+/**
+ * Routes the user to the role-appropriate home screen.
+ *
+ * On cold start {@link LoginActivity} opens a home screen straight from the {@link CachedProfile}
+ * while the splash screen is still showing. The home screen then calls
+ * {@link #verify(Activity, boolean)}, which checks the cached role against the live
+ * {@link UserSession} in the background and only moves the user if the two disagree: to login
+ * when the user is signed out or has no profile, or to the other home screen when the manager
+ * flag changed. A failed read keeps the cached route, so the app stays usable offline.
+ */
+public final class StartupRouter {
+
+    private StartupRouter() {
+    }
+
+    /**
+     * Opens the home screen that matches the given role, clearing the back stack.
+     *
+     * @param activity The activity to navigate from.
+     * @param isManager {@code true} to open {@link ManagerActivity}, {@code false} for
+     *                  {@link MainActivity}.
+     */
+    public static void openHome(@NonNull Activity activity, boolean isManager) {
+        Class<?> home = isManager ? ManagerActivity.class : MainActivity.class;
+        startCleared(activity, new Intent(activity, home));
+    }
+
+    /**
+     * Verifies that the signed-in user belongs on the given home screen.
+     *
+     * @param activity The home screen being shown.
+     * @param managerScreen {@code true} if {@code activity} is the manager home screen.
+     * @return The pending session callback; pass it to {@link UserSession#cancel} when the
+     *         activity is destroyed. {@code null} if the user was already sent to login.
+     */
+    public static UserSession.Callback verify(@NonNull final Activity activity, final boolean managerScreen) {
+        UserSession session = UserSession.getInstance();
+        if (!session.startForCurrentUser()) {
+            CachedProfile.clear(activity);
+            openLogin(activity);
+            return null;
+        }
+        UserSession.Callback callback = new UserSession.Callback() {
+            @Override
+            public void onSessionReady(@NonNull UserSession session) {
+                if (activity.isFinishing()) {
+                    return;
+                }
+                if (!session.hasProfile()) {
+                    openLogin(activity);
+                } else if (session.isManager() != managerScreen) {
+                    openHome(activity, session.isManager());
+                }
+            }
+
+            @Override
+            public void onSessionError(@NonNull DatabaseError error) {
+                // Keep the cached route; the screens report their own read errors.
+            }
+        };
+        session.whenReady(callback);
+        return callback;
+    }
+
+    private static void openLogin(Activity activity) {
+        startCleared(activity, new Intent(activity, LoginActivity.class));
+    }
+
+    private static void startCleared(Activity activity, Intent intent) {
+        intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+        activity.startActivity(intent);
+        activity.finish();
+    }
+}
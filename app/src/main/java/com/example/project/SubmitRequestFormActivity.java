@@ -13,17 +13,8 @@ import android.widget.Toast;
 
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ServerValue;
-import com.google.firebase.database.ValueEventListener;
-
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
-import java.util.HashMap;
-import java.util.Locale;
+
 import java.util.Map;
 
 /**
@@ -40,8 +31,6 @@ public class SubmitRequestFormActivity extends AppCompatActivity {
     private ProgressBar progressBar;
 
     private FirebaseAuth mAuth;
-    private DatabaseReference requestsRef;
-    private DatabaseReference usersRef;
     private String currentUserId;
     private String currentBuildingCode;
 
@@ -70,7 +59,6 @@ public class SubmitRequestFormActivity extends AppCompatActivity {
 
         if (currentUser != null) {
             currentUserId = currentUser.getUid();
-            usersRef = FirebaseDatabase.getInstance().getReference("users").child(currentUserId);
             getUserBuildingCode(); // Fetch building code for the current user
         } else {
             Toast.makeText(this, "משתמש לא מחובר.", Toast.LENGTH_SHORT).show(); // User not logged in.
@@ -87,21 +75,22 @@ public class SubmitRequestFormActivity extends AppCompatActivity {
     }
 
     /**
-     * Retrieves the current user's building code from the Firebase Realtime Database.
+     * Retrieves the current user's building code from the process-wide {@link UserSession}.
      * This code is essential for storing help requests under the correct building.
      */
     private void getUserBuildingCode() {
-        progressBar.setVisibility(View.VISIBLE);
-        usersRef.addListenerForSingleValueEvent(new ValueEventListener() {
+        UserSession session = UserSession.getInstance();
+        session.start(currentUserId);
+        if (!session.isReady()) {
+            progressBar.setVisibility(View.VISIBLE);
+        }
+        session.whenReady(new UserSession.Callback() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
+            public void onSessionReady(@NonNull UserSession session) {
                 progressBar.setVisibility(View.GONE);
-                if (dataSnapshot.exists()) {
-                    currentBuildingCode = dataSnapshot.child("buildingCode").getValue(String.class);
-                    if (currentBuildingCode != null) {
-                        // Set up the database reference for requests specific to this building
-                        requestsRef = FirebaseDatabase.getInstance().getReference("help_requests").child(currentBuildingCode);
-                    } else {
+                if (session.hasProfile()) {
+                    currentBuildingCode = session.getBuildingCode();
+                    if (currentBuildingCode == null) {
                         Toast.makeText(SubmitRequestFormActivity.this, "קוד בניין לא נמצא.", Toast.LENGTH_SHORT).show(); // Building code not found.
                         finish();
                     }
@@ -112,7 +101,7 @@ public class SubmitRequestFormActivity extends AppCompatActivity {
             }
 
             @Override
-            public void onCancelled(@NonNull DatabaseError databaseError) {
+            public void onSessionError(@NonNull DatabaseError databaseError) {
                 progressBar.setVisibility(View.GONE);
                 Toast.makeText(SubmitRequestFormActivity.this, "שגיאה בקבלת קוד בניין: " + databaseError.getMessage(), Toast.LENGTH_SHORT).show(); // Error getting building code:
                 finish();
@@ -122,8 +111,9 @@ public class SubmitRequestFormActivity extends AppCompatActivity {
 
     /**
      * Handles the submission of a new help request.
-     * It validates the input fields, retrieves user-specific details (if available),
-     * and uploads the request data to the Firebase Realtime Database.
+     * It validates the input fields, falls back to the cached {@link UserSession} profile for
+     * missing details, and queues the request in the {@link Outbox}, which uploads it to the
+     * Firebase Realtime Database and keeps retrying in the background until it is acknowledged.
      */
     private void submitRequest() {
         String requestContent = editTextRequestContent.getText().toString().trim();
@@ -135,59 +125,24 @@ public class SubmitRequestFormActivity extends AppCompatActivity {
             return;
         }
 
-        if (requestsRef != null && currentBuildingCode != null && currentUserId != null) {
-            progressBar.setVisibility(View.VISIBLE);
-
-            String requestId = requestsRef.push().getKey(); // Generate a unique key for the request
-            Calendar calendar = Calendar.getInstance();
-            SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault());
-            SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm", Locale.getDefault());
-            String currentDate = dateFormat.format(calendar.getTime());
-            String currentTime = timeFormat.format(calendar.getTime());
-
-            Map<String, Object> requestData = new HashMap<>();
-            requestData.put("content", requestContent);
-            // Default to "Anonymous" if full name is empty, or use the user's name from profile
-            requestData.put("fullName", TextUtils.isEmpty(fullName) ? "אנונימי" : fullName);
-            // Default to empty string if apartment number is empty, or use the user's apartment number from profile
-            requestData.put("apartmentNumber", TextUtils.isEmpty(apartmentNumber) ? "" : apartmentNumber);
-            requestData.put("date", currentDate);
-            requestData.put("time", currentTime);
-            requestData.put("timestamp", ServerValue.TIMESTAMP); // Firebase server timestamp
-            requestData.put("isOpen", true); // All new requests are open by default
-            requestData.put("publisherId", currentUserId);
-
-            // Fetch publisher's full name and apartment number from their user profile
-            // This ensures consistency and fallback if not provided in the form
-            usersRef.addListenerForSingleValueEvent(new ValueEventListener() {
-                @Override
-                public void onDataChange(@NonNull DataSnapshot snapshot) {
-                    String publisherFullName = snapshot.child("fullName").getValue(String.class);
-                    String publisherApartmentNumber = snapshot.child("apartmentNumber").getValue(String.class);
-
-                    // Prioritize user input, then profile data, then defaults
-                    requestData.put("fullName", TextUtils.isEmpty(fullName) ? (publisherFullName != null ? publisherFullName : "אנונימי") : fullName);
-                    requestData.put("apartmentNumber", TextUtils.isEmpty(apartmentNumber) ? (publisherApartmentNumber != null ? publisherApartmentNumber : "") : apartmentNumber);
-
-                    // Save the request to the database
-                    requestsRef.child(requestId).setValue(requestData)
-                            .addOnCompleteListener(task -> {
-                                progressBar.setVisibility(View.GONE);
-                                if (task.isSuccessful()) {
-                                    Toast.makeText(SubmitRequestFormActivity.this, "הפנייה הוגשה בהצלחה.", Toast.LENGTH_SHORT).show(); // Request submitted successfully.
-                                    finish(); // Close the screen after successful submission
-                                } else {
-                                    Toast.makeText(SubmitRequestFormActivity.this, "שגיאה בהגשת הפנייה: " + task.getException().getMessage(), Toast.LENGTH_SHORT).show(); // Error submitting request:
-                                }
-                            });
-                }
-
-                @Override
-                public void onCancelled(@NonNull DatabaseError error) {
-                    progressBar.setVisibility(View.GONE);
-                    Toast.makeText(SubmitRequestFormActivity.this, "שגיאה בקבלת פרטי משתמש: " + error.getMessage(), Toast.LENGTH_SHORT).show(); // Error getting user details:
-                }
-            });
+        if (currentBuildingCode != null && currentUserId != null) {
+            // Prioritize user input, then the cached profile data, then defaults
+            UserSession session = UserSession.getInstance();
+            String publisherFullName = session.getFullName();
+            String publisherApartmentNumber = session.getApartmentNumber();
+
+            // All new requests are open by default
+            Map<String, Object> requestData = SnapshotMappers.requestData(currentUserId,
+                    TextUtils.isEmpty(fullName) ? (publisherFullName != null ? publisherFullName : "אנונימי") : fullName,
+                    TextUtils.isEmpty(apartmentNumber) ? (publisherApartmentNumber != null ? publisherApartmentNumber : "") : apartmentNumber,
+                    requestContent, ServerClock.getInstance().now()); // Ordering timestamp is set by the server
+
+            // Queue the request and every view derived from it as one atomic multi-path update;
+            // the outbox keeps resending it until the server acknowledges it, so the screen can close now
+            Outbox.submit(this, currentBuildingCode, Outbox.KIND_HELP_REQUEST,
+                    FanOutWrite.submitHelpRequest(currentBuildingCode, requestData));
+            Toast.makeText(SubmitRequestFormActivity.this, "הפנייה הוגשה בהצלחה.", Toast.LENGTH_SHORT).show(); // Request submitted successfully.
+            finish(); // Close the screen after submission
         } else {
             Toast.makeText(this, "לא ניתן להגיש את הפנייה כרגע.", Toast.LENGTH_SHORT).show(); // Cannot submit the request at the moment.
         }
@@ -0,0 +1,280 @@
+package com.example.project;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.FirebaseDatabase;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maintenance job that rewrites the ordering {@code timestamp} of records written before all
+ * writers used the server clock.
+ *
+ * Older clients stored a constant ({@code ServerValue.TIMESTAMP.size()}, i.e. 1) for notifications
+ * and the device clock for some help requests, which breaks every {@code orderByChild("timestamp")}
+ * range query and page cursor. Every record's push key encodes its creation time on the
+ * server-corrected client clock, so a broken timestamp is replaced by the time decoded from the
+ * key. A timestamp is considered broken when it is missing, earlier than {@link #MIN_VALID_MILLIS},
+ * earlier than its own push key by more than {@link #TOLERANCE_MILLIS} (impossible for a server
+ * timestamp) or in the future.
+ *
+ * The job also backfills the {@link HelpRequestStatusKey} of help requests written before the
+ * {@code stampHelpRequest} Cloud Function derived it on creation, and brings the
+ * {@link OpenHelpRequestsIndex} in line with the requests: open requests submitted before the
+ * index existed get their entry, and entries of closed requests are removed.
+ *
+ * The fixes of each list are applied in one multi-path {@code updateChildren} call, so the job is
+ * safe to run again. {@link UserSession} starts it on a manager's device; each list of a building
+ * is downloaded only until its repair has completed once on that device.
+ */
+public final class TimestampRepair {
+
+    private static final String TAG = "TimestampRepair";
+    private static final String PREFS_NAME = "timestamp_repair";
+    private static final String NOTIFICATIONS_PATH = "building_notifications";
+
+    /** Timestamps before 2020-01-01 cannot be real publication times. */
+    static final long MIN_VALID_MILLIS = RecordSchema.MIN_VALID_TIMESTAMP;
+
+    /** Allowed difference between a push key's time and its server timestamp. */
+    static final long TOLERANCE_MILLIS = 5 * 60 * 1000L;
+
+    // Preference key prefix of the help request flag; the notification flag is the bare building code
+    private static final String HELP_REQUESTS_FLAG_PREFIX = "help_requests/";
+
+    private static final String PUSH_CHARS = "-0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ_abcdefghijklmnopqrstuvwxyz";
+
+    private TimestampRepair() {
+    }
+
+    /**
+     * Repairs a building from a manager's device, once per device: each list is repaired until
+     * that completed once, and the flag is kept in preferences. New help requests get their
+     * {@link HelpRequestStatusKey} from the {@code stampHelpRequest} Cloud Function, so the help
+     * requests only need this one backfill.
+     *
+     * @param context Any context.
+     * @param buildingCode The building to repair.
+     */
+    public static void run(@NonNull Context context, @NonNull String buildingCode) {
+        SharedPreferences prefs = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        String helpRequestsFlag = HELP_REQUESTS_FLAG_PREFIX + buildingCode;
+        if (!prefs.getBoolean(helpRequestsFlag, false)) {
+            repairHelpRequests(buildingCode).addOnCompleteListener(task -> {
+                if (task.isSuccessful()) {
+                    Log.i(TAG, "Repaired " + task.getResult() + " help requests in " + buildingCode);
+                    prefs.edit().putBoolean(helpRequestsFlag, true).apply();
+                } else {
+                    Log.w(TAG, "Help request repair failed for " + buildingCode, task.getException());
+                }
+            });
+        }
+        if (prefs.getBoolean(buildingCode, false)) {
+            return;
+        }
+        repairNotifications(buildingCode).addOnCompleteListener(task -> {
+            if (task.isSuccessful()) {
+                Log.i(TAG, "Repaired " + task.getResult() + " timestamps in " + buildingCode);
+                prefs.edit().putBoolean(buildingCode, true).apply();
+            } else {
+                Log.w(TAG, "Timestamp repair failed for " + buildingCode, task.getException());
+            }
+        });
+    }
+
+    /**
+     * Repairs the notification timestamps of one building.
+     *
+     * @param buildingCode The building to repair.
+     * @return A task that resolves to the number of records that were rewritten.
+     */
+    public static Task<Integer> repairNotifications(@NonNull String buildingCode) {
+        FirebaseDatabase database = FirebaseDatabase.getInstance();
+        return database.getReference(NOTIFICATIONS_PATH).child(buildingCode).get().continueWithTask(readTask -> {
+            long now = ServerClock.getInstance().now();
+            Map<String, Object> updates = new HashMap<>();
+            for (DataSnapshot notification : readTask.getResult().getChildren()) {
+                long repaired = repairedTimestamp(notification.getKey(),
+                        notification.child(SnapshotMappers.TIMESTAMP).getValue(), now);
+                if (repaired >= 0) {
+                    updates.put(NOTIFICATIONS_PATH + "/" + buildingCode + "/" + notification.getKey() + "/"
+                            + SnapshotMappers.TIMESTAMP, repaired);
+                }
+            }
+            return write(database, updates, updates.size());
+        });
+    }
+
+    /**
+     * Repairs the help requests of one building and their {@link OpenHelpRequestsIndex} entries,
+     * see {@link #planHelpRequests}.
+     *
+     * @param buildingCode The building to repair.
+     * @return A task that resolves to the number of requests that were fixed.
+     */
+    public static Task<Integer> repairHelpRequests(@NonNull String buildingCode) {
+        FirebaseDatabase database = FirebaseDatabase.getInstance();
+        // The index is read before the requests, so a request closed in between is seen closed
+        // and its entry removed rather than an entry being added back for it
+        Task<DataSnapshot> indexEntries = database.getReference(OpenHelpRequestsIndex.INDEX_PATH)
+                .orderByChild(SnapshotMappers.BUILDING_CODE).equalTo(buildingCode).get();
+        Task<DataSnapshot> requests = indexEntries.continueWithTask(indexTask ->
+                database.getReference(OpenHelpRequestsIndex.REQUESTS_PATH).child(buildingCode).get());
+        return requests.continueWithTask(readTask -> {
+            Map<String, Object> updates = new HashMap<>();
+            int count = planHelpRequests(buildingCode, asMap(readTask.getResult().getValue()),
+                    asMap(indexEntries.getResult().getValue()), ServerClock.getInstance().now(), updates);
+            return write(database, updates, count);
+        });
+    }
+
+    /**
+     * Applies a multi-path update, if there is anything to write.
+     *
+     * @return A task that resolves to {@code count} once the update is written.
+     */
+    private static Task<Integer> write(FirebaseDatabase database, Map<String, Object> updates, int count) {
+        if (updates.isEmpty()) {
+            return Tasks.forResult(0);
+        }
+        return database.getReference().updateChildren(updates).continueWith(writeTask -> {
+            if (!writeTask.isSuccessful()) {
+                throw writeTask.getException();
+            }
+            return count;
+        });
+    }
+
+    /**
+     * Adds the fixes for the help requests of one building to a multi-path update: repaired
+     * timestamps, a {@link HelpRequestStatusKey} derived from the stored (or repaired) timestamp
+     * wherever it is missing or disagrees, a full index entry for every open request that has
+     * none, and the removal of index entries whose request is closed. Existing entries are patched
+     * field by field; a missing entry is never patched, as that would leave a stub node without
+     * content.
+     *
+     * @param buildingCode The building being repaired.
+     * @param requests The children of {@code help_requests/{buildingCode}}, by push key.
+     * @param indexEntries The building's children of {@code open_help_requests}, by push key.
+     * @param now The current server time.
+     * @param updates The multi-path update, keyed by path relative to the database root.
+     * @return The number of requests that were fixed.
+     */
+    static int planHelpRequests(@NonNull String buildingCode, @NonNull Map<?, ?> requests,
+                                @NonNull Map<?, ?> indexEntries, long now, @NonNull Map<String, Object> updates) {
+        int count = 0;
+        for (Map.Entry<?, ?> request : requests.entrySet()) {
+            if (!(request.getValue() instanceof Map)) {
+                continue;
+            }
+            String key = request.getKey().toString();
+            Map<?, ?> fields = (Map<?, ?>) request.getValue();
+            boolean open = !Boolean.FALSE.equals(fields.get(SnapshotMappers.IS_OPEN));
+            boolean indexed = indexEntries.containsKey(key);
+            Object stored = fields.get(SnapshotMappers.TIMESTAMP);
+            long repaired = repairedTimestamp(key, stored, now);
+            long timestamp = repaired >= 0 ? repaired : stored instanceof Number ? ((Number) stored).longValue() : -1;
+            String requestPath = OpenHelpRequestsIndex.REQUESTS_PATH + "/" + buildingCode + "/" + key;
+            String indexPath = OpenHelpRequestsIndex.INDEX_PATH + "/" + key;
+            boolean fixed = false;
+            if (repaired >= 0) {
+                updates.put(requestPath + "/" + SnapshotMappers.TIMESTAMP, repaired);
+                if (open && indexed) {
+                    updates.put(indexPath + "/" + SnapshotMappers.TIMESTAMP, repaired);
+                }
+                fixed = true;
+            }
+            if (timestamp >= 0) {
+                String statusTime = HelpRequestStatusKey.of(open, timestamp);
+                if (!statusTime.equals(fields.get(HelpRequestStatusKey.FIELD))) {
+                    updates.put(requestPath + "/" + HelpRequestStatusKey.FIELD, statusTime);
+                    fixed = true;
+                }
+            }
+            if (open && !indexed) {
+                // Requests submitted before the index existed; the entry keeps the publisher's details
+                Map<String, Object> entry = OpenHelpRequestsIndex.indexEntry(buildingCode, fields);
+                if (repaired >= 0) {
+                    entry.put(SnapshotMappers.TIMESTAMP, repaired);
+                }
+                String publisherId = Objects.toString(entry.get(SnapshotMappers.PUBLISHER_ID), null);
+                PublisherDirectory directory = PublisherDirectory.getInstance();
+                entry.put(SnapshotMappers.FULL_NAME, directory.fullName(publisherId,
+                        Objects.toString(entry.get(SnapshotMappers.FULL_NAME), null)));
+                entry.put(SnapshotMappers.APARTMENT_NUMBER, directory.apartmentNumber(publisherId,
+                        Objects.toString(entry.get(SnapshotMappers.APARTMENT_NUMBER), null)));
+                updates.put(indexPath, entry);
+                fixed = true;
+            } else if (!open && indexed) {
+                updates.put(indexPath, null);
+                fixed = true;
+            }
+            if (fixed) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param key The push key of a notification or help request.
+     * @param stored The stored {@code timestamp} value.
+     * @param now The current server time.
+     * @return The timestamp to store, or {@code -1} if the stored one is fine or cannot be derived.
+     */
+    private static long repairedTimestamp(String key, Object stored, long now) {
+        long keyTime = pushKeyTime(key);
+        if (keyTime < 0) {
+            return -1;
+        }
+        long timestamp = stored instanceof Number ? ((Number) stored).longValue() : -1;
+        return needsRepair(timestamp, keyTime, now) ? keyTime : -1;
+    }
+
+    private static Map<?, ?> asMap(Object value) {
+        return value instanceof Map ? (Map<?, ?>) value : Collections.emptyMap();
+    }
+
+    /**
+     * @param timestamp The stored timestamp, or {@code -1} if missing.
+     * @param keyTime The creation time decoded from the push key.
+     * @param now The current server time.
+     * @return {@code true} if the stored timestamp cannot be a server timestamp of this record.
+     */
+    static boolean needsRepair(long timestamp, long keyTime, long now) {
+        return timestamp < MIN_VALID_MILLIS
+                || timestamp < keyTime - TOLERANCE_MILLIS
+                || timestamp > now + TOLERANCE_MILLIS;
+    }
+
+    /**
+     * Decodes the creation time Firebase encodes in the first 8 characters of a push key.
+     *
+     * @param key A database key.
+     * @return The creation time in milliseconds, or {@code -1} if the key is not a push key.
+     */
+    static long pushKeyTime(String key) {
+        if (key == null || key.length() != 20) {
+            return -1;
+        }
+        long time = 0;
+        for (int i = 0; i < 8; i++) {
+            int digit = PUSH_CHARS.indexOf(key.charAt(i));
+            if (digit < 0) {
+                return -1;
+            }
+            time = time * 64 + digit;
+        }
+        return time;
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.project;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ServerValue;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Number of building notifications the signed-in user has not read yet, from two scalars instead
+ * of the notification list.
+ *
+ * <ul>
+ *     <li>{@code building_stats/{code}/notificationCount} counts every notification ever published
+ *     in the building. {@link FanOutWrite#publishNotification} increments it on the server in the
+ *     same atomic write as the notification.</li>
+ *     <li>{@code last_read/{uid}/{code}} is the count the user had seen when they last opened the
+ *     board. {@link #markAllRead()} advances it with a single write; while the board is in the
+ *     foreground (see {@link #setBoardVisible(boolean)}) every new notification is marked read as
+ *     it arrives.</li>
+ * </ul>
+ * Unread is the difference. The home screens show it as a badge; both values are a few bytes and
+ * stay live through two listeners started by {@link UserSession}.
+ *
+ * All methods run on the main thread, the same thread Firebase uses for listeners.
+ */
+public final class UnreadCounter {
+
+    /** Root node of the per-building counters. */
+    public static final String STATS_PATH = "building_stats";
+
+    /** Field of the published notifications counter under {@code building_stats/{code}}. */
+    public static final String NOTIFICATION_COUNT = "notificationCount";
+
+    /** Root node of the per-user read markers. */
+    public static final String LAST_READ_PATH = "last_read";
+
+    /** Largest count shown on a badge; larger counts show as {@code "99+"}. */
+    static final int MAX_BADGE = 99;
+
+    /**
+     * Notified whenever the unread count may have changed.
+     */
+    public interface Listener {
+        void onUnreadChanged(int unread);
+    }
+
+    private static UnreadCounter instance;
+
+    private final List<Listener> listeners = new ArrayList<>();
+
+    private String userId;
+    private String buildingCode;
+    private DatabaseReference countRef;
+    private DatabaseReference lastReadRef;
+    private ValueEventListener countListener;
+    private ValueEventListener lastReadListener;
+
+    private Long count;
+    private Long lastRead;
+    private boolean lastReadLoaded;
+    private boolean boardVisible;
+
+    private UnreadCounter() {
+    }
+
+    /**
+     * @return The shared {@code UnreadCounter}.
+     */
+    public static synchronized UnreadCounter getInstance() {
+        if (instance == null) {
+            instance = new UnreadCounter();
+        }
+        return instance;
+    }
+
+    /**
+     * Adds the counter increment of a new notification to its publish write.
+     *
+     * @param write The write that publishes the notification.
+     * @param buildingCode The notification's building.
+     */
+    static void putIncrement(@NonNull FanOutWrite write, @NonNull String buildingCode) {
+        write.put(STATS_PATH + "/" + buildingCode + "/" + NOTIFICATION_COUNT, ServerValue.increment(1));
+    }
+
+    /**
+     * Follows the counter and read marker of the given user and building, replacing any previous
+     * ones.
+     *
+     * @param uid The signed-in user, or {@code null} to stop.
+     * @param newBuildingCode The user's building, or {@code null} to stop.
+     */
+    public void start(@Nullable String uid, @Nullable String newBuildingCode) {
+        if (uid != null && uid.equals(userId) && newBuildingCode != null && newBuildingCode.equals(buildingCode)) {
+            return;
+        }
+        stop();
+        if (uid == null || newBuildingCode == null) {
+            return;
+        }
+        userId = uid;
+        buildingCode = newBuildingCode;
+        FirebaseDatabase database = FirebaseDatabase.getInstance();
+        countRef = database.getReference(STATS_PATH).child(newBuildingCode).child(NOTIFICATION_COUNT);
+        lastReadRef = database.getReference(LAST_READ_PATH).child(uid).child(newBuildingCode);
+
+        countListener = new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                count = snapshot.getValue(Long.class);
+                onValuesChanged();
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                // Without the counter there is no badge
+            }
+        };
+        lastReadListener = new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                lastRead = snapshot.getValue(Long.class);
+                lastReadLoaded = true;
+                onValuesChanged();
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                // Without the marker there is no badge
+            }
+        };
+        countRef.addValueEventListener(countListener);
+        lastReadRef.addValueEventListener(lastReadListener);
+    }
+
+    /**
+     * Detaches both listeners and forgets the values.
+     */
+    public void stop() {
+        if (countRef != null) {
+            countRef.removeEventListener(countListener);
+        }
+        if (lastReadRef != null) {
+            lastReadRef.removeEventListener(lastReadListener);
+        }
+        countRef = null;
+        lastReadRef = null;
+        countListener = null;
+        lastReadListener = null;
+        userId = null;
+        buildingCode = null;
+        count = null;
+        lastRead = null;
+        lastReadLoaded = false;
+        dispatch();
+    }
+
+    private void onValuesChanged() {
+        // A user without a marker starts from the current count instead of the whole history
+        if (boardVisible || (lastReadLoaded && lastRead == null)) {
+            markAllRead();
+        }
+        dispatch();
+    }
+
+    /**
+     * Tells the counter whether the notifications board is in the foreground. Showing it marks
+     * everything read, as soon as the counter is known if it is not yet.
+     *
+     * @param visible {@code true} from the board's {@code onResume}, {@code false} from its
+     *                {@code onPause}.
+     */
+    public void setBoardVisible(boolean visible) {
+        boardVisible = visible;
+        if (visible) {
+            markAllRead();
+        }
+    }
+
+    /**
+     * Marks everything published so far as read, with one write of the current count. Does
+     * nothing when the marker is already up to date or the counter is not known yet.
+     */
+    public void markAllRead() {
+        if (lastReadRef == null || count == null || (lastRead != null && lastRead >= count)) {
+            return;
+        }
+        lastReadRef.setValue(count);
+    }
+
+    /**
+     * @return The number of unread notifications, {@code 0} until both values are known.
+     */
+    public int getUnread() {
+        return unread(count, lastRead);
+    }
+
+    /**
+     * Appends the unread count to a button label, e.g. {@code "לוח הודעות הועד (3)"}.
+     *
+     * @param label The button's label without a count.
+     * @param unread The number of unread notifications.
+     * @return The label with the count, or the label itself when nothing is unread.
+     */
+    @NonNull
+    static String badgeText(@NonNull String label, int unread) {
+        if (unread <= 0) {
+            return label;
+        }
+        return label + " (" + (unread > MAX_BADGE ? MAX_BADGE + "+" : String.valueOf(unread)) + ")";
+    }
+
+    static int unread(@Nullable Long count, @Nullable Long lastRead) {
+        if (count == null || lastRead == null) {
+            return 0;
+        }
+        return (int) Math.max(0, count - lastRead);
+    }
+
+    /**
+     * Registers a listener and notifies it of the current count right away.
+     *
+     * @param listener The listener to notify of changes.
+     */
+    public void addListener(@NonNull Listener listener) {
+        listeners.add(listener);
+        listener.onUnreadChanged(getUnread());
+    }
+
+    /**
+     * @param listener A listener passed to {@link #addListener(Listener)}.
+     */
+    public void removeListener(@NonNull Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private void dispatch() {
+        int unread = getUnread();
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.onUnreadChanged(unread);
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.example.project;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 
+import android.app.TimePickerDialog;
+import android.content.DialogInterface;
 import android.content.Intent;
 import android.os.Bundle;
 import android.text.TextUtils;
@@ -16,18 +18,16 @@ import android.widget.Toast;
 
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
 
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * An activity for managing user profiles. Users can view their email,
- * update their full name, and log out of the application.
+ * update their full name, choose the time of their daily reminder, and log out of the application.
  * This activity interacts with Firebase Authentication and Realtime Database
  * to load and save user-specific data.
  */
@@ -42,6 +42,7 @@ public class UserProfileActivity extends AppCompatActivity {
     private DatabaseReference usersRef;
     private String currentUserId;
     private Button logoutButton;
+    private Button buttonReminderTime;
 
     /**
      * Called when the activity is first created.
@@ -63,12 +64,14 @@ public class UserProfileActivity extends AppCompatActivity {
         buttonSaveProfile = findViewById(R.id.buttonSaveProfile);
         progressBar = findViewById(R.id.progressBar);
         logoutButton = findViewById(R.id.logoutButton);
+        buttonReminderTime = findViewById(R.id.buttonReminderTime);
 
         // Set up click listener for the logout button
         logoutButton.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-                // Sign out the user from Firebase
+                // Sign out the user from Firebase and drop the cached profile
+                UserSession.getInstance().stop();
                 mAuth.signOut();
 
                 // After logout, navigate to the Login screen
@@ -84,7 +87,7 @@ public class UserProfileActivity extends AppCompatActivity {
         FirebaseUser currentUser = mAuth.getCurrentUser();
         if (currentUser != null) {
             currentUserId = currentUser.getUid();
-            // Get a reference to the current user's data in the Firebase Realtime Database
+            // Get a reference to the current user's data in the Firebase Realtime Database (used for saving)
             usersRef = FirebaseDatabase.getInstance().getReference("users").child(currentUserId);
             loadUserProfile(); // Load the user's profile data
         } else {
@@ -100,32 +103,45 @@ public class UserProfileActivity extends AppCompatActivity {
                 saveUserProfile(); // Save the updated user profile
             }
         });
+
+        // Set up click listener for the reminder time button
+        buttonReminderTime.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                pickReminderTime();
+            }
+        });
     }
 
     /**
-     * Loads the current user's profile data (full name and email) from Firebase.
-     * Displays a progress bar while loading and a toast message if data is not found or an error occurs.
+     * Loads the current user's profile data (full name and email) from the {@link UserSession}.
+     * Displays a progress bar while the session is still loading and a toast message if data is
+     * not found or an error occurs.
      */
     private void loadUserProfile() {
-        progressBar.setVisibility(View.VISIBLE);
-        usersRef.addListenerForSingleValueEvent(new ValueEventListener() {
+        UserSession session = UserSession.getInstance();
+        session.start(currentUserId);
+        if (!session.isReady()) {
+            progressBar.setVisibility(View.VISIBLE);
+        }
+        session.whenReady(new UserSession.Callback() {
             @Override
-            public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
+            public void onSessionReady(@NonNull UserSession session) {
                 progressBar.setVisibility(View.GONE);
-                if (dataSnapshot.exists()) {
-                    String fullName = dataSnapshot.child("fullName").getValue(String.class);
+                if (session.hasProfile()) {
                     // The email is directly from FirebaseUser, not from the database
                     String email = mAuth.getCurrentUser().getEmail();
 
-                    editTextFullName.setText(fullName);
+                    editTextFullName.setText(session.getFullName());
                     textViewEmail.setText(email);
+                    showReminderTime(session.getReminderTime());
                 } else {
                     Toast.makeText(UserProfileActivity.this, "לא נמצאו פרטי משתמש.", Toast.LENGTH_SHORT).show(); // User details not found.
                 }
             }
 
             @Override
-            public void onCancelled(@NonNull DatabaseError databaseError) {
+            public void onSessionError(@NonNull DatabaseError databaseError) {
                 progressBar.setVisibility(View.GONE);
                 Toast.makeText(UserProfileActivity.this, "שגיאה בטעינת פרופיל: " + databaseError.getMessage(), Toast.LENGTH_SHORT).show(); // Error loading profile:
             }
@@ -160,4 +176,45 @@ public class UserProfileActivity extends AppCompatActivity {
                     }
                 });
     }
-}
\ No newline at end of file
+
+    /**
+     * Shows the user's reminder time on the reminder button.
+     *
+     * @param reminderTime Minutes after midnight, or {@code null} if the reminder is off.
+     */
+    private void showReminderTime(Integer reminderTime) {
+        buttonReminderTime.setText(ReminderScheduler.isValid(reminderTime)
+                ? "תזכורת יומית: " + ReminderScheduler.format(reminderTime) // Daily reminder: HH:MM
+                : "תזכורת יומית: כבויה"); // Daily reminder: off
+    }
+
+    /**
+     * Lets the user pick the time of the daily reminder, or turn it off. The time is saved in the
+     * profile; the {@link UserSession} then reschedules the reminder through
+     * {@link ReminderScheduler}.
+     */
+    private void pickReminderTime() {
+        Integer current = UserSession.getInstance().getReminderTime();
+        int initial = ReminderScheduler.isValid(current) ? current : 16 * 60;
+        TimePickerDialog dialog = new TimePickerDialog(this,
+                (view, hourOfDay, minute) -> saveReminderTime(hourOfDay * 60 + minute),
+                initial / 60, initial % 60, true);
+        dialog.setButton(DialogInterface.BUTTON_NEUTRAL, "כיבוי", // Turn off
+                (d, which) -> saveReminderTime(null));
+        dialog.show();
+    }
+
+    /**
+     * Saves the reminder time to the current user's profile.
+     *
+     * @param reminderTime Minutes after midnight, or {@code null} to turn the reminder off.
+     */
+    private void saveReminderTime(Integer reminderTime) {
+        showReminderTime(reminderTime);
+        usersRef.child(ReminderScheduler.FIELD).setValue(reminderTime)
+                .addOnFailureListener(e -> {
+                    showReminderTime(UserSession.getInstance().getReminderTime());
+                    Toast.makeText(UserProfileActivity.this, "שגיאה בשמירת שעת התזכורת: " + e.getMessage(), Toast.LENGTH_SHORT).show(); // Error saving the reminder time:
+                });
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.project;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Process-wide cache of the signed-in user's profile.
+ *
+ * The profile node {@code users/{uid}} is read once when the session starts (at login or on
+ * automatic login) and then kept live by a single {@link ValueEventListener}. Every screen asks
+ * the session for the building code, full name, apartment number and manager flag instead of
+ * issuing its own read, so once the session is warm opening a screen costs no extra round trip.
+ * Whenever the profile changes, the user's building is handed to {@link OfflineSync} so its data
+ * stays synced in the local cache, to {@link PublisherDirectory} so records can omit their
+ * publisher's details, to {@link BuildingTopics} so the device receives the building's pushes,
+ * to {@link UnreadCounter} for the unread badge, and to {@link BuildingDataSync} so a manager's
+ * help requests are mirrored into the local {@link BuildingDatabase}. The user's reminder time goes to
+ * {@link ReminderScheduler}.
+ *
+ * All callbacks are delivered on the main thread, the same thread Firebase uses for listeners.
+ */
+public final class UserSession {
+
+    /**
+     * Receives the profile once it has been loaded from the database.
+     */
+    public interface Callback {
+        /**
+         * Called when the profile is available. The session may still have no profile if
+         * {@code users/{uid}} does not exist; check {@link UserSession#hasProfile()}.
+         *
+         * @param session The loaded session.
+         */
+        void onSessionReady(@NonNull UserSession session);
+
+        /**
+         * Called when the profile could not be read.
+         *
+         * @param error The database error reported by Firebase.
+         */
+        void onSessionError(@NonNull DatabaseError error);
+    }
+
+    private static UserSession instance;
+
+    private final List<Callback> pendingCallbacks = new ArrayList<>();
+
+    private String userId;
+    private DatabaseReference userRef;
+    private ValueEventListener profileListener;
+
+    private boolean ready;
+    private boolean hasProfile;
+    private String buildingCode;
+    private String fullName;
+    private String apartmentNumber;
+    private boolean isManager;
+    private Integer reminderTime;
+
+    private UserSession() {
+    }
+
+    /**
+     * Returns the single session instance of the process.
+     *
+     * @return The shared {@code UserSession}.
+     */
+    public static synchronized UserSession getInstance() {
+        if (instance == null) {
+            instance = new UserSession();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts the session for the currently authenticated Firebase user, if there is one.
+     * Calling this again for the same user is a no-op, so screens may call it freely.
+     *
+     * @return {@code true} if a user is signed in, {@code false} otherwise.
+     */
+    public boolean startForCurrentUser() {
+        FirebaseUser currentUser = FirebaseAuth.getInstance().getCurrentUser();
+        if (currentUser == null) {
+            return false;
+        }
+        start(currentUser.getUid());
+        return true;
+    }
+
+    /**
+     * Starts the session for the given user and attaches the single live listener on
+     * {@code users/{uid}}. A previous session for a different user is stopped first.
+     *
+     * @param uid The Firebase Authentication UID of the user.
+     */
+    public void start(@NonNull String uid) {
+        if (uid.equals(userId) && profileListener != null) {
+            return;
+        }
+        detach();
+        userId = uid;
+        userRef = FirebaseDatabase.getInstance().getReference("users").child(uid);
+        profileListener = new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                hasProfile = snapshot.exists();
+                buildingCode = snapshot.child("buildingCode").getValue(String.class);
+                fullName = snapshot.child("fullName").getValue(String.class);
+                apartmentNumber = snapshot.child("apartmentNumber").getValue(String.class);
+                Boolean manager = snapshot.child("isManager").getValue(Boolean.class);
+                isManager = manager != null && manager;
+                reminderTime = snapshot.child(ReminderScheduler.FIELD).getValue(Integer.class);
+                ready = true;
+                OfflineSync.syncBuilding(buildingCode, isManager);
+                PublisherDirectory.getInstance().syncBuilding(buildingCode);
+                BuildingTopics.sync(BinYanApplication.getAppContext(), buildingCode);
+                UnreadCounter.getInstance().start(uid, buildingCode);
+                if (hasProfile) {
+                    CachedProfile.write(BinYanApplication.getAppContext(), uid, buildingCode, isManager);
+                    ReminderScheduler.sync(BinYanApplication.getAppContext(), reminderTime);
+                    if (buildingCode != null) {
+                        NotificationDeltaWorker.schedule(BinYanApplication.getAppContext());
+                        HistoryArchiveWorker.schedule(BinYanApplication.getAppContext());
+                    }
+                } else {
+                    CachedProfile.clear(BinYanApplication.getAppContext());
+                }
+                BuildingDataSync.getInstance().syncBuilding(buildingCode, isManager);
+                if (isManager && buildingCode != null) {
+                    TimestampRepair.run(BinYanApplication.getAppContext(), buildingCode);
+                }
+                dispatchReady();
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                // Firebase has already dropped a cancelled listener; forget it so the next start()
+                // attaches a new one instead of waiting on this one forever
+                profileListener = null;
+                dispatchError(error);
+            }
+        };
+        userRef.addValueEventListener(profileListener);
+    }
+
+    /**
+     * Detaches the live listener and forgets the cached profile, including the copy persisted
+     * for fast cold starts, and stops the building's pushes and the reminder. Called on logout.
+     */
+    public void stop() {
+        detach();
+        CachedProfile.clear(BinYanApplication.getAppContext());
+        BuildingTopics.sync(BinYanApplication.getAppContext(), null);
+        NotificationDeltaWorker.cancel(BinYanApplication.getAppContext());
+        ReminderScheduler.cancel(BinYanApplication.getAppContext());
+        HistoryArchiveWorker.cancel(BinYanApplication.getAppContext());
+    }
+
+    private void detach() {
+        if (userRef != null && profileListener != null) {
+            userRef.removeEventListener(profileListener);
+        }
+        OfflineSync.syncBuilding(null, false);
+        PublisherDirectory.getInstance().syncBuilding(null);
+        UnreadCounter.getInstance().stop();
+        BuildingDataSync.getInstance().stop();
+        userRef = null;
+        profileListener = null;
+        userId = null;
+        ready = false;
+        hasProfile = false;
+        buildingCode = null;
+        fullName = null;
+        apartmentNumber = null;
+        isManager = false;
+        reminderTime = null;
+        pendingCallbacks.clear();
+    }
+
+    /**
+     * Runs the callback as soon as the profile is available. If the session is already warm the
+     * callback runs synchronously, before this method returns.
+     *
+     * @param callback The callback to notify.
+     */
+    public void whenReady(@NonNull Callback callback) {
+        if (ready) {
+            callback.onSessionReady(this);
+        } else {
+            pendingCallbacks.add(callback);
+        }
+    }
+
+    /**
+     * Removes a callback that has not fired yet, e.g. when its activity is destroyed.
+     *
+     * @param callback The callback passed to {@link #whenReady(Callback)}.
+     */
+    public void cancel(@NonNull Callback callback) {
+        pendingCallbacks.remove(callback);
+    }
+
+    private void dispatchReady() {
+        List<Callback> callbacks = new ArrayList<>(pendingCallbacks);
+        pendingCallbacks.clear();
+        for (Callback callback : callbacks) {
+            callback.onSessionReady(this);
+        }
+    }
+
+    private void dispatchError(DatabaseError error) {
+        List<Callback> callbacks = new ArrayList<>(pendingCallbacks);
+        pendingCallbacks.clear();
+        for (Callback callback : callbacks) {
+            callback.onSessionError(error);
+        }
+    }
+
+    /**
+     * @return {@code true} once the profile has been read at least once.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return {@code true} if {@code users/{uid}} exists in the database.
+     */
+    public boolean hasProfile() {
+        return hasProfile;
+    }
+
+    /**
+     * @return The UID of the session's user, or {@code null} if no session is running.
+     */
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * @return The user's building code, or {@code null} if not set.
+     */
+    public String getBuildingCode() {
+        return buildingCode;
+    }
+
+    /**
+     * @return The user's full name, or {@code null} if not set.
+     */
+    public String getFullName() {
+        return fullName;
+    }
+
+    /**
+     * @return The user's apartment number, or {@code null} if not set.
+     */
+    public String getApartmentNumber() {
+        return apartmentNumber;
+    }
+
+    /**
+     * @return {@code true} if the user has manager privileges.
+     */
+    public boolean isManager() {
+        return isManager;
+    }
+
+    /**
+     * @return The user's daily reminder time in minutes after midnight, or {@code null} if the
+     *         reminder is off.
+     */
+    public Integer getReminderTime() {
+        return reminderTime;
+    }
+}
@@ -13,17 +13,14 @@ import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
 
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
 import com.google.firebase.database.Query;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * An activity that displays a list of building notifications to the user.
@@ -32,13 +29,26 @@ import java.util.List;
  */
 public class ViewBuildingNotificationsActivity extends AppCompatActivity {
 
+    /** Number of notifications loaded per page; only the newest page is kept live. */
+    static final int PAGE_SIZE = 30;
+
     private RecyclerView buildingNotificationsRecyclerView;
     private TextView emptyBuildingNotificationsTextView;
     private ProgressBar buildingNotificationsProgressBar;
     private DatabaseReference buildingNotificationsRef;
     private String currentBuildingCode;
     private BuildingNotificationAdapter adapter;
-    private List<BuildingNotification> buildingNotificationsList;
+    private PagedChildEventFeed<BuildingNotification> buildingNotificationsFeed;
+    private HistoryArchive.Pager<BuildingNotification> archivePager;
+    private long screenStartMillis;
+    private boolean firstItemReported;
+
+    // Publisher names of v2 notifications come from the directory; rebind once it (re)loads
+    private final PublisherDirectory.Listener directoryListener = () -> {
+        if (adapter != null) {
+            adapter.notifyItemRangeChanged(0, adapter.getItemCount());
+        }
+    };
 
     /**
      * Called when the activity is first created.
@@ -52,36 +62,44 @@ public class ViewBuildingNotificationsActivity extends AppCompatActivity {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        screenStartMillis = StartupMetrics.now();
         setContentView(R.layout.activity_view_building_notifications);
 
         buildingNotificationsRecyclerView = findViewById(R.id.buildingNotificationsRecyclerView);
         emptyBuildingNotificationsTextView = findViewById(R.id.emptyBuildingNotificationsTextView);
         buildingNotificationsProgressBar = findViewById(R.id.buildingNotificationsProgressBar);
-        buildingNotificationsRecyclerView.setLayoutManager(new LinearLayoutManager(this));
-
-        buildingNotificationsList = new ArrayList<>();
-        adapter = new BuildingNotificationAdapter(buildingNotificationsList);
-        buildingNotificationsRecyclerView.setAdapter(adapter);
+        LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        layoutManager.setStackFromEnd(true); // Open at the newest notification
+        buildingNotificationsRecyclerView.setLayoutManager(layoutManager);
+
+        // Load the previous page when the user scrolls up to the oldest loaded notification
+        buildingNotificationsRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy < 0 && !recyclerView.canScrollVertically(-1)) {
+                    loadOlderNotifications();
+                }
+            }
+        });
 
         buildingNotificationsProgressBar.setVisibility(View.VISIBLE);
 
+        PublisherDirectory.getInstance().addListener(directoryListener);
         getCurrentBuildingCode();
     }
 
     /**
-     * Retrieves the building code associated with the currently logged-in user from Firebase.
-     * Once the building code is obtained, it proceeds to fetch building notifications.
+     * Retrieves the building code associated with the currently logged-in user from the
+     * {@link UserSession}. Once the building code is obtained, it proceeds to fetch building notifications.
      */
     private void getCurrentBuildingCode() {
-        FirebaseUser currentUser = FirebaseAuth.getInstance().getCurrentUser();
-        if (currentUser != null) {
-            String currentUserId = currentUser.getUid();
-            DatabaseReference userRef = FirebaseDatabase.getInstance().getReference("users").child(currentUserId);
-            userRef.addListenerForSingleValueEvent(new ValueEventListener() {
+        UserSession session = UserSession.getInstance();
+        if (session.startForCurrentUser()) {
+            session.whenReady(new UserSession.Callback() {
                 @Override
-                public void onDataChange(@NonNull DataSnapshot snapshot) {
-                    if (snapshot.exists()) {
-                        currentBuildingCode = snapshot.child("buildingCode").getValue(String.class);
+                public void onSessionReady(@NonNull UserSession session) {
+                    if (session.hasProfile()) {
+                        currentBuildingCode = session.getBuildingCode();
                         if (currentBuildingCode != null) {
                             buildingNotificationsRef = FirebaseDatabase.getInstance().getReference("building_notifications").child(currentBuildingCode);
                             fetchBuildingNotifications();
@@ -94,7 +112,7 @@ public class ViewBuildingNotificationsActivity extends AppCompatActivity {
                 }
 
                 @Override
-                public void onCancelled(@NonNull DatabaseError error) {
+                public void onSessionError(@NonNull DatabaseError error) {
                     handleFirebaseError("שגיאה בקבלת קוד בניין: " + error.getMessage()); // Error getting building code:
                 }
             });
@@ -105,29 +123,75 @@ public class ViewBuildingNotificationsActivity extends AppCompatActivity {
 
     /**
      * Fetches building notifications from Firebase Realtime Database.
-     * It orders notifications by timestamp (publication order) and updates the RecyclerView.
+     * It orders notifications by timestamp (publication order) and attaches a
+     * {@link PagedChildEventFeed}: only the newest {@link #PAGE_SIZE} notifications are read and
+     * kept live, and every later add, change, removal or move is applied to the RecyclerView as a
+     * single positional update. Older notifications are loaded page by page on scroll.
      * Displays a message if no notifications are found.
      */
     private void fetchBuildingNotifications() {
         if (buildingNotificationsRef != null) {
             Query query = buildingNotificationsRef.orderByChild("timestamp"); // Order by publication time
-            query.addValueEventListener(new ValueEventListener() {
+            buildingNotificationsFeed = new PagedChildEventFeed<>(query, PAGE_SIZE,
+                    SnapshotMappers::toBuildingNotification,
+                    BuildingNotification::getTimestamp);
+            archivePager = new HistoryArchive.Pager<>(HistoryArchive.TYPE_NOTIFICATIONS, currentBuildingCode,
+                    buildingNotificationsFeed, SnapshotMappers::toBuildingNotification, BuildingNotification::getTimestamp);
+            adapter = new BuildingNotificationAdapter(buildingNotificationsFeed);
+            buildingNotificationsRecyclerView.setAdapter(adapter);
+
+            // Notifications published from this device appear at once from the local cache;
+            // the ones the server has not acknowledged yet are marked as pending
+            Outbox.observePendingKeys(this, currentBuildingCode, Outbox.KIND_NOTIFICATION)
+                    .observe(this, keys -> adapter.setPendingKeys(new HashSet<>(keys)));
+
+            buildingNotificationsFeed.setCallback(new ChildEventFeed.Callback() {
                 @Override
-                public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                    buildingNotificationsList.clear();
-                    for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                        BuildingNotification notification = snapshot.getValue(BuildingNotification.class);
-                        if (notification != null) {
-                            buildingNotificationsList.add(notification);
-                        }
-                    }
-                    adapter.notifyDataSetChanged();
+                public void onItemInserted(int position) {
+                    prefetchText(position, 1);
+                    adapter.notifyItemInserted(position);
+                    updateEmptyState();
+                    markNewestSeen();
+                }
+
+                @Override
+                public void onItemRangeInserted(int positionStart, int itemCount) {
+                    prefetchText(positionStart, itemCount);
+                    adapter.notifyItemRangeInserted(positionStart, itemCount);
+                    updateEmptyState();
+                    markNewestSeen();
+                }
+
+                @Override
+                public void onItemChanged(int position) {
+                    adapter.notifyItemChanged(position);
+                }
+
+                @Override
+                public void onItemRemoved(int position) {
+                    adapter.notifyItemRemoved(position);
+                    updateEmptyState();
+                }
+
+                @Override
+                public void onItemMoved(int fromPosition, int toPosition) {
+                    adapter.notifyItemMoved(fromPosition, toPosition);
+                }
+
+                @Override
+                public void onFeedError(@NonNull DatabaseError databaseError) {
+                    handleFirebaseError("שגיאה בטעינת הודעות בניין: " + databaseError.getMessage()); // Error loading building notifications:
+                }
+            });
+            buildingNotificationsFeed.start(new PagedChildEventFeed.PageListener() {
+                @Override
+                public void onPageLoaded(int itemCount, boolean hasMore) {
                     buildingNotificationsProgressBar.setVisibility(View.GONE);
-                    emptyBuildingNotificationsTextView.setVisibility(buildingNotificationsList.isEmpty() ? View.VISIBLE : View.GONE);
+                    updateEmptyState();
                 }
 
                 @Override
-                public void onCancelled(@NonNull DatabaseError databaseError) {
+                public void onPageError(@NonNull DatabaseError databaseError) {
                     handleFirebaseError("שגיאה בטעינת הודעות בניין: " + databaseError.getMessage()); // Error loading building notifications:
                 }
             });
@@ -136,6 +200,97 @@ public class ViewBuildingNotificationsActivity extends AppCompatActivity {
         }
     }
 
+    /**
+     * Starts measuring the bodies of newly arrived notifications in the background, so they are
+     * ready by the time their rows are bound.
+     *
+     * @param positionStart The position of the first new notification.
+     * @param itemCount The number of new notifications.
+     */
+    private void prefetchText(int positionStart, int itemCount) {
+        for (int i = positionStart; i < positionStart + itemCount; i++) {
+            PrecomputedTextCache.prefetch(buildingNotificationsFeed.getKey(i), buildingNotificationsFeed.get(i).getContent());
+        }
+    }
+
+    /**
+     * Advances the {@link NotificationHighWaterMark} to the newest notification on the board, so
+     * the background delta check does not announce what the user has already seen.
+     */
+    private void markNewestSeen() {
+        int newest = buildingNotificationsFeed.size() - 1;
+        NotificationHighWaterMark.advance(this, currentBuildingCode,
+                buildingNotificationsFeed.get(newest).getTimestamp(), buildingNotificationsFeed.getKey(newest));
+    }
+
+    /**
+     * Loads the page of notifications that precedes the oldest one on screen, if there is one.
+     * Once the live list is exhausted, continues with the archived months, one month per call.
+     */
+    private void loadOlderNotifications() {
+        if (buildingNotificationsFeed == null || buildingNotificationsFeed.isLoadingOlder() || archivePager.isLoading()) {
+            return;
+        }
+        PagedChildEventFeed.PageListener listener = new PagedChildEventFeed.PageListener() {
+            @Override
+            public void onPageLoaded(int itemCount, boolean hasMore) {
+                // Items were already inserted through the feed callback
+            }
+
+            @Override
+            public void onPageError(@NonNull DatabaseError databaseError) {
+                handleFirebaseError("שגיאה בטעינת הודעות קודמות: " + databaseError.getMessage()); // Error loading older notifications:
+            }
+        };
+        if (buildingNotificationsFeed.hasMore()) {
+            buildingNotificationsFeed.loadOlder(listener);
+        } else {
+            archivePager.loadPrevious(listener);
+        }
+    }
+
+    /**
+     * Shows the empty message when the feed holds no notifications and hides it otherwise.
+     */
+    private void updateEmptyState() {
+        emptyBuildingNotificationsTextView.setVisibility(buildingNotificationsFeed.isEmpty() ? View.VISIBLE : View.GONE);
+        if (!firstItemReported && !buildingNotificationsFeed.isEmpty()) {
+            firstItemReported = true;
+            buildingNotificationsProgressBar.setVisibility(View.GONE); // Cached items are shown while the server reconciles
+            StartupMetrics.firstItemRendered(this, screenStartMillis);
+        }
+    }
+
+    /**
+     * Removes the grouped building notifications from the status bar and marks the building's
+     * notifications read in the {@link UnreadCounter}: the user is looking at the board now.
+     */
+    @Override
+    protected void onResume() {
+        super.onResume();
+        NotificationPresenter.clear(this);
+        UnreadCounter.getInstance().setBoardVisible(true);
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        UnreadCounter.getInstance().setBoardVisible(false);
+    }
+
+    /**
+     * Detaches the live page from Firebase when the activity is destroyed.
+     */
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        PublisherDirectory.getInstance().removeListener(directoryListener);
+        if (buildingNotificationsFeed != null) {
+            buildingNotificationsFeed.stop();
+            buildingNotificationsFeed.setCallback(null);
+        }
+    }
+
     /**
      * Handles the scenario where the user is not logged in.
      * Hides the progress bar, displays an empty message, and shows a toast.
@@ -184,15 +339,49 @@ public class ViewBuildingNotificationsActivity extends AppCompatActivity {
      * RecyclerView Adapter for displaying building notifications.
      */
     private static class BuildingNotificationAdapter extends RecyclerView.Adapter<BuildingNotificationViewHolder> {
-        private List<BuildingNotification> notifications;
+        private final ChildEventFeed<BuildingNotification> notifications;
+        private Set<String> pendingKeys = Collections.emptySet();
 
         /**
          * Constructs a new {@code BuildingNotificationAdapter}.
          *
-         * @param notifications The list of {@link BuildingNotification} objects to display.
+         * @param notifications The feed of {@link BuildingNotification} objects to display.
          */
-        public BuildingNotificationAdapter(List<BuildingNotification> notifications) {
+        public BuildingNotificationAdapter(ChildEventFeed<BuildingNotification> notifications) {
             this.notifications = notifications;
+            setHasStableIds(true);
+        }
+
+        /**
+         * Updates the keys of the notifications still waiting in the {@link Outbox} and rebinds
+         * only the items whose pending state changed.
+         *
+         * @param keys The keys of the pending notifications.
+         */
+        void setPendingKeys(@NonNull Set<String> keys) {
+            Set<String> previous = pendingKeys;
+            pendingKeys = keys;
+            Set<String> changed = new HashSet<>(previous);
+            changed.addAll(keys);
+            for (String key : changed) {
+                if (previous.contains(key) != keys.contains(key)) {
+                    int position = notifications.indexOfKey(key);
+                    if (position >= 0) {
+                        notifyItemChanged(position);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns the stable ID of the item, derived from its Firebase push key.
+         *
+         * @param position The position of the item within the adapter's data set.
+         * @return The stable ID of the item.
+         */
+        @Override
+        public long getItemId(int position) {
+            return StableIds.of(notifications.getKey(position));
         }
 
         /**
@@ -223,8 +412,12 @@ public class ViewBuildingNotificationsActivity extends AppCompatActivity {
         @Override
         public void onBindViewHolder(@NonNull BuildingNotificationViewHolder holder, int position) {
             BuildingNotification notification = notifications.get(position);
-            holder.notificationContentTextView.setText(notification.getContent());
+            // Long RTL bodies are measured off the main thread and cached per notification key
+            PrecomputedTextCache.bind(holder.notificationContentTextView, notifications.getKey(position), notification.getContent());
             String dateTime = notification.getDate() + " " + notification.getTime();
+            if (pendingKeys.contains(notifications.getKey(position))) {
+                dateTime += " · ממתין לשליחה"; // Waiting to be sent
+            }
             holder.notificationDateTimeTextView.setText(dateTime);
             holder.notificationPublisherTextView.setText(notification.getFullName());
         }
@@ -311,11 +504,12 @@ public class ViewBuildingNotificationsActivity extends AppCompatActivity {
         }
 
         /**
-         * Gets the full name of the publisher.
+         * Gets the full name of the publisher. v2 records omit it when it matches the publisher's
+         * profile, in which case it comes from the {@link PublisherDirectory}.
          * @return The publisher's full name.
          */
         public String getFullName() {
-            return fullName;
+            return PublisherDirectory.getInstance().fullName(publisherId, fullName);
         }
 
         /**
@@ -327,18 +521,24 @@ public class ViewBuildingNotificationsActivity extends AppCompatActivity {
         }
 
         /**
-         * Gets the date the notification was published.
+         * Gets the date the notification was published, derived from the timestamp for v2 records.
          * @return The publication date string.
          */
         public String getDate() {
+            if (date == null) {
+                date = SnapshotMappers.displayDate(timestamp);
+            }
             return date;
         }
 
         /**
-         * Gets the time the notification was published.
+         * Gets the time the notification was published, derived from the timestamp for v2 records.
          * @return The publication time string.
          */
         public String getTime() {
+            if (time == null) {
+                time = SnapshotMappers.displayTime(timestamp);
+            }
             return time;
         }
 
@@ -15,22 +15,19 @@ import android.widget.Toast;
 
 import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
 import com.google.firebase.database.Query;
 import com.google.firebase.database.ValueEventListener;
 
-import java.util.ArrayList;
-import java.util.List;
 
 public class ViewOpenHelpRequestsActivity extends AppCompatActivity {
 
     private RecyclerView allOpenHelpRequestsRecyclerView;
     private TextView emptyAllOpenHelpRequestsTextView;
     private ProgressBar allOpenHelpRequestsProgressBar;
-    private DatabaseReference helpRequestsRootRef;
+    private Query openHelpRequestsQuery;
     private AllOpenHelpRequestAdapter adapter;
-    private List<HelpRequest> allOpenHelpRequestsList;
+    private ChildEventFeed<HelpRequest> allOpenHelpRequestsFeed;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -42,55 +39,99 @@ public class ViewOpenHelpRequestsActivity extends AppCompatActivity {
         allOpenHelpRequestsProgressBar = findViewById(R.id.allOpenHelpRequestsProgressBar);
         allOpenHelpRequestsRecyclerView.setLayoutManager(new LinearLayoutManager(this));
 
-        allOpenHelpRequestsList = new ArrayList<>();
-        adapter = new AllOpenHelpRequestAdapter(allOpenHelpRequestsList);
+        allOpenHelpRequestsFeed = new ChildEventFeed<>(SnapshotMappers::toHelpRequest);
+        adapter = new AllOpenHelpRequestAdapter(allOpenHelpRequestsFeed);
         allOpenHelpRequestsRecyclerView.setAdapter(adapter);
 
         allOpenHelpRequestsProgressBar.setVisibility(View.VISIBLE);
 
-        // נקרא מבסיס הצומת 'help_requests' כדי לקבל את כל הבניינים
-        helpRequestsRootRef = FirebaseDatabase.getInstance().getReference("help_requests");
+        // נקרא רק מהאינדקס של הבקשות הפתוחות, ממוין לפי זמן
+        openHelpRequestsQuery = FirebaseDatabase.getInstance().getReference(OpenHelpRequestsIndex.INDEX_PATH).orderByChild("timestamp");
         fetchAllOpenHelpRequests();
     }
 
     private void fetchAllOpenHelpRequests() {
-        Query query = helpRequestsRootRef; // קוראים את כל הצמתים תחת 'help_requests'
-        query.addValueEventListener(new ValueEventListener() {
+        allOpenHelpRequestsFeed.setCallback(new ChildEventFeed.Callback() {
+            @Override
+            public void onItemInserted(int position) {
+                adapter.notifyItemInserted(position);
+                updateEmptyState();
+            }
+
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                adapter.notifyItemRangeInserted(positionStart, itemCount);
+                updateEmptyState();
+            }
+
+            @Override
+            public void onItemChanged(int position) {
+                adapter.notifyItemChanged(position);
+            }
+
+            @Override
+            public void onItemRemoved(int position) {
+                adapter.notifyItemRemoved(position);
+                updateEmptyState();
+            }
+
+            @Override
+            public void onItemMoved(int fromPosition, int toPosition) {
+                adapter.notifyItemMoved(fromPosition, toPosition);
+            }
+
+            @Override
+            public void onFeedError(@NonNull DatabaseError databaseError) {
+                showLoadError(databaseError);
+            }
+        });
+        openHelpRequestsQuery.addChildEventListener(allOpenHelpRequestsFeed);
+
+        // אירוע ערך יחיד על אותה שאילתה מגיע אחרי הטעינה הראשונית, מתוך הנתונים שכבר סונכרנו
+        openHelpRequestsQuery.addListenerForSingleValueEvent(new ValueEventListener() {
             @Override
             public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                allOpenHelpRequestsList.clear();
-                for (DataSnapshot buildingSnapshot : dataSnapshot.getChildren()) {
-                    // עבור כל קוד בניין, קרא את הבקשות הפתוחות
-                    DatabaseReference buildingRequestsRef = helpRequestsRootRef.child(buildingSnapshot.getKey());
-                    Query openRequestsQuery = buildingRequestsRef.orderByChild("isOpen").equalTo(true).orderByChild("timestamp");
-                    for (DataSnapshot requestSnapshot : openRequestsQuery.get().getResult().getChildren()) {
-                        HelpRequest request = requestSnapshot.getValue(HelpRequest.class);
-                        if (request != null) {
-                            allOpenHelpRequestsList.add(request);
-                        }
-                    }
-                }
-                adapter.notifyDataSetChanged();
                 allOpenHelpRequestsProgressBar.setVisibility(View.GONE);
-                emptyAllOpenHelpRequestsTextView.setVisibility(allOpenHelpRequestsList.isEmpty() ? View.VISIBLE : View.GONE);
+                updateEmptyState();
             }
 
             @Override
             public void onCancelled(@NonNull DatabaseError databaseError) {
-                Toast.makeText(ViewOpenHelpRequestsActivity.this, "שגיאה בטעינת בקשות עזרה: " + databaseError.getMessage(), Toast.LENGTH_SHORT).show();
-                allOpenHelpRequestsProgressBar.setVisibility(View.GONE);
-                emptyAllOpenHelpRequestsTextView.setVisibility(View.VISIBLE);
-                emptyAllOpenHelpRequestsTextView.setText("שגיאה בטעינת בקשות עזרה.");
+                showLoadError(databaseError);
             }
         });
     }
 
+    private void updateEmptyState() {
+        emptyAllOpenHelpRequestsTextView.setVisibility(allOpenHelpRequestsFeed.isEmpty() ? View.VISIBLE : View.GONE);
+    }
+
+    private void showLoadError(DatabaseError databaseError) {
+        Toast.makeText(ViewOpenHelpRequestsActivity.this, "שגיאה בטעינת בקשות עזרה: " + databaseError.getMessage(), Toast.LENGTH_SHORT).show();
+        allOpenHelpRequestsProgressBar.setVisibility(View.GONE);
+        emptyAllOpenHelpRequestsTextView.setVisibility(View.VISIBLE);
+        emptyAllOpenHelpRequestsTextView.setText("שגיאה בטעינת בקשות עזרה.");
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        openHelpRequestsQuery.removeEventListener(allOpenHelpRequestsFeed);
+        allOpenHelpRequestsFeed.setCallback(null);
+    }
+
     // Adapter עבור RecyclerView - ללא כפתור סגירה
     private static class AllOpenHelpRequestAdapter extends RecyclerView.Adapter<AllOpenHelpRequestViewHolder> {
-        private List<HelpRequest> requests;
+        private final ChildEventFeed<HelpRequest> requests;
 
-        public AllOpenHelpRequestAdapter(List<HelpRequest> requests) {
+        public AllOpenHelpRequestAdapter(ChildEventFeed<HelpRequest> requests) {
             this.requests = requests;
+            setHasStableIds(true);
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return StableIds.of(requests.getKey(position));
         }
 
         @NonNull
@@ -103,7 +144,7 @@ public class ViewOpenHelpRequestsActivity extends AppCompatActivity {
         @Override
         public void onBindViewHolder(@NonNull AllOpenHelpRequestViewHolder holder, int position) {
             HelpRequest request = requests.get(position);
-            holder.helpRequestContentTextView.setText(request.getContent());
+            PrecomputedTextCache.bind(holder.helpRequestContentTextView, requests.getKey(position), request.getContent());
             String dateTime = request.getDate() + " " + request.getTime();
             holder.helpRequestDateTimeTextView.setText(dateTime);
             holder.helpRequestPublisherTextView.setText(request.getFullName());
@@ -163,11 +204,18 @@ public class ViewOpenHelpRequestsActivity extends AppCompatActivity {
             return content;
         }
 
+        // רשומות v2 אינן שומרות תאריך ושעה; הם נגזרים מחותמת הזמן בהצגה הראשונה
         public String getDate() {
+            if (date == null) {
+                date = SnapshotMappers.displayDate(timestamp);
+            }
             return date;
         }
 
         public String getTime() {
+            if (time == null) {
+                time = SnapshotMappers.displayTime(timestamp);
+            }
             return time;
         }
 
@@ -2,7 +2,9 @@ package com.example.project;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import android.os.Bundle;
@@ -13,32 +15,33 @@ import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
 
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.database.DataSnapshot;
 import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.Query;
-import com.google.firebase.database.ValueEventListener;
+import com.google.firebase.database.Exclude;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * An activity for managers to view submitted help requests from residents.
- * It retrieves requests from Firebase Realtime Database based on the manager's
- * building code and displays them in a RecyclerView.
+ * It observes the requests of the manager's building in the local {@link BuildingDatabase},
+ * which {@link BuildingDataSync} mirrors from Firebase, and displays them in a RecyclerView.
+ * Open requests can be closed from here, which also removes them from the
+ * {@link OpenHelpRequestsIndex}.
  */
 public class ViewSubmittedRequestsActivity extends AppCompatActivity {
 
     private RecyclerView submittedRequestsRecyclerView;
     private TextView emptyRequestsTextView;
     private ProgressBar progressBar;
-    private DatabaseReference requestsRef;
     private String currentBuildingCode;
     private SubmittedRequestAdapter adapter;
-    private List<SubmittedRequest> submittedRequestsList;
+    private long screenStartMillis;
+    private boolean firstItemReported;
+
+    // Requester details of v2 requests come from the directory; rebind once it (re)loads
+    private final PublisherDirectory.Listener directoryListener =
+            () -> adapter.notifyItemRangeChanged(0, adapter.getItemCount());
 
     /**
      * Called when the activity is first created.
@@ -52,6 +55,7 @@ public class ViewSubmittedRequestsActivity extends AppCompatActivity {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        screenStartMillis = StartupMetrics.now();
         setContentView(R.layout.activity_view_submitted_requests);
 
         submittedRequestsRecyclerView = findViewById(R.id.submittedRequestsRecyclerView);
@@ -59,33 +63,35 @@ public class ViewSubmittedRequestsActivity extends AppCompatActivity {
         progressBar = findViewById(R.id.progressBar);
         submittedRequestsRecyclerView.setLayoutManager(new LinearLayoutManager(this));
 
-        submittedRequestsList = new ArrayList<>();
-        // Initialize the adapter with just the list (no close callback needed)
-        adapter = new SubmittedRequestAdapter(submittedRequestsList);
+        adapter = new SubmittedRequestAdapter();
+        adapter.setOnCloseRequestListener(this::closeRequest);
         submittedRequestsRecyclerView.setAdapter(adapter);
 
         progressBar.setVisibility(View.VISIBLE);
 
+        PublisherDirectory.getInstance().addListener(directoryListener);
         getCurrentBuildingCode();
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        PublisherDirectory.getInstance().removeListener(directoryListener);
+    }
+
     /**
-     * Retrieves the building code associated with the currently logged-in manager from Firebase.
-     * This code is crucial for fetching help requests specific to their building.
+     * Retrieves the building code associated with the currently logged-in manager from the
+     * {@link UserSession}. This code is crucial for fetching help requests specific to their building.
      */
     private void getCurrentBuildingCode() {
-        FirebaseUser currentUser = FirebaseAuth.getInstance().getCurrentUser();
-        if (currentUser != null) {
-            String currentUserId = currentUser.getUid();
-            DatabaseReference usersRef = FirebaseDatabase.getInstance().getReference("users").child(currentUserId);
-            usersRef.addListenerForSingleValueEvent(new ValueEventListener() {
+        UserSession session = UserSession.getInstance();
+        if (session.startForCurrentUser()) {
+            session.whenReady(new UserSession.Callback() {
                 @Override
-                public void onDataChange(@NonNull DataSnapshot snapshot) {
-                    if (snapshot.exists()) {
-                        currentBuildingCode = snapshot.child("buildingCode").getValue(String.class);
+                public void onSessionReady(@NonNull UserSession session) {
+                    if (session.hasProfile()) {
+                        currentBuildingCode = session.getBuildingCode();
                         if (currentBuildingCode != null) {
-                            // Set up the database reference for requests under this building code
-                            requestsRef = FirebaseDatabase.getInstance().getReference("help_requests").child(currentBuildingCode);
                             fetchSubmittedRequests();
                         } else {
                             handleBuildingCodeNotFound();
@@ -96,7 +102,7 @@ public class ViewSubmittedRequestsActivity extends AppCompatActivity {
                 }
 
                 @Override
-                public void onCancelled(@NonNull DatabaseError error) {
+                public void onSessionError(@NonNull DatabaseError error) {
                     handleFirebaseError("שגיאה בקבלת קוד בניין: " + error.getMessage()); // Error getting building code:
                 }
             });
@@ -106,38 +112,53 @@ public class ViewSubmittedRequestsActivity extends AppCompatActivity {
     }
 
     /**
-     * Fetches submitted help requests from the Firebase Realtime Database.
-     * It orders requests by timestamp and updates the RecyclerView.
+     * Observes the submitted help requests of the manager's building in the local
+     * {@link BuildingDatabase}, ordered by timestamp, and updates the RecyclerView.
+     * {@link BuildingDataSync} keeps the table in step with Firebase in the background, so
+     * re-entering the screen shows the last known requests immediately.
      * Displays a message if no requests are found.
      */
     private void fetchSubmittedRequests() {
-        if (requestsRef != null) {
-            Query query = requestsRef.orderByChild("timestamp"); // Display in publication order
-            query.addValueEventListener(new ValueEventListener() {
-                @Override
-                public void onDataChange(@NonNull DataSnapshot dataSnapshot) {
-                    submittedRequestsList.clear();
-                    for (DataSnapshot snapshot : dataSnapshot.getChildren()) {
-                        SubmittedRequest request = snapshot.getValue(SubmittedRequest.class);
-                        if (request != null) {
-                            submittedRequestsList.add(request);
+        if (currentBuildingCode != null) {
+            BuildingDatabase.getInstance(this).buildingDao()
+                    .observeHelpRequests(currentBuildingCode)
+                    .observe(this, entities -> {
+                        List<SubmittedRequest> requests = new ArrayList<>(entities.size());
+                        for (HelpRequestEntity entity : entities) {
+                            requests.add(entity.toSubmittedRequest());
                         }
-                    }
-                    adapter.notifyDataSetChanged();
-                    progressBar.setVisibility(View.GONE);
-                    emptyRequestsTextView.setVisibility(submittedRequestsList.isEmpty() ? View.VISIBLE : View.GONE);
-                }
-
-                @Override
-                public void onCancelled(@NonNull DatabaseError databaseError) {
-                    handleFirebaseError("שגיאה בטעינת פניות: " + databaseError.getMessage()); // Error loading requests:
-                }
-            });
+                        // The diff runs on a background thread; the UI is updated once it is applied
+                        adapter.submitList(requests, () -> {
+                            progressBar.setVisibility(View.GONE);
+                            emptyRequestsTextView.setVisibility(requests.isEmpty() ? View.VISIBLE : View.GONE);
+                            if (!firstItemReported && !requests.isEmpty()) {
+                                firstItemReported = true;
+                                StartupMetrics.firstItemRendered(ViewSubmittedRequestsActivity.this, screenStartMillis);
+                            }
+                        });
+                    });
         } else {
             handleFirebaseError("לא ניתן לגשת לפניות כרגע."); // Cannot access requests at the moment.
         }
     }
 
+    /**
+     * Closes an open request and removes its {@link OpenHelpRequestsIndex} entry in one atomic
+     * write. The local mirror picks the change up from Firebase, which hides the close button.
+     *
+     * @param request The request to close.
+     */
+    private void closeRequest(SubmittedRequest request) {
+        if (currentBuildingCode == null || request.getKey() == null) {
+            return;
+        }
+        OpenHelpRequestsIndex.closeRequest(currentBuildingCode, request.getKey(), request.getTimestamp())
+                .addOnSuccessListener(unused -> Toast.makeText(ViewSubmittedRequestsActivity.this,
+                        "הפנייה נסגרה.", Toast.LENGTH_SHORT).show()) // Request closed.
+                .addOnFailureListener(e -> Toast.makeText(ViewSubmittedRequestsActivity.this,
+                        "שגיאה בסגירת הפנייה: " + e.getMessage(), Toast.LENGTH_SHORT).show()); // Error closing the request:
+    }
+
     /**
      * Handles the scenario where the user is not logged in.
      * Hides the progress bar, displays an empty message, and shows a toast.
@@ -184,17 +205,55 @@ public class ViewSubmittedRequestsActivity extends AppCompatActivity {
 
     /**
      * RecyclerView Adapter for displaying submitted help requests.
+     * Lists are diffed on a background thread by {@link ListAdapter}, using the Firebase push key
+     * as item identity, so an update only rebinds the rows that actually changed.
      */
-    private static class SubmittedRequestAdapter extends RecyclerView.Adapter<SubmittedRequestViewHolder> {
-        private List<SubmittedRequest> requests;
+    static class SubmittedRequestAdapter extends ListAdapter<SubmittedRequest, SubmittedRequestViewHolder> {
+
+        /**
+         * Called when the close button of an open request is tapped.
+         */
+        interface OnCloseRequestListener {
+            void onCloseRequest(SubmittedRequest request);
+        }
+
+        private OnCloseRequestListener onCloseRequestListener;
+
+        /**
+         * Identifies requests by push key and compares the fields shown in a row.
+         */
+        static final DiffUtil.ItemCallback<SubmittedRequest> DIFF_CALLBACK = new DiffUtil.ItemCallback<SubmittedRequest>() {
+            @Override
+            public boolean areItemsTheSame(@NonNull SubmittedRequest oldItem, @NonNull SubmittedRequest newItem) {
+                return Objects.equals(oldItem.getKey(), newItem.getKey());
+            }
+
+            @Override
+            public boolean areContentsTheSame(@NonNull SubmittedRequest oldItem, @NonNull SubmittedRequest newItem) {
+                return Objects.equals(oldItem.getContent(), newItem.getContent())
+                        && Objects.equals(oldItem.getFullName(), newItem.getFullName())
+                        && Objects.equals(oldItem.getApartmentNumber(), newItem.getApartmentNumber())
+                        && Objects.equals(oldItem.getDate(), newItem.getDate())
+                        && Objects.equals(oldItem.getTime(), newItem.getTime())
+                        && oldItem.isOpen() == newItem.isOpen();
+            }
+        };
 
         /**
          * Constructs a new {@code SubmittedRequestAdapter}.
+         */
+        SubmittedRequestAdapter() {
+            super(DIFF_CALLBACK);
+            setHasStableIds(true);
+        }
+
+        /**
+         * Sets the listener of the close buttons. Without one, no close button is shown.
          *
-         * @param requests The list of {@link SubmittedRequest} objects to display.
+         * @param listener The listener, or {@code null}.
          */
-        public SubmittedRequestAdapter(List<SubmittedRequest> requests) {
-            this.requests = requests;
+        void setOnCloseRequestListener(OnCloseRequestListener listener) {
+            onCloseRequestListener = listener;
         }
 
         /**
@@ -224,25 +283,37 @@ public class ViewSubmittedRequestsActivity extends AppCompatActivity {
          */
         @Override
         public void onBindViewHolder(@NonNull SubmittedRequestViewHolder holder, int position) {
-            SubmittedRequest request = requests.get(position);
-            holder.requestContentTextView.setText(request.getContent());
+            SubmittedRequest request = getItem(position);
+            PrecomputedTextCache.bind(holder.requestContentTextView, request.getKey(), request.getContent());
             String dateTime = request.getDate() + " " + request.getTime();
             holder.requestDateTimeTextView.setText(dateTime);
             holder.requestPublisherTextView.setText(request.getFullName());
             holder.requestApartmentNumberTextView.setText("דירה: " + request.getApartmentNumber()); // Apartment:
 
-            // Hide the close button completely
-            holder.buttonCloseRequest.setVisibility(View.GONE);
+            // Only open requests can be closed
+            if (onCloseRequestListener != null && request.isOpen()) {
+                holder.buttonCloseRequest.setVisibility(View.VISIBLE);
+                holder.buttonCloseRequest.setOnClickListener(new View.OnClickListener() {
+                    @Override
+                    public void onClick(View v) {
+                        onCloseRequestListener.onCloseRequest(request);
+                    }
+                });
+            } else {
+                holder.buttonCloseRequest.setVisibility(View.GONE);
+                holder.buttonCloseRequest.setOnClickListener(null);
+            }
         }
 
         /**
-         * Returns the total number of items in the data set held by the adapter.
+         * Returns the stable ID of the item, derived from its Firebase push key.
          *
-         * @return The total number of items in this adapter.
+         * @param position The position of the item within the adapter's data set.
+         * @return The stable ID of the item.
          */
         @Override
-        public int getItemCount() {
-            return requests.size();
+        public long getItemId(int position) {
+            return StableIds.of(getItem(position).getKey());
         }
     }
 
@@ -256,7 +327,7 @@ public class ViewSubmittedRequestsActivity extends AppCompatActivity {
         TextView requestDateTimeTextView;
         TextView requestPublisherTextView;
         TextView requestApartmentNumberTextView;
-        TextView buttonCloseRequest; // Changed to TextView since it's now just hidden
+        TextView buttonCloseRequest; // Shown for open requests only
 
         /**
          * Constructs a new {@code SubmittedRequestViewHolder}.
@@ -287,6 +358,7 @@ public class ViewSubmittedRequestsActivity extends AppCompatActivity {
         private boolean isOpen;
         private String publisherId;
         private String buildingCode; // Added building code
+        private String key; // Firebase push key, not stored as a field
 
         /**
          * Default constructor required for Firebase.
@@ -329,35 +401,37 @@ public class ViewSubmittedRequestsActivity extends AppCompatActivity {
         }
 
         /**
-         * Gets the full name of the requester.
+         * Gets the full name of the requester. v2 records omit it when it matches the requester's
+         * profile, in which case it comes from the {@link PublisherDirectory}.
          * @return The requester's full name.
          */
         public String getFullName() {
-            return fullName;
+            return PublisherDirectory.getInstance().fullName(publisherId, fullName);
         }
 
         /**
-         * Gets the apartment number of the requester.
+         * Gets the apartment number of the requester, from the {@link PublisherDirectory} for v2
+         * records that omit it.
          * @return The requester's apartment number.
          */
         public String getApartmentNumber() {
-            return apartmentNumber;
+            return PublisherDirectory.getInstance().apartmentNumber(publisherId, apartmentNumber);
         }
 
         /**
-         * Gets the date the request was submitted.
+         * Gets the date the request was submitted, derived from the timestamp for v2 records.
          * @return The submission date string.
          */
         public String getDate() {
-            return date;
+            return date != null ? date : SnapshotMappers.displayDate(timestamp);
         }
 
         /**
-         * Gets the time the request was submitted.
+         * Gets the time the request was submitted, derived from the timestamp for v2 records.
          * @return The submission time string.
          */
         public String getTime() {
-            return time;
+            return time != null ? time : SnapshotMappers.displayTime(timestamp);
         }
 
         /**
@@ -391,5 +465,23 @@ public class ViewSubmittedRequestsActivity extends AppCompatActivity {
         public String getBuildingCode() {
             return buildingCode;
         }
+
+        /**
+         * Gets the Firebase push key of this request, used as its list identity.
+         * @return The push key.
+         */
+        @Exclude
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * Sets the Firebase push key of this request.
+         * @param key The push key.
+         */
+        @Exclude
+        public void setKey(String key) {
+            this.key = key;
+        }
     }
 }
\ No newline at end of file
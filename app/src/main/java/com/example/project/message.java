@@ -1,47 +1,73 @@
 package com.example.project;
 
+/**
+ * A message of the building chat, stored under {@code chats/{buildingCode}/{pushKey}}.
+ *
+ * The time of a message is its server {@link #getTimestamp() timestamp}, which the chat is
+ * ordered and paged by; the displayed time is derived from it.
+ */
 public class message {
     private String text;
     private String name;
-    private int minute;
-    private int hour;
+    private String senderId;
+    private long timestamp;
 
-    public message (String text, String name, int minute, int hour){
-        this.text=text;
-        this.name=name;
-        this.minute=minute;
-        this.hour=hour;
+    /**
+     * Default constructor required for Firebase.
+     */
+    public message() {
+        // Required for Firebase
+    }
+
+    /**
+     * @param text The text of the message.
+     * @param name The sender's full name.
+     * @param senderId The sender's UID.
+     * @param timestamp The server time the message was sent at.
+     */
+    public message(String text, String name, String senderId, long timestamp) {
+        this.text = text;
+        this.name = name;
+        this.senderId = senderId;
+        this.timestamp = timestamp;
     }
 
     public String getText() {
         return text;
     }
 
-    public int getHour() {
-        return hour;
+    public String getName() {
+        return name;
     }
 
-    public int getMinute() {
-        return minute;
+    public String getSenderId() {
+        return senderId;
     }
 
-    public String getName() {
-        return name;
+    public long getTimestamp() {
+        return timestamp;
     }
 
-    public void setHour(int hour) {
-        this.hour = hour;
+    /**
+     * @return The time the message was sent at, as {@code HH:mm}.
+     */
+    public String getTime() {
+        return SnapshotMappers.displayTime(timestamp);
     }
 
-    public void setMinute(int minute) {
-        this.minute = minute;
+    public void setText(String text) {
+        this.text = text;
     }
 
     public void setName(String name) {
         this.name = name;
     }
 
-    public void setText(String text) {
-        this.text = text;
+    public void setSenderId(String senderId) {
+        this.senderId = senderId;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
     }
 }
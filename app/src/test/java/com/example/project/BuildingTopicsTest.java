@@ -0,0 +1,23 @@
+package com.example.project;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link BuildingTopics}. The vectors match {@code functions/test}, so the
+ * app subscribes to exactly the topic the Cloud Function sends to.
+ */
+public class BuildingTopicsTest {
+
+    @Test
+    public void topicFor_keepsUnreservedCharacters() {
+        assertEquals("building_BENCH01", BuildingTopics.topicFor("BENCH01"));
+        assertEquals("building_a-b_c.d~e", BuildingTopics.topicFor("a-b_c.d~e"));
+    }
+
+    @Test
+    public void topicFor_percentEncodesUtf8Bytes() {
+        assertEquals("building_%D7%91%D7%A0%D7%99%D7%99%D7%9F%207", BuildingTopics.topicFor("בניין 7"));
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.project;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Local unit tests for {@link ChildEventFeed}.
+ */
+public class ChildEventFeedTest {
+
+    /** Key list that counts the keys the feed reads back, i.e. compares during lookups. */
+    private static class CountingKeyList extends ArrayList<String> {
+        int reads;
+
+        @Override
+        public String get(int index) {
+            reads++;
+            return super.get(index);
+        }
+    }
+
+    private int parseCount;
+    private List<String> events;
+    private CountingKeyList keys;
+    private ChildEventFeed<String> feed;
+
+    @Before
+    public void setUp() {
+        parseCount = 0;
+        events = new ArrayList<>();
+        keys = new CountingKeyList();
+        feed = new ChildEventFeed<>(snapshot -> {
+            parseCount++;
+            return snapshot.getKey();
+        }, keys);
+        feed.setCallback(new ChildEventFeed.Callback() {
+            @Override
+            public void onItemInserted(int position) {
+                events.add("insert " + position);
+            }
+
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                events.add("insertRange " + positionStart + " " + itemCount);
+            }
+
+            @Override
+            public void onItemChanged(int position) {
+                events.add("change " + position);
+            }
+
+            @Override
+            public void onItemRemoved(int position) {
+                events.add("remove " + position);
+            }
+
+            @Override
+            public void onItemMoved(int fromPosition, int toPosition) {
+                events.add("move " + fromPosition + " " + toPosition);
+            }
+
+            @Override
+            public void onFeedError(@NonNull DatabaseError error) {
+                events.add("error");
+            }
+        });
+    }
+
+    private static DataSnapshot child(String key) {
+        DataSnapshot snapshot = mock(DataSnapshot.class);
+        when(snapshot.getKey()).thenReturn(key);
+        return snapshot;
+    }
+
+    @Test
+    public void appendToLargeFeed_deserializesExactlyOneObject() {
+        String previous = null;
+        for (int i = 0; i < 5000; i++) {
+            String key = "n" + i;
+            feed.onChildAdded(child(key), previous);
+            previous = key;
+        }
+        parseCount = 0;
+        keys.reads = 0;
+        events.clear();
+
+        feed.onChildAdded(child("n5000"), previous);
+
+        assertEquals(1, parseCount);
+        assertEquals(1, keys.reads); // Only the previous sibling at the tail
+        assertEquals(5001, feed.size());
+        assertEquals("n5000", feed.get(5000));
+        assertEquals(1, events.size());
+        assertEquals("insert 5000", events.get(0));
+    }
+
+    @Test
+    public void loadingInOrder_comparesOneKeyPerChild() {
+        String previous = null;
+        for (int i = 0; i < 5000; i++) {
+            String key = "n" + i;
+            feed.onChildAdded(child(key), previous);
+            previous = key;
+        }
+
+        // Linear overall: no scan for the new key, one comparison for its previous sibling
+        assertEquals(4999, keys.reads);
+        assertEquals(5000, feed.size());
+    }
+
+    @Test
+    public void childEvents_areAppliedPositionally() {
+        feed.onChildAdded(child("a"), null);
+        feed.onChildAdded(child("b"), "a");
+        feed.onChildAdded(child("c"), "b");
+        events.clear();
+
+        feed.onChildChanged(child("b"), "a");
+        feed.onChildMoved(child("a"), "c");
+        feed.onChildRemoved(child("c"));
+
+        assertEquals(2, feed.size());
+        assertEquals("b", feed.get(0));
+        assertEquals("a", feed.get(1));
+        assertEquals("change 1", events.get(0));
+        assertEquals("move 0 2", events.get(1));
+        assertEquals("remove 1", events.get(2));
+    }
+}
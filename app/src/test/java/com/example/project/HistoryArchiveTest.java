@@ -0,0 +1,94 @@
+package com.example.project;
+
+import com.google.firebase.database.DataSnapshot;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Local unit tests for the month buckets and move paths of {@link HistoryArchive}, and for the
+ * help request retention predicate of {@link HistoryArchiveWorker}.
+ */
+public class HistoryArchiveTest {
+
+    /** 2026-10-31T23:30:00Z */
+    private static final long END_OF_OCTOBER = 1793489400000L;
+
+    @Test
+    public void monthOf_usesUtc() {
+        assertEquals("2026-10", HistoryArchive.monthOf(END_OF_OCTOBER));
+        assertEquals("2026-11", HistoryArchive.monthOf(END_OF_OCTOBER + TimeUnit.HOURS.toMillis(1)));
+    }
+
+    @Test
+    public void cutoff_subtractsTheRetentionAge() {
+        assertEquals(END_OF_OCTOBER - TimeUnit.DAYS.toMillis(180), HistoryArchive.cutoff(END_OF_OCTOBER, 180));
+    }
+
+    @Test
+    public void putMove_writesBucketAndMonthAndDeletesLiveCopy() {
+        Map<String, Object> record = new HashMap<>();
+        record.put(SnapshotMappers.CONTENT, "תוכן");
+        Map<String, Object> updates = new HashMap<>();
+
+        HistoryArchive.putMove(updates, HistoryArchive.TYPE_NOTIFICATIONS, "b1", "-N1", record, END_OF_OCTOBER);
+
+        assertEquals(3, updates.size());
+        assertSame(record, updates.get("archive/building_notifications/b1/2026-10/-N1"));
+        assertEquals(true, updates.get("archive_months/building_notifications/b1/2026-10"));
+        assertTrue(updates.containsKey("building_notifications/b1/-N1"));
+        assertNull(updates.get("building_notifications/b1/-N1"));
+    }
+
+    @Test
+    public void archiveRecords_movesClosedHelpRequest() {
+        Map<String, Object> request = new HashMap<>();
+        request.put(SnapshotMappers.IS_OPEN, false);
+        request.put(SnapshotMappers.TIMESTAMP, END_OF_OCTOBER);
+        request.put(HelpRequestStatusKey.FIELD, HelpRequestStatusKey.of(false, END_OF_OCTOBER));
+        DataSnapshot timestamp = mock(DataSnapshot.class);
+        when(timestamp.getValue(Long.class)).thenReturn(END_OF_OCTOBER);
+        DataSnapshot snapshot = mock(DataSnapshot.class);
+        when(snapshot.getKey()).thenReturn("-N1");
+        when(snapshot.getValue()).thenReturn(request);
+        when(snapshot.child(SnapshotMappers.TIMESTAMP)).thenReturn(timestamp);
+
+        Map<String, Object> updates = FanOutWrite.archiveRecords(HistoryArchive.TYPE_HELP_REQUESTS, "b1",
+                Collections.singletonList(snapshot)).getUpdates();
+
+        assertSame(request, updates.get("archive/help_requests/b1/2026-10/-N1"));
+        assertEquals(true, updates.get("archive_months/help_requests/b1/2026-10"));
+        assertTrue(updates.containsKey("help_requests/b1/-N1"));
+        assertNull(updates.get("help_requests/b1/-N1"));
+    }
+
+    @Test
+    public void deleteClosedUpTo_evictsTheRangeTheServerQueryMoves() {
+        BuildingDao dao = mock(BuildingDao.class);
+
+        HelpRequestStatusKey.deleteClosedUpTo(dao, "b1", END_OF_OCTOBER);
+
+        String from = HelpRequestStatusKey.of(false, 0);
+        String to = HelpRequestStatusKey.of(false, END_OF_OCTOBER);
+        verify(dao).deleteHelpRequestsByStatusTime("b1", from, to);
+        // Closed up to the cutoff is inside the range; later or open requests are not
+        assertTrue(between(HelpRequestStatusKey.of(false, END_OF_OCTOBER), from, to));
+        assertTrue(between(HelpRequestStatusKey.of(false, 1), from, to));
+        assertFalse(between(HelpRequestStatusKey.of(false, END_OF_OCTOBER + 1), from, to));
+        assertFalse(between(HelpRequestStatusKey.of(true, 1), from, to));
+    }
+
+    /** String comparison as SQLite's {@code BETWEEN} and the server's {@code startAt/endAt} do it. */
+    private static boolean between(String value, String from, String to) {
+        return value.compareTo(from) >= 0 && value.compareTo(to) <= 0;
+    }
+}
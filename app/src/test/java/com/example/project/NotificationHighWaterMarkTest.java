@@ -0,0 +1,32 @@
+package com.example.project;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the cursor order of {@link NotificationHighWaterMark}.
+ */
+public class NotificationHighWaterMarkTest {
+
+    @Test
+    public void isAfter_ordersByTimestampFirst() {
+        assertTrue(NotificationHighWaterMark.isAfter(2000, "-A", 1000, "-Z"));
+        assertFalse(NotificationHighWaterMark.isAfter(1000, "-Z", 2000, "-A"));
+    }
+
+    @Test
+    public void isAfter_breaksTiesByKey() {
+        assertTrue(NotificationHighWaterMark.isAfter(1000, "-B", 1000, "-A"));
+        assertFalse(NotificationHighWaterMark.isAfter(1000, "-A", 1000, "-B"));
+        assertFalse(NotificationHighWaterMark.isAfter(1000, "-A", 1000, "-A"));
+    }
+
+    @Test
+    public void isAfter_timeOnlyMarkCoversItsWholeMillisecond() {
+        // A mark without a key (set on the first run) is after every key of its timestamp
+        assertFalse(NotificationHighWaterMark.isAfter(1000, "-Z", 1000, null));
+        assertTrue(NotificationHighWaterMark.isAfter(1000, null, 1000, "-Z"));
+        assertFalse(NotificationHighWaterMark.isAfter(1000, null, 1000, null));
+    }
+}
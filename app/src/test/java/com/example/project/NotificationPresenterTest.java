@@ -0,0 +1,46 @@
+package com.example.project;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the summary of {@link NotificationPresenter}.
+ */
+public class NotificationPresenterTest {
+
+    private static List<NotificationPresenter.Item> batch(int size) {
+        List<NotificationPresenter.Item> items = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            items.add(new NotificationPresenter.Item("-N" + i, "ועד", "הודעה " + i));
+        }
+        return items;
+    }
+
+    @Test
+    public void summaryLines_putNewestBatchItemsFirst() {
+        List<String> lines = NotificationPresenter.summaryLines(batch(2), Arrays.asList("ועד: ישנה"));
+
+        assertEquals(Arrays.asList("ועד: הודעה 2", "ועד: הודעה 1", "ועד: ישנה"), lines);
+    }
+
+    @Test
+    public void summaryLines_areCapped() {
+        List<String> lines = NotificationPresenter.summaryLines(batch(20), Arrays.asList("ועד: ישנה"));
+
+        assertEquals(NotificationPresenter.MAX_LINES, lines.size());
+        assertEquals("ועד: הודעה 20", lines.get(0));
+        assertFalse(lines.contains("ועד: ישנה"));
+    }
+
+    @Test
+    public void summaryLines_singleItem() {
+        assertEquals(Collections.singletonList("ועד: הודעה 1"),
+                NotificationPresenter.summaryLines(batch(1), Collections.<String>emptyList()));
+    }
+}
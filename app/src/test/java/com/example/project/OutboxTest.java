@@ -0,0 +1,75 @@
+package com.example.project;
+
+import com.google.firebase.database.DatabaseError;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the JSON form in which {@link Outbox} stores a multi-path update, and for
+ * how it tells refused writes from ones worth resending.
+ */
+public class OutboxTest {
+
+    @Test
+    public void json_roundTripsMultiPathUpdate() throws Exception {
+        Map<String, Object> request = new HashMap<>();
+        request.put(SnapshotMappers.CONTENT, "נזילה בחדר המדרגות");
+        request.put(SnapshotMappers.IS_OPEN, true);
+        request.put(SnapshotMappers.TIMESTAMP, Collections.singletonMap(".sv", "timestamp"));
+        request.put("statusTime", "1_1735725600000");
+
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("help_requests/B1/-Nabc", request);
+        updates.put("open_help_requests/-Nold", null);
+        updates.put("unread/B1/count", 3L);
+        updates.put("list", Arrays.asList("a", "b"));
+
+        Map<String, Object> restored = Outbox.fromJson(Outbox.toJson(updates).toString());
+
+        assertEquals(updates.keySet(), restored.keySet());
+        assertTrue(restored.containsKey("open_help_requests/-Nold"));
+        assertNull(restored.get("open_help_requests/-Nold"));
+        assertEquals(3L, ((Number) restored.get("unread/B1/count")).longValue());
+        assertEquals(Arrays.asList("a", "b"), restored.get("list"));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> restoredRequest = (Map<String, Object>) restored.get("help_requests/B1/-Nabc");
+        assertEquals("נזילה בחדר המדרגות", restoredRequest.get(SnapshotMappers.CONTENT));
+        assertEquals(true, restoredRequest.get(SnapshotMappers.IS_OPEN));
+        assertEquals(Collections.singletonMap(".sv", "timestamp"), restoredRequest.get(SnapshotMappers.TIMESTAMP));
+        assertEquals("1_1735725600000", restoredRequest.get("statusTime"));
+    }
+
+    @Test
+    public void json_keepsEmptyUpdate() throws Exception {
+        assertTrue(Outbox.fromJson(Outbox.toJson(new HashMap<>()).toString()).isEmpty());
+    }
+
+    @Test
+    public void isRejected_onlyForRefusedWrites() {
+        assertTrue(Outbox.isRejected(DatabaseError.fromCode(DatabaseError.PERMISSION_DENIED)));
+        assertFalse(Outbox.isRejected(DatabaseError.fromCode(DatabaseError.WRITE_CANCELED)));
+        assertFalse(Outbox.isRejected(DatabaseError.fromCode(DatabaseError.DISCONNECTED)));
+        assertFalse(Outbox.isRejected(DatabaseError.fromCode(DatabaseError.NETWORK_ERROR)));
+    }
+
+    @Test
+    public void primaryPath_pointsAtTheSubmittedRecord() {
+        OutboxEntity entry = new OutboxEntity();
+        entry.key = "-Nabc";
+        entry.buildingCode = "B1";
+
+        entry.kind = Outbox.KIND_NOTIFICATION;
+        assertEquals("building_notifications/B1/-Nabc", Outbox.primaryPath(entry));
+
+        entry.kind = Outbox.KIND_HELP_REQUEST;
+        assertEquals("help_requests/B1/-Nabc", Outbox.primaryPath(entry));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.project;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.Query;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Local unit tests for how {@link PagedChildEventFeed} tells window evictions from deletions.
+ */
+public class PagedChildEventFeedTest {
+
+    private static final int PAGE_SIZE = 3;
+
+    private PagedChildEventFeed<String> feed;
+
+    @Before
+    public void setUp() {
+        feed = new PagedChildEventFeed<>(mock(Query.class), PAGE_SIZE, DataSnapshot::getKey, item -> 0);
+        // A full live window: a, b, c
+        feed.onChildAdded(child("a"), null);
+        feed.onChildAdded(child("b"), "a");
+        feed.onChildAdded(child("c"), "b");
+        feed.onBatchEnd();
+    }
+
+    private static DataSnapshot child(String key) {
+        DataSnapshot snapshot = mock(DataSnapshot.class);
+        when(snapshot.getKey()).thenReturn(key);
+        return snapshot;
+    }
+
+    @Test
+    public void evictedByNewerChild_staysAsHistory() {
+        feed.onChildRemoved(child("a"));
+        feed.onChildAdded(child("d"), "c");
+        feed.onBatchEnd();
+
+        assertEquals(4, feed.size());
+        assertEquals("a", feed.get(0));
+        assertEquals("d", feed.get(3));
+        assertTrue(feed.hasMore());
+    }
+
+    @Test
+    public void deletedOldestChild_isRemoved() {
+        feed.onChildRemoved(child("a"));
+        feed.onBatchEnd();
+
+        assertEquals(2, feed.size());
+        assertEquals("b", feed.get(0));
+    }
+
+    @Test
+    public void deletedOldestChildRefilledFromOlder_isRemoved() {
+        // The window refills with an older child, which is not an eviction
+        feed.onChildRemoved(child("a"));
+        feed.onChildAdded(child("0"), null);
+        feed.onBatchEnd();
+
+        assertEquals(3, feed.size());
+        assertEquals("0", feed.get(0));
+        assertEquals("b", feed.get(1));
+        assertEquals("c", feed.get(2));
+    }
+
+    @Test
+    public void severalEvictionsInOneBatch_allStayAsHistory() {
+        feed.onChildRemoved(child("a"));
+        feed.onChildRemoved(child("b"));
+        feed.onChildAdded(child("d"), "c");
+        feed.onChildAdded(child("e"), "d");
+        feed.onBatchEnd();
+
+        assertEquals(5, feed.size());
+        assertEquals("a", feed.get(0));
+        assertEquals("b", feed.get(1));
+        assertEquals("e", feed.get(4));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.project;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link RecordSchema}.
+ */
+public class RecordSchemaTest {
+
+    private static Map<String, Object> v1Record() {
+        Map<String, Object> record = new HashMap<>();
+        record.put(RecordSchema.PUBLISHER_ID, "uid1");
+        record.put(RecordSchema.FULL_NAME, "דייר");
+        record.put(RecordSchema.APARTMENT_NUMBER, "4");
+        record.put(RecordSchema.DATE, "01/01/2025");
+        record.put(RecordSchema.TIME, "10:00");
+        record.put(RecordSchema.BUILDING_CODE, "B1");
+        record.put("content", "תוכן");
+        record.put("timestamp", 1735725600000L);
+        return record;
+    }
+
+    @Test
+    public void compact_dropsDerivedAndDuplicatedFields() {
+        Map<String, Object> record = v1Record();
+
+        RecordSchema.compact(record, "דייר", "4", false);
+
+        assertEquals(3, record.size());
+        assertEquals("uid1", record.get(RecordSchema.PUBLISHER_ID));
+        assertEquals("תוכן", record.get("content"));
+        assertEquals(1735725600000L, record.get("timestamp"));
+    }
+
+    @Test
+    public void compact_keepsDetailsThatDifferFromProfile() {
+        Map<String, Object> record = v1Record();
+
+        RecordSchema.compact(record, "שם אחר", null, false);
+
+        assertEquals("דייר", record.get(RecordSchema.FULL_NAME));
+        assertEquals("4", record.get(RecordSchema.APARTMENT_NUMBER));
+        assertFalse(record.containsKey(RecordSchema.DATE));
+        assertFalse(record.containsKey(RecordSchema.BUILDING_CODE));
+    }
+
+    @Test
+    public void compact_indexEntryKeepsBuildingAndPublisher() {
+        Map<String, Object> record = v1Record();
+
+        RecordSchema.compact(record, "דייר", "4", true);
+
+        assertEquals("B1", record.get(RecordSchema.BUILDING_CODE));
+        assertEquals("דייר", record.get(RecordSchema.FULL_NAME));
+        assertEquals("4", record.get(RecordSchema.APARTMENT_NUMBER));
+        assertFalse(record.containsKey(RecordSchema.TIME));
+    }
+
+    @Test
+    public void compact_isIdempotent() {
+        Map<String, Object> record = v1Record();
+        RecordSchema.compact(record, "דייר", "4", false);
+        Map<String, Object> once = new HashMap<>(record);
+
+        RecordSchema.compact(record, "דייר", "4", false);
+
+        assertEquals(once, record);
+    }
+
+    @Test
+    public void compact_keepsDisplayStringsOfImplausibleTimestamp() {
+        Map<String, Object> record = v1Record();
+        record.put("timestamp", 1L);
+
+        RecordSchema.compact(record, "דייר", "4", false);
+
+        assertEquals("01/01/2025", record.get(RecordSchema.DATE));
+        assertEquals("10:00", record.get(RecordSchema.TIME));
+        assertFalse(record.containsKey(RecordSchema.FULL_NAME));
+    }
+}
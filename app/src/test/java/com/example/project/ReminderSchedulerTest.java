@@ -0,0 +1,74 @@
+package com.example.project;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the time arithmetic of {@link ReminderScheduler}.
+ */
+public class ReminderSchedulerTest {
+
+    private static final TimeZone JERUSALEM = TimeZone.getTimeZone("Asia/Jerusalem");
+    private static final int FOUR_PM = 16 * 60;
+
+    private static long at(int year, int month, int day, int hour, int minute) {
+        Calendar calendar = Calendar.getInstance(JERUSALEM);
+        calendar.clear();
+        calendar.set(year, month, day, hour, minute);
+        return calendar.getTimeInMillis();
+    }
+
+    @Test
+    public void delayUntilNext_laterToday() {
+        long now = at(2026, Calendar.OCTOBER, 18, 15, 0);
+        assertEquals(TimeUnit.HOURS.toMillis(1), ReminderScheduler.delayUntilNext(now, JERUSALEM, FOUR_PM));
+    }
+
+    @Test
+    public void delayUntilNext_pastTimeWaitsForTomorrow() {
+        // Past 16:00 the reminder must not fire at once
+        long now = at(2026, Calendar.OCTOBER, 18, 17, 0);
+        assertEquals(TimeUnit.HOURS.toMillis(23), ReminderScheduler.delayUntilNext(now, JERUSALEM, FOUR_PM));
+    }
+
+    @Test
+    public void delayUntilNext_exactTimeWaitsForTomorrow() {
+        long now = at(2026, Calendar.OCTOBER, 18, 16, 0);
+        assertEquals(TimeUnit.DAYS.toMillis(1), ReminderScheduler.delayUntilNext(now, JERUSALEM, FOUR_PM));
+    }
+
+    @Test
+    public void delayUntilNext_followsDaylightSavingChange() {
+        // Clocks go back one hour on the night of 24-25 October 2026
+        long now = at(2026, Calendar.OCTOBER, 24, 20, 0);
+        assertEquals(TimeUnit.HOURS.toMillis(25), ReminderScheduler.delayUntilNext(now, JERUSALEM, 20 * 60));
+    }
+
+    @Test
+    public void dayOf_changesAtLocalMidnight() {
+        assertEquals(ReminderScheduler.dayOf(at(2026, Calendar.OCTOBER, 18, 0, 0), JERUSALEM),
+                ReminderScheduler.dayOf(at(2026, Calendar.OCTOBER, 18, 23, 59), JERUSALEM));
+        assertNotEquals(ReminderScheduler.dayOf(at(2026, Calendar.OCTOBER, 18, 23, 59), JERUSALEM),
+                ReminderScheduler.dayOf(at(2026, Calendar.OCTOBER, 19, 0, 0), JERUSALEM));
+    }
+
+    @Test
+    public void isValid_acceptsOnlyTimesOfDay() {
+        assertTrue(ReminderScheduler.isValid(0));
+        assertTrue(ReminderScheduler.isValid(23 * 60 + 59));
+        assertFalse(ReminderScheduler.isValid(null));
+        assertFalse(ReminderScheduler.isValid(-1));
+        assertFalse(ReminderScheduler.isValid(24 * 60));
+    }
+
+    @Test
+    public void format_padsHoursAndMinutes() {
+        assertEquals("07:05", ReminderScheduler.format(7 * 60 + 5));
+        assertEquals("16:00", ReminderScheduler.format(FOUR_PM));
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.project;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.ServerValue;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Local unit tests for {@link SnapshotMappers}.
+ */
+public class SnapshotMappersTest {
+
+    private static DataSnapshot snapshot(String key, Object value) {
+        DataSnapshot snapshot = mock(DataSnapshot.class);
+        when(snapshot.getKey()).thenReturn(key);
+        when(snapshot.getValue()).thenReturn(value);
+        return snapshot;
+    }
+
+    private static final long CREATED_AT = 1735725600000L;
+
+    private static String format(String pattern) {
+        return new SimpleDateFormat(pattern, Locale.getDefault()).format(new Date(CREATED_AT));
+    }
+
+    @Test
+    public void writers_useServerTimestamp() {
+        Map<String, Object> notification = SnapshotMappers.notificationData("uid1", "דייר", "4", "תוכן", CREATED_AT);
+        Map<String, Object> request = SnapshotMappers.requestData("uid1", "דייר", "4", "תוכן", CREATED_AT);
+
+        assertSame(ServerValue.TIMESTAMP, notification.get(SnapshotMappers.TIMESTAMP));
+        assertSame(ServerValue.TIMESTAMP, request.get(SnapshotMappers.TIMESTAMP));
+        assertEquals(format("dd/MM/yyyy"), notification.get(SnapshotMappers.DATE));
+        assertEquals(format("HH:mm"), request.get(SnapshotMappers.TIME));
+        assertEquals(true, request.get(SnapshotMappers.IS_OPEN));
+    }
+
+    @Test
+    public void message_roundTripsWrittenShape() {
+        Map<String, Object> data = SnapshotMappers.messageData("uid1", "דייר", "שלום");
+        assertSame(ServerValue.TIMESTAMP, data.get(SnapshotMappers.TIMESTAMP));
+        data.put(SnapshotMappers.TIMESTAMP, CREATED_AT); // As resolved by the server
+
+        message chatMessage = SnapshotMappers.toMessage(snapshot("m1", data));
+
+        assertNotNull(chatMessage);
+        assertEquals("uid1", chatMessage.getSenderId());
+        assertEquals("דייר", chatMessage.getName());
+        assertEquals("שלום", chatMessage.getText());
+        assertEquals(CREATED_AT, chatMessage.getTimestamp());
+        assertEquals(format("HH:mm"), chatMessage.getTime());
+    }
+
+    @Test
+    public void notification_roundTripsWrittenShape() {
+        Map<String, Object> data = SnapshotMappers.notificationData("uid1", "דייר", "4", "תוכן", CREATED_AT);
+        data.put(SnapshotMappers.TIMESTAMP, 1234L); // As resolved by the server
+
+        ViewBuildingNotificationsActivity.BuildingNotification notification =
+                SnapshotMappers.toBuildingNotification(snapshot("n1", data));
+
+        assertNotNull(notification);
+        assertEquals("uid1", notification.getPublisherId());
+        assertEquals("דייר", notification.getFullName());
+        assertEquals("תוכן", notification.getContent());
+        assertEquals(format("dd/MM/yyyy"), notification.getDate());
+        assertEquals(format("HH:mm"), notification.getTime());
+        assertEquals(1234L, notification.getTimestamp());
+    }
+
+    @Test
+    public void helpRequest_readsIndexEntry() {
+        Map<String, Object> data = SnapshotMappers.requestData("uid1", "דייר", "4", "תוכן", CREATED_AT);
+        data.put(SnapshotMappers.TIMESTAMP, 1234.0);
+        data.put(SnapshotMappers.BUILDING_CODE, "B1");
+
+        ViewOpenHelpRequestsActivity.HelpRequest request = SnapshotMappers.toHelpRequest(snapshot("r1", data));
+
+        assertNotNull(request);
+        assertEquals("uid1", request.getPublisherId());
+        assertEquals("4", request.getApartmentNumber());
+        assertEquals(1234L, request.getTimestamp());
+        assertTrue(request.isOpen());
+        assertEquals("B1", request.getBuildingCode());
+    }
+
+    @Test
+    public void v2Notification_derivesDisplayStrings() {
+        Map<String, Object> data = SnapshotMappers.notificationData("uid1", "דייר", "4", "תוכן", CREATED_AT);
+        RecordSchema.compact(data, "דייר", "4", false);
+        data.put(SnapshotMappers.TIMESTAMP, CREATED_AT);
+
+        ViewBuildingNotificationsActivity.BuildingNotification notification =
+                SnapshotMappers.toBuildingNotification(snapshot("n1", data));
+
+        assertNotNull(notification);
+        assertEquals(format("dd/MM/yyyy"), notification.getDate());
+        assertEquals(format("HH:mm"), notification.getTime());
+        // No directory loaded for this publisher
+        assertNull(notification.getFullName());
+    }
+
+    @Test
+    public void missingFields_useDefaults() {
+        ViewOpenHelpRequestsActivity.HelpRequest request =
+                SnapshotMappers.toHelpRequest(snapshot("r1", new HashMap<String, Object>()));
+
+        assertNotNull(request);
+        assertNull(request.getContent());
+        assertEquals(0L, request.getTimestamp());
+        assertTrue(request.isOpen());
+    }
+
+    @Test
+    public void nonObjectChild_isSkipped() {
+        assertNull(SnapshotMappers.toBuildingNotification(snapshot("n1", "not an object")));
+        assertNull(SnapshotMappers.toHelpRequest(snapshot("r1", null)));
+    }
+}
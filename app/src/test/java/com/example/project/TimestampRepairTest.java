@@ -0,0 +1,144 @@
+package com.example.project;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link TimestampRepair}.
+ */
+public class TimestampRepairTest {
+
+    private static final long NOW = 1735725600000L; // 2025-01-01 10:00 UTC
+
+    @Test
+    public void pushKeyTime_decodesCreationTime() {
+        assertEquals(1423088131153L, TimestampRepair.pushKeyTime("-JhLeOlGIEjaIOFHR0xd"));
+    }
+
+    @Test
+    public void pushKeyTime_rejectsOtherKeys() {
+        assertEquals(-1, TimestampRepair.pushKeyTime(null));
+        assertEquals(-1, TimestampRepair.pushKeyTime("n000001"));
+        assertEquals(-1, TimestampRepair.pushKeyTime("-JhLeOl!IEjaIOFHR0xd"));
+    }
+
+    @Test
+    public void needsRepair_serverTimestamp_isKept() {
+        assertFalse(TimestampRepair.needsRepair(NOW - 1000, NOW - 1200, NOW));
+        // Written offline and synced an hour later
+        assertFalse(TimestampRepair.needsRepair(NOW, NOW - 60 * 60 * 1000L, NOW));
+    }
+
+    @Test
+    public void needsRepair_brokenTimestamps_areRewritten() {
+        // ServerValue.TIMESTAMP.size()
+        assertTrue(TimestampRepair.needsRepair(1, NOW - 1000, NOW));
+        // Missing
+        assertTrue(TimestampRepair.needsRepair(-1, NOW - 1000, NOW));
+        // Device clock an hour behind
+        assertTrue(TimestampRepair.needsRepair(NOW - 60 * 60 * 1000L, NOW, NOW));
+        // Device clock in the future
+        assertTrue(TimestampRepair.needsRepair(NOW + 60 * 60 * 1000L, NOW, NOW));
+    }
+
+    private static Map<String, Object> request(long timestamp, Boolean isOpen) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("content", "Leaking pipe");
+        request.put("publisherId", "uid1");
+        request.put("fullName", "Dana");
+        request.put("apartmentNumber", "4");
+        request.put("timestamp", timestamp);
+        if (isOpen != null) {
+            request.put("isOpen", isOpen);
+        }
+        return request;
+    }
+
+    @Test
+    public void planHelpRequests_unindexedOpenRequest_getsFullEntry() {
+        Map<String, Object> requests = new HashMap<>();
+        requests.put("r1", request(NOW, null));
+        Map<String, Object> updates = new HashMap<>();
+
+        assertEquals(1, TimestampRepair.planHelpRequests("B1", requests, new HashMap<>(), NOW, updates));
+
+        assertEquals(2, updates.size());
+        assertEquals(HelpRequestStatusKey.of(true, NOW), updates.get("help_requests/B1/r1/statusTime"));
+        Map<?, ?> entry = (Map<?, ?>) updates.get("open_help_requests/r1");
+        assertFalse(entry.containsKey("statusTime"));
+        assertEquals("B1", entry.get("buildingCode"));
+        assertEquals("Leaking pipe", entry.get("content"));
+        assertEquals("Dana", entry.get("fullName"));
+        assertEquals(NOW, entry.get("timestamp"));
+    }
+
+    @Test
+    public void planHelpRequests_repairedUnindexedRequest_isNotPatchedAsStub() {
+        String key = "-JhLeOlGIEjaIOFHR0xd";
+        Map<String, Object> requests = new HashMap<>();
+        requests.put(key, request(1, true));
+        Map<String, Object> updates = new HashMap<>();
+
+        TimestampRepair.planHelpRequests("B1", requests, new HashMap<>(), NOW, updates);
+
+        assertFalse(updates.containsKey("open_help_requests/" + key + "/timestamp"));
+        Map<?, ?> entry = (Map<?, ?>) updates.get("open_help_requests/" + key);
+        assertEquals(1423088131153L, entry.get("timestamp"));
+        assertEquals(1423088131153L, updates.get("help_requests/B1/" + key + "/timestamp"));
+        assertEquals(HelpRequestStatusKey.of(true, 1423088131153L), updates.get("help_requests/B1/" + key + "/statusTime"));
+    }
+
+    @Test
+    public void planHelpRequests_statusTime_followsStoredTimestamp() {
+        Map<String, Object> estimated = request(NOW, true);
+        // Estimated on the submitting device before the server resolved the timestamp
+        estimated.put("statusTime", HelpRequestStatusKey.of(true, NOW - 250));
+        Map<String, Object> requests = new HashMap<>();
+        requests.put("r1", estimated);
+        Map<String, Object> index = new HashMap<>();
+        index.put("r1", request(NOW, true));
+        Map<String, Object> updates = new HashMap<>();
+
+        assertEquals(1, TimestampRepair.planHelpRequests("B1", requests, index, NOW, updates));
+
+        assertEquals(1, updates.size());
+        assertEquals(HelpRequestStatusKey.of(true, NOW), updates.get("help_requests/B1/r1/statusTime"));
+    }
+
+    @Test
+    public void planHelpRequests_closedIndexedRequest_losesEntry() {
+        Map<String, Object> requests = new HashMap<>();
+        Map<String, Object> closed = request(NOW, false);
+        closed.put("statusTime", HelpRequestStatusKey.of(false, NOW));
+        requests.put("r1", closed);
+        Map<String, Object> index = new HashMap<>();
+        index.put("r1", request(NOW, true));
+        Map<String, Object> updates = new HashMap<>();
+
+        assertEquals(1, TimestampRepair.planHelpRequests("B1", requests, index, NOW, updates));
+
+        assertTrue(updates.containsKey("open_help_requests/r1"));
+        assertNull(updates.get("open_help_requests/r1"));
+    }
+
+    @Test
+    public void planHelpRequests_consistentRequests_areLeftAlone() {
+        Map<String, Object> requests = new HashMap<>();
+        Map<String, Object> open = request(NOW, true);
+        open.put("statusTime", HelpRequestStatusKey.of(true, NOW));
+        Map<String, Object> closed = request(NOW, false);
+        closed.put("statusTime", HelpRequestStatusKey.of(false, NOW));
+        requests.put("r1", open);
+        requests.put("r2", closed);
+        Map<String, Object> index = new HashMap<>();
+        index.put("r1", request(NOW, true));
+        Map<String, Object> updates = new HashMap<>();
+
+        assertEquals(0, TimestampRepair.planHelpRequests("B1", requests, index, NOW, updates));
+        assertTrue(updates.isEmpty());
+    }
+}
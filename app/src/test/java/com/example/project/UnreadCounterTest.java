@@ -0,0 +1,36 @@
+package com.example.project;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the unread arithmetic and badge label of {@link UnreadCounter}.
+ */
+public class UnreadCounterTest {
+
+    @Test
+    public void unread_isCountMinusLastRead() {
+        assertEquals(3, UnreadCounter.unread(10L, 7L));
+        assertEquals(0, UnreadCounter.unread(7L, 7L));
+    }
+
+    @Test
+    public void unread_isZeroUntilBothValuesAreKnown() {
+        assertEquals(0, UnreadCounter.unread(null, 7L));
+        assertEquals(0, UnreadCounter.unread(10L, null));
+    }
+
+    @Test
+    public void unread_neverNegative() {
+        // A marker written from a stale count on another device can be ahead of the counter
+        assertEquals(0, UnreadCounter.unread(5L, 7L));
+    }
+
+    @Test
+    public void badgeText_appendsCountOnlyWhenUnread() {
+        assertEquals("לוח הודעות הועד", UnreadCounter.badgeText("לוח הודעות הועד", 0));
+        assertEquals("לוח הודעות הועד (3)", UnreadCounter.badgeText("לוח הודעות הועד", 3));
+        assertEquals("לוח הודעות הועד (99+)", UnreadCounter.badgeText("לוח הודעות הועד", 150));
+    }
+}
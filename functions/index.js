@@ -0,0 +1,37 @@
+"use strict";
+
+const {onValueCreated} = require("firebase-functions/v2/database");
+const logger = require("firebase-functions/logger");
+const {initializeApp} = require("firebase-admin/app");
+const {getDatabase} = require("firebase-admin/database");
+const {getMessaging} = require("firebase-admin/messaging");
+const {createNotifier, loggingSender} = require("./notifier");
+const {withStatusKey} = require("./statusKey");
+
+initializeApp();
+
+// The emulator has no Cloud Messaging; log the pushes there instead of sending them.
+const send = process.env.FUNCTIONS_EMULATOR === "true" ?
+  loggingSender(logger.info) :
+  (message) => getMessaging().send(message);
+
+const notifier = createNotifier(send, async (uid) => {
+  const snapshot = await getDatabase().ref(`users/${uid}/fullName`).get();
+  return snapshot.val();
+});
+
+/**
+ * Pushes every newly published building notification to the building's topic, which every
+ * device of the building is subscribed to (BuildingTopics in the app).
+ */
+exports.notifyBuilding = onValueCreated("/building_notifications/{buildingCode}/{notificationId}",
+    (event) => notifier.onNotificationCreated(
+        event.params.buildingCode, event.params.notificationId, event.data.val()));
+
+/**
+ * Stamps every new help request with its status+time key (HelpRequestStatusKey in the app), which
+ * the app cannot derive at submission because the timestamp is resolved by the server. Runs as a
+ * transaction, so a request closed in the meantime keeps the closed key the app wrote.
+ */
+exports.stampHelpRequest = onValueCreated("/help_requests/{buildingCode}/{requestId}",
+    (event) => event.data.ref.transaction(withStatusKey, undefined, false));
@@ -0,0 +1,109 @@
+"use strict";
+
+/**
+ * Turns a newly published building notification into one push to the building's topic.
+ *
+ * The sender is injected so the logic runs unchanged against Firebase Cloud Messaging in
+ * production, a logging stand-in in the emulator, and a recording stand-in in tests.
+ */
+
+const TOPIC_PREFIX = "building_";
+
+/** Data payloads are limited to 4 KB; the app shows at most a few lines anyway. */
+const MAX_CONTENT_LENGTH = 500;
+
+const UNRESERVED = /[A-Za-z0-9\-_.~]/;
+
+/**
+ * Returns the topic of a building. Topic names are limited to [a-zA-Z0-9-_.~%], so every other
+ * byte of the UTF-8 building code is percent-encoded, exactly like BuildingTopics.topicFor in the
+ * app.
+ *
+ * @param {string} buildingCode The building code.
+ * @return {string} The topic name.
+ */
+function topicFor(buildingCode) {
+  let topic = TOPIC_PREFIX;
+  for (const byte of Buffer.from(buildingCode, "utf8")) {
+    const c = String.fromCharCode(byte);
+    topic += byte < 0x80 && UNRESERVED.test(c) ?
+      c : "%" + byte.toString(16).toUpperCase().padStart(2, "0");
+  }
+  return topic;
+}
+
+/**
+ * Builds the data-only message for a new notification. Data messages reach the app's
+ * messaging service in the foreground and background alike, so the app decides what to show.
+ *
+ * @param {string} buildingCode The building the notification belongs to.
+ * @param {string} notificationId The push key of the notification.
+ * @param {object} record The stored notification.
+ * @param {?string} fullName The publisher's name.
+ * @return {object} The message.
+ */
+function buildMessage(buildingCode, notificationId, record, fullName) {
+  const content = String(record.content || "");
+  const data = {
+    type: "building_notification",
+    buildingCode: buildingCode,
+    notificationId: notificationId,
+    publisherId: String(record.publisherId || ""),
+    content: content.length > MAX_CONTENT_LENGTH ?
+      content.substring(0, MAX_CONTENT_LENGTH - 1) + "…" : content,
+  };
+  if (fullName) {
+    data.fullName = String(fullName);
+  }
+  if (typeof record.timestamp === "number") {
+    data.timestamp = String(record.timestamp);
+  }
+  return {
+    topic: topicFor(buildingCode),
+    data: data,
+    android: {
+      priority: "high",
+      // One pending delivery per notification if the device is offline
+      collapseKey: notificationId,
+    },
+  };
+}
+
+/**
+ * @param {function(object): Promise<string>} send Sends one message.
+ * @param {function(string): Promise<?string>} fullNameOf Looks up a publisher's name, for
+ *     records that omit it (record schema v2).
+ * @return {{onNotificationCreated: function(string, string, object): Promise<?string>}}
+ */
+function createNotifier(send, fullNameOf) {
+  return {
+    async onNotificationCreated(buildingCode, notificationId, record) {
+      if (!record || typeof record !== "object" || !record.content) {
+        return null;
+      }
+      let fullName = record.fullName;
+      if (!fullName && record.publisherId && fullNameOf) {
+        fullName = await fullNameOf(String(record.publisherId));
+      }
+      return send(buildMessage(buildingCode, notificationId, record, fullName));
+    },
+  };
+}
+
+/**
+ * Stand-in sender for the local emulator, which has no Cloud Messaging: logs the message
+ * instead of delivering it.
+ *
+ * @param {function(...*)} log The logger.
+ * @return {function(object): Promise<string>} The sender.
+ */
+function loggingSender(log) {
+  let count = 0;
+  return async (message) => {
+    log("push", JSON.stringify(message));
+    count++;
+    return "emulator/messages/" + count;
+  };
+}
+
+module.exports = {topicFor, buildMessage, createNotifier, loggingSender, MAX_CONTENT_LENGTH};
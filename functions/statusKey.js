@@ -0,0 +1,52 @@
+"use strict";
+
+/**
+ * Derives the composite status+time key of a help request from its stored timestamp.
+ *
+ * The key is "open_"/"closed_" followed by the timestamp zero-padded to 18 digits, exactly like
+ * HelpRequestStatusKey.of in the app. The app cannot write it at submission because the
+ * timestamp is a server value there, so this runs once the server has resolved it.
+ */
+
+const FIELD = "statusTime";
+const OPEN = "open_";
+const CLOSED = "closed_";
+
+/**
+ * @param {boolean} isOpen Whether the request is open.
+ * @param {number} timestamp The request timestamp in milliseconds.
+ * @return {string} The composite key.
+ */
+function statusKeyOf(isOpen, timestamp) {
+  const millis = String(Math.max(0, Math.trunc(timestamp)));
+  return (isOpen ? OPEN : CLOSED) + millis.padStart(18, "0");
+}
+
+/**
+ * Adds the status key to a stored request. Meant as a transaction update function, so a request
+ * closed in the meantime gets the key of its current state.
+ *
+ * A transaction first runs against the local cache, which is empty in a function. An empty
+ * record is therefore returned as is: the server then rejects the guess and reruns the
+ * transaction with the stored request, while a request that really is gone stays gone.
+ *
+ * @param {?object} record The request as currently stored.
+ * @return {?object|undefined} The request with its key, null for an empty record, or undefined
+ *     if there is nothing to write: the request has no numeric timestamp or already carries the
+ *     right key.
+ */
+function withStatusKey(record) {
+  if (record === null || record === undefined) {
+    return null;
+  }
+  if (typeof record !== "object" || typeof record.timestamp !== "number") {
+    return undefined;
+  }
+  const key = statusKeyOf(record.isOpen !== false, record.timestamp);
+  if (record[FIELD] === key) {
+    return undefined;
+  }
+  return Object.assign({}, record, {[FIELD]: key});
+}
+
+module.exports = {statusKeyOf, withStatusKey, FIELD};
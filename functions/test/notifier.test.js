@@ -0,0 +1,99 @@
+"use strict";
+
+const test = require("node:test");
+const assert = require("node:assert");
+const {topicFor, createNotifier, loggingSender, MAX_CONTENT_LENGTH} = require("../notifier");
+
+/** Local stand-in for Cloud Messaging that records every message. */
+function recordingSender() {
+  const sent = [];
+  const send = async (message) => {
+    sent.push(message);
+    return "projects/test/messages/" + sent.length;
+  };
+  return {sent, send};
+}
+
+const RECORD = {
+  publisherId: "uid1",
+  fullName: "דייר",
+  apartmentNumber: "4",
+  content: "מחר אין מים",
+  date: "01/01/2025",
+  time: "10:00",
+  timestamp: 1735725600000,
+};
+
+test("topicFor keeps unreserved characters and percent-encodes the rest", () => {
+  assert.strictEqual(topicFor("BENCH01"), "building_BENCH01");
+  assert.strictEqual(topicFor("a-b_c.d~e"), "building_a-b_c.d~e");
+  // Same vector as BuildingTopicsTest in the app
+  assert.strictEqual(topicFor("בניין 7"), "building_%D7%91%D7%A0%D7%99%D7%99%D7%9F%207");
+});
+
+test("a new notification sends one data message to the building topic", async () => {
+  const sender = recordingSender();
+  const notifier = createNotifier(sender.send);
+
+  const id = await notifier.onNotificationCreated("B1", "-Nabc", RECORD);
+
+  assert.strictEqual(id, "projects/test/messages/1");
+  assert.strictEqual(sender.sent.length, 1);
+  const message = sender.sent[0];
+  assert.strictEqual(message.topic, "building_B1");
+  assert.strictEqual(message.notification, undefined);
+  assert.deepStrictEqual(message.data, {
+    type: "building_notification",
+    buildingCode: "B1",
+    notificationId: "-Nabc",
+    publisherId: "uid1",
+    content: "מחר אין מים",
+    fullName: "דייר",
+    timestamp: "1735725600000",
+  });
+  assert.strictEqual(message.android.priority, "high");
+});
+
+test("v2 records without a name look up the publisher", async () => {
+  const sender = recordingSender();
+  const lookups = [];
+  const notifier = createNotifier(sender.send, async (uid) => {
+    lookups.push(uid);
+    return "מנהל";
+  });
+
+  await notifier.onNotificationCreated("B1", "-Nabc",
+      {publisherId: "uid1", content: "תוכן", timestamp: 1});
+
+  assert.deepStrictEqual(lookups, ["uid1"]);
+  assert.strictEqual(sender.sent[0].data.fullName, "מנהל");
+});
+
+test("long content is truncated to fit the data payload", async () => {
+  const sender = recordingSender();
+  await createNotifier(sender.send).onNotificationCreated("B1", "-Nabc",
+      Object.assign({}, RECORD, {content: "א".repeat(5000)}));
+
+  assert.strictEqual(sender.sent[0].data.content.length, MAX_CONTENT_LENGTH);
+});
+
+test("empty or malformed records send nothing", async () => {
+  const sender = recordingSender();
+  const notifier = createNotifier(sender.send);
+
+  assert.strictEqual(await notifier.onNotificationCreated("B1", "-N1", null), null);
+  assert.strictEqual(await notifier.onNotificationCreated("B1", "-N2", "text"), null);
+  assert.strictEqual(await notifier.onNotificationCreated("B1", "-N3", {publisherId: "uid1"}), null);
+  assert.strictEqual(sender.sent.length, 0);
+});
+
+test("the emulator stand-in logs instead of sending", async () => {
+  const lines = [];
+  const send = loggingSender((...args) => lines.push(args.join(" ")));
+
+  const id = await createNotifier(send).onNotificationCreated("B1", "-Nabc", RECORD);
+
+  assert.strictEqual(id, "emulator/messages/1");
+  assert.strictEqual(lines.length, 1);
+  assert.ok(lines[0].includes("building_B1"));
+});
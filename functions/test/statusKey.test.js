@@ -0,0 +1,46 @@
+"use strict";
+
+const test = require("node:test");
+const assert = require("node:assert");
+const {statusKeyOf, withStatusKey, FIELD} = require("../statusKey");
+
+const REQUEST = {
+  publisherId: "uid1",
+  content: "צריך עזרה עם קניות",
+  isOpen: true,
+  timestamp: 1717171717171,
+};
+
+test("statusKeyOf pads the timestamp to 18 digits like the app", () => {
+  assert.strictEqual(statusKeyOf(true, 1717171717171), "open_000001717171717171");
+  assert.strictEqual(statusKeyOf(false, 1717171717171), "closed_000001717171717171");
+  assert.strictEqual(statusKeyOf(true, -5), "open_000000000000000000");
+});
+
+test("padded keys sort in time order", () => {
+  assert.ok(statusKeyOf(true, 999) < statusKeyOf(true, 1000));
+  assert.ok(statusKeyOf(false, Date.now()) < statusKeyOf(true, 0));
+});
+
+test("a new request gets the key of its resolved timestamp", () => {
+  const written = withStatusKey(REQUEST);
+
+  assert.strictEqual(written[FIELD], "open_000001717171717171");
+  assert.strictEqual(written.content, REQUEST.content);
+  assert.strictEqual(REQUEST[FIELD], undefined);
+});
+
+test("a request closed before the trigger ran gets the closed key", () => {
+  const written = withStatusKey(Object.assign({}, REQUEST, {isOpen: false}));
+
+  assert.strictEqual(written[FIELD], "closed_000001717171717171");
+});
+
+test("nothing is written when the key is right or cannot be derived", () => {
+  assert.strictEqual(withStatusKey(Object.assign({}, REQUEST, {[FIELD]: "open_000001717171717171"})), undefined);
+  assert.strictEqual(withStatusKey(Object.assign({}, REQUEST, {timestamp: {".sv": "timestamp"}})), undefined);
+});
+
+test("an empty record is kept empty so the transaction reruns with the stored request", () => {
+  assert.strictEqual(withStatusKey(null), null);
+});
@@ -0,0 +1,67 @@
+package com.example.project.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of producing the "dd/MM/yyyy" and "HH:mm" strings stored with every request and
+ * notification. {@code SubmitRequestFormActivity}, {@code RequestHelpActivity} and
+ * {@code PublishBuildingNotificationActivity} create two {@link SimpleDateFormat}s per submit
+ * ({@link #newFormattersPerCall}); the alternatives reuse them or skip them entirely.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateFormatBenchmark {
+
+    private final Date now = new Date(1735725600000L);
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault());
+    private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm", Locale.getDefault());
+    private final Calendar calendar = Calendar.getInstance();
+
+    @Benchmark
+    public void newFormattersPerCall(Blackhole blackhole) {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy", Locale.getDefault());
+        SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm", Locale.getDefault());
+        blackhole.consume(dateFormat.format(now));
+        blackhole.consume(timeFormat.format(now));
+    }
+
+    @Benchmark
+    public void reusedFormatters(Blackhole blackhole) {
+        blackhole.consume(dateFormat.format(now));
+        blackhole.consume(timeFormat.format(now));
+    }
+
+    @Benchmark
+    public void calendarFields(Blackhole blackhole) {
+        calendar.setTime(now);
+        StringBuilder date = new StringBuilder(10);
+        pad2(date, calendar.get(Calendar.DAY_OF_MONTH)).append('/');
+        pad2(date, calendar.get(Calendar.MONTH) + 1).append('/');
+        date.append(calendar.get(Calendar.YEAR));
+        StringBuilder time = new StringBuilder(5);
+        pad2(time, calendar.get(Calendar.HOUR_OF_DAY)).append(':');
+        pad2(time, calendar.get(Calendar.MINUTE));
+        blackhole.consume(date.toString());
+        blackhole.consume(time.toString());
+    }
+
+    private static StringBuilder pad2(StringBuilder builder, int value) {
+        if (value < 10) {
+            builder.append('0');
+        }
+        return builder.append(value);
+    }
+}
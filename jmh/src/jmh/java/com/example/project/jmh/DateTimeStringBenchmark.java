@@ -0,0 +1,47 @@
+package com.example.project.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the {@code date + " " + time} string every list adapter builds in
+ * {@code onBindViewHolder}, against building it once per item and reusing it on rebinds.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateTimeStringBenchmark {
+
+    private String date;
+    private String time;
+    private String cachedDateTime;
+
+    @Setup
+    public void setUp() {
+        date = "01/01/2025";
+        time = "10:00";
+        cachedDateTime = date + " " + time;
+    }
+
+    @Benchmark
+    public String concatPerBind() {
+        return date + " " + time;
+    }
+
+    @Benchmark
+    public String builderPerBind() {
+        return new StringBuilder(date.length() + 1 + time.length()).append(date).append(' ').append(time).toString();
+    }
+
+    @Benchmark
+    public String cachedPerItem() {
+        return cachedDateTime;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.project.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one new child arriving in a list of {@code size} items, handled the way the screens
+ * used to in {@code onDataChange} (clear the list, map every child again, then redraw all rows)
+ * versus the way {@code ChildEventFeed} does it (map only the new child and append it).
+ *
+ * Children are the plain value maps Firebase hands out, so only the list work is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ListRebuildBenchmark {
+
+    /** Minimal row model with the fields every list shows. */
+    static final class Row {
+        final String key;
+        final String content;
+        final String fullName;
+        final String dateTime;
+        final long timestamp;
+
+        Row(String key, String content, String fullName, String dateTime, long timestamp) {
+            this.key = key;
+            this.content = content;
+            this.fullName = fullName;
+            this.dateTime = dateTime;
+            this.timestamp = timestamp;
+        }
+    }
+
+    @Param({"100", "1000", "5000"})
+    public int size;
+
+    private List<String> keys;
+    private List<Map<String, Object>> children;
+    private List<Row> rows;
+    private Map<String, Object> newChild;
+
+    @Setup
+    public void setUp() {
+        keys = new ArrayList<>(size);
+        children = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            keys.add("key" + i);
+            children.add(child(i));
+        }
+        rows = new ArrayList<>(size + 1);
+        for (int i = 0; i < size; i++) {
+            rows.add(map(keys.get(i), children.get(i)));
+        }
+        newChild = child(size);
+    }
+
+    private static Map<String, Object> child(int i) {
+        Map<String, Object> child = new HashMap<>();
+        child.put("content", "תוכן " + i);
+        child.put("fullName", "דייר " + i);
+        child.put("date", "01/01/2025");
+        child.put("time", "10:00");
+        child.put("timestamp", (long) i);
+        return child;
+    }
+
+    private static Row map(String key, Map<String, Object> child) {
+        return new Row(key, (String) child.get("content"), (String) child.get("fullName"),
+                child.get("date") + " " + child.get("time"), (Long) child.get("timestamp"));
+    }
+
+    @Benchmark
+    public List<Row> rebuildOnDataChange() {
+        List<Row> list = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            list.add(map(keys.get(i), children.get(i)));
+        }
+        list.add(map("new", newChild));
+        return list;
+    }
+
+    @Benchmark
+    public List<Row> appendOnChildAdded() {
+        rows.add(map("new", newChild));
+        rows.remove(rows.size() - 1);
+        return rows;
+    }
+}
@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+#
+# Seeds the local Firebase emulators (firebase emulators:start, see firebase.json) with the data
+# the macrobenchmarks measure against: one building with a resident and a manager account, a long
+# notification board and a long list of help requests.
+#
+# Usage: ./macrobenchmark/seed-emulator.sh [notification count] [request count]
+
+set -euo pipefail
+
+NOTIFICATIONS="${1:-600}"
+REQUESTS="${2:-600}"
+
+AUTH_HOST="${AUTH_HOST:-localhost:9099}"
+DATABASE_HOST="${DATABASE_HOST:-localhost:9000}"
+# Database namespace the app connects to: <project id>-default-rtdb
+NAMESPACE="${NAMESPACE:-binyan-7a70d-default-rtdb}"
+
+# Must match the defaults in BenchmarkAccounts.java
+BUILDING_CODE="BENCH01"
+PASSWORD="benchmark"
+RESIDENT_EMAIL="resident@bench.test"
+MANAGER_EMAIL="manager@bench.test"
+
+# Creates an Auth emulator account and prints its UID.
+create_user() {
+    curl -sf -X POST -H "Content-Type: application/json" \
+        -d "{\"email\":\"$1\",\"password\":\"$PASSWORD\",\"returnSecureToken\":true}" \
+        "http://$AUTH_HOST/identitytoolkit.googleapis.com/v1/accounts:signUp?key=fake-api-key" \
+        | sed -n 's/.*"localId": *"\([^"]*\)".*/\1/p'
+}
+
+curl -sf -X DELETE "http://$AUTH_HOST/emulator/v1/projects/${NAMESPACE%-default-rtdb}/accounts" > /dev/null
+
+RESIDENT_UID="$(create_user "$RESIDENT_EMAIL")"
+MANAGER_UID="$(create_user "$MANAGER_EMAIL")"
+
+NOW_MS="$(($(date +%s) * 1000))"
+SEED="$(mktemp)"
+trap 'rm -f "$SEED"' EXIT
+
+{
+    printf '{"users":{'
+    printf '"%s":{"buildingCode":"%s","fullName":"דייר בדיקה","apartmentNumber":"1","isManager":false},' \
+        "$RESIDENT_UID" "$BUILDING_CODE"
+    printf '"%s":{"buildingCode":"%s","fullName":"מנהל בדיקה","apartmentNumber":"2","isManager":true}' \
+        "$MANAGER_UID" "$BUILDING_CODE"
+    printf '},"building_notifications":{"%s":{' "$BUILDING_CODE"
+    for i in $(seq 1 "$NOTIFICATIONS"); do
+        ts=$((NOW_MS - (NOTIFICATIONS - i) * 60000))
+        [ "$i" -gt 1 ] && printf ','
+        printf '"n%06d":{"publisherId":"%s","fullName":"מנהל בדיקה","apartmentNumber":"2",' "$i" "$MANAGER_UID"
+        printf '"content":"הודעה מספר %d: עבודות תחזוקה בלובי, נא לא להשאיר חפצים ליד המעלית. תודה על שיתוף הפעולה.",' "$i"
+        printf '"date":"01/01/2025","time":"12:00","timestamp":%d}' "$ts"
+    done
+    printf '}},"help_requests":{"%s":{' "$BUILDING_CODE"
+    for i in $(seq 1 "$REQUESTS"); do
+        ts=$((NOW_MS - (REQUESTS - i) * 60000))
+        open=$([ $((i % 3)) -eq 0 ] && echo false || echo true)
+        prefix=$([ "$open" = true ] && echo open_ || echo closed_)
+        [ "$i" -gt 1 ] && printf ','
+        printf '"r%06d":{"publisherId":"%s","fullName":"דייר בדיקה","apartmentNumber":"1",' "$i" "$RESIDENT_UID"
+        printf '"content":"בקשה מספר %d: נורה שרופה בחדר המדרגות בקומה השלישית.",' "$i"
+        printf '"date":"01/01/2025","time":"12:00","timestamp":%d,"isOpen":%s,"statusTime":"%s%018d"}' \
+            "$ts" "$open" "$prefix" "$ts"
+    done
+    printf '}}}'
+} > "$SEED"
+
+curl -sf -X PUT -H "Authorization: Bearer owner" --data-binary "@$SEED" \
+    "http://$DATABASE_HOST/.json?ns=$NAMESPACE" > /dev/null
+
+echo "Seeded $NOTIFICATIONS notifications and $REQUESTS requests into building $BUILDING_CODE"
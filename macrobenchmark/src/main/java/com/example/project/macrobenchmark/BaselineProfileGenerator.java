@@ -0,0 +1,71 @@
+package com.example.project.macrobenchmark;
+
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import kotlin.Unit;
+
+/**
+ * Generates the baseline profile of the login-to-feed critical path: start into the home screen,
+ * open the notification board (and for a manager the submitted requests) and scroll it.
+ *
+ * Run with the copyBaselineProfile task (see build.gradle), which merges the profiles written by
+ * both methods into {@code app/src/main/baseline-prof.txt}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+
+    @Rule
+    public BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    @Test
+    public void resident() throws IOException {
+        BenchmarkAccounts.ensureSignedIn(false);
+        baselineProfileRule.collect(BenchmarkAccounts.PACKAGE_NAME, scope -> {
+            openHome(scope);
+            scrollList(scope.getDevice(), "buttonBoard", "buildingNotificationsRecyclerView");
+            return Unit.INSTANCE;
+        });
+    }
+
+    @Test
+    public void manager() throws IOException {
+        BenchmarkAccounts.ensureSignedIn(true);
+        baselineProfileRule.collect(BenchmarkAccounts.PACKAGE_NAME, scope -> {
+            openHome(scope);
+            scrollList(scope.getDevice(), "buttonBoard", "buildingNotificationsRecyclerView");
+            scrollList(scope.getDevice(), "buttonForm", "submittedRequestsRecyclerView");
+            return Unit.INSTANCE;
+        });
+    }
+
+    private static void openHome(MacrobenchmarkScope scope) {
+        scope.pressHome();
+        scope.startActivityAndWait();
+        BenchmarkAccounts.waitForHomeScreen(scope.getDevice());
+    }
+
+    private static void scrollList(UiDevice device, String homeButton, String listId) {
+        device.findObject(By.res(BenchmarkAccounts.PACKAGE_NAME, homeButton)).click();
+        UiObject2 list = device.wait(Until.findObject(By.res(BenchmarkAccounts.PACKAGE_NAME, listId)),
+                BenchmarkAccounts.TIMEOUT_MS);
+        list.setGestureMargin(device.getDisplayWidth() / 5);
+        list.fling(Direction.UP);
+        list.fling(Direction.DOWN);
+        device.waitForIdle();
+        device.pressBack();
+        BenchmarkAccounts.waitForHomeScreen(device);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.project.macrobenchmark;
+
+import android.os.Bundle;
+
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+import java.io.IOException;
+
+/**
+ * Signs the app under test in as one of the accounts created by {@code seed-emulator.sh}.
+ *
+ * Signing in goes through the real login screen once per account; afterwards the app starts
+ * straight into the account's home screen from its cached profile, which is the path the startup
+ * benchmarks measure. The credentials can be overridden with the instrumentation arguments
+ * {@code residentEmail}, {@code managerEmail}, {@code password} and {@code buildingCode}.
+ */
+final class BenchmarkAccounts {
+
+    /** Application ID of the app under test */
+    static final String PACKAGE_NAME = "com.example.project";
+
+    /** How long to wait for a screen to appear, in milliseconds */
+    static final long TIMEOUT_MS = 10_000;
+
+    private static Boolean signedInAsManager;
+
+    private BenchmarkAccounts() {
+    }
+
+    /**
+     * Makes sure the app is signed in with the requested role, clearing its data and signing in
+     * through the login screen if a different account (or none) is signed in.
+     *
+     * @param manager {@code true} for the manager account, {@code false} for the resident.
+     */
+    static synchronized void ensureSignedIn(boolean manager) throws IOException {
+        if (signedInAsManager != null && signedInAsManager == manager) {
+            return;
+        }
+        UiDevice device = UiDevice.getInstance(InstrumentationRegistry.getInstrumentation());
+        device.executeShellCommand("pm clear " + PACKAGE_NAME);
+
+        Bundle args = InstrumentationRegistry.getArguments();
+        String email = manager
+                ? args.getString("managerEmail", "manager@bench.test")
+                : args.getString("residentEmail", "resident@bench.test");
+
+        MacrobenchmarkScope scope = new MacrobenchmarkScope(PACKAGE_NAME, true);
+        scope.startActivityAndWait();
+        device.wait(Until.hasObject(By.res(PACKAGE_NAME, "buttonLogin")), TIMEOUT_MS);
+        device.findObject(By.res(PACKAGE_NAME, "editTextEmailLogin")).setText(email);
+        device.findObject(By.res(PACKAGE_NAME, "editTextPasswordLogin"))
+                .setText(args.getString("password", "benchmark"));
+        device.findObject(By.res(PACKAGE_NAME, "editTextBuildingCodeLogin"))
+                .setText(args.getString("buildingCode", "BENCH01"));
+        device.findObject(By.res(PACKAGE_NAME, "buttonLogin")).click();
+        waitForHomeScreen(device);
+        signedInAsManager = manager;
+    }
+
+    /**
+     * Waits until the signed-in user's home screen is shown.
+     *
+     * @param device The device under test.
+     * @return The board button of the home screen.
+     */
+    static UiObject2 waitForHomeScreen(UiDevice device) {
+        UiObject2 board = device.wait(Until.findObject(By.res(PACKAGE_NAME, "buttonBoard")), TIMEOUT_MS);
+        if (board == null) {
+            throw new IllegalStateException("Home screen not shown; are the emulators running and seeded?");
+        }
+        return board;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.project.macrobenchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.FrameTimingMetric;
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * Measures frame timing while flinging the two long lists over the seeded emulator data: the
+ * notification board as a resident and the submitted requests as a manager.
+ *
+ * Opening the screen happens in the setup block, so only the flings are traced.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ScrollBenchmark {
+
+    private static final int ITERATIONS = 5;
+    private static final int FLINGS = 3;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    @Test
+    public void flingBuildingNotifications() throws IOException {
+        BenchmarkAccounts.ensureSignedIn(false);
+        // The board is stacked from the end, so older notifications are above the first screen.
+        measureFling("buttonBoard", "buildingNotificationsRecyclerView", Direction.UP);
+    }
+
+    @Test
+    public void flingSubmittedRequests() throws IOException {
+        BenchmarkAccounts.ensureSignedIn(true);
+        measureFling("buttonForm", "submittedRequestsRecyclerView", Direction.DOWN);
+    }
+
+    private void measureFling(final String homeButton, final String listId, final Direction direction) {
+        benchmarkRule.measureRepeated(
+                BenchmarkAccounts.PACKAGE_NAME,
+                Collections.singletonList(new FrameTimingMetric()),
+                CompilationMode.DEFAULT,
+                StartupMode.WARM,
+                ITERATIONS,
+                scope -> {
+                    openList(scope, homeButton, listId);
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    UiObject2 list = scope.getDevice().findObject(By.res(BenchmarkAccounts.PACKAGE_NAME, listId));
+                    // Keep the gesture away from the system navigation areas.
+                    list.setGestureMargin(scope.getDevice().getDisplayWidth() / 5);
+                    for (int i = 0; i < FLINGS; i++) {
+                        list.fling(direction);
+                    }
+                    list.fling(direction == Direction.UP ? Direction.DOWN : Direction.UP);
+                    scope.getDevice().waitForIdle();
+                    return Unit.INSTANCE;
+                });
+    }
+
+    private static void openList(MacrobenchmarkScope scope, String homeButton, String listId) {
+        scope.startActivityAndWait();
+        UiDevice device = scope.getDevice();
+        BenchmarkAccounts.waitForHomeScreen(device);
+        device.findObject(By.res(BenchmarkAccounts.PACKAGE_NAME, homeButton)).click();
+        // Wait until the list is populated, not just laid out.
+        device.wait(Until.hasObject(By.res(BenchmarkAccounts.PACKAGE_NAME, listId).hasChild(By.depth(1))),
+                BenchmarkAccounts.TIMEOUT_MS);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.project.macrobenchmark;
+
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import kotlin.Unit;
+
+/**
+ * Measures cold, warm and hot startup from the launcher through {@code LoginActivity} into the
+ * resident ({@code MainActivity}) and manager ({@code ManagerActivity}) home screens.
+ *
+ * Each iteration ends once the home screen's buttons are on screen, so {@code timeToFullDisplay}
+ * covers the redirect out of {@code LoginActivity} as well. Cold starts are measured twice: with
+ * the baseline profile ({@code Partial}) and without any ahead-of-time compilation ({@code None}),
+ * to show what the profile buys. Run once more with {@code -PminifyRelease=false} to compare
+ * against an unshrunk release.
+ */
+@RunWith(Parameterized.class)
+public class StartupBenchmark {
+
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    private final StartupMode startupMode;
+    private final CompilationMode compilationMode;
+    private final boolean manager;
+
+    /**
+     * @return Every startup mode for both roles, plus uncompiled cold starts.
+     */
+    @Parameterized.Parameters(name = "{0}_{1}_manager={2}")
+    public static List<Object[]> parameters() {
+        List<Object[]> parameters = new ArrayList<>();
+        for (boolean manager : new boolean[]{false, true}) {
+            parameters.add(new Object[]{StartupMode.COLD, new CompilationMode.Partial(), manager});
+            parameters.add(new Object[]{StartupMode.COLD, new CompilationMode.None(), manager});
+            parameters.add(new Object[]{StartupMode.WARM, new CompilationMode.Partial(), manager});
+            parameters.add(new Object[]{StartupMode.HOT, new CompilationMode.Partial(), manager});
+        }
+        return parameters;
+    }
+
+    public StartupBenchmark(StartupMode startupMode, CompilationMode compilationMode, boolean manager) {
+        this.startupMode = startupMode;
+        this.compilationMode = compilationMode;
+        this.manager = manager;
+    }
+
+    @Before
+    public void signIn() throws IOException {
+        BenchmarkAccounts.ensureSignedIn(manager);
+    }
+
+    @Test
+    public void startup() {
+        benchmarkRule.measureRepeated(
+                BenchmarkAccounts.PACKAGE_NAME,
+                Collections.singletonList(new StartupTimingMetric()),
+                compilationMode,
+                startupMode,
+                ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait();
+                    BenchmarkAccounts.waitForHomeScreen(scope.getDevice());
+                    return Unit.INSTANCE;
+                });
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.project.migration;
+
+import com.example.project.RecordSchema;
+
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Rewrites an exported Realtime Database JSON (the root export of the Firebase console or
+ * {@code firebase database:get /}) from record schema v1 to v2 and reports the bytes saved.
+ *
+ * Notifications, help requests and open-request index entries are compacted with
+ * {@link RecordSchema#compact}, using the publisher profiles found under {@code users} in the
+ * same export. Everything else is copied unchanged, and running the tool on its own output
+ * changes nothing. Sizes are measured on the compact JSON serialization of each tree, which is
+ * what clients download and cache.
+ *
+ * Usage: {@code MigrateToV2 <export.json> <output.json>}
+ */
+public final class MigrateToV2 {
+
+    private static final String USERS = "users";
+    private static final String NOTIFICATIONS = "building_notifications";
+    private static final String REQUESTS = "help_requests";
+    private static final String OPEN_REQUESTS_INDEX = "open_help_requests";
+
+    /**
+     * Record count and compact JSON size of one tree before and after the migration.
+     */
+    public static final class Section {
+        public int records;
+        public long bytesBefore;
+        public long bytesAfter;
+
+        long saved() {
+            return bytesBefore - bytesAfter;
+        }
+    }
+
+    private MigrateToV2() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: MigrateToV2 <export.json> <output.json>");
+            System.exit(2);
+        }
+        Path input = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+
+        Map<String, Object> root = new JSONObject(new String(Files.readAllBytes(input), StandardCharsets.UTF_8)).toMap();
+        Map<String, Section> report = migrate(root);
+        Files.write(output, new JSONObject(root).toString().getBytes(StandardCharsets.UTF_8));
+
+        print(report, System.out);
+    }
+
+    /**
+     * Compacts every record of the export in place.
+     *
+     * @param root The whole exported database.
+     * @return The size of each migrated tree before and after, in migration order.
+     */
+    public static Map<String, Section> migrate(Map<String, Object> root) {
+        Map<?, ?> users = asMap(root.get(USERS));
+        Map<String, Section> report = new LinkedHashMap<>();
+        report.put(NOTIFICATIONS, migrateBuildings(asMap(root.get(NOTIFICATIONS)), users));
+        report.put(REQUESTS, migrateBuildings(asMap(root.get(REQUESTS)), users));
+
+        Section index = new Section();
+        Map<?, ?> entries = asMap(root.get(OPEN_REQUESTS_INDEX));
+        index.bytesBefore = size(entries);
+        index.records = compactAll(entries, users, true);
+        index.bytesAfter = size(entries);
+        report.put(OPEN_REQUESTS_INDEX, index);
+        return report;
+    }
+
+    private static Section migrateBuildings(Map<?, ?> buildings, Map<?, ?> users) {
+        Section section = new Section();
+        section.bytesBefore = size(buildings);
+        for (Object records : buildings.values()) {
+            section.records += compactAll(asMap(records), users, false);
+        }
+        section.bytesAfter = size(buildings);
+        return section;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compactAll(Map<?, ?> records, Map<?, ?> users, boolean indexEntries) {
+        int count = 0;
+        for (Object value : records.values()) {
+            if (!(value instanceof Map)) {
+                continue;
+            }
+            Map<String, Object> record = (Map<String, Object>) value;
+            Map<?, ?> profile = asMap(users.get(record.get(RecordSchema.PUBLISHER_ID)));
+            RecordSchema.compact(record, string(profile.get(RecordSchema.FULL_NAME)),
+                    string(profile.get(RecordSchema.APARTMENT_NUMBER)), indexEntries);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Prints one line per tree and a total.
+     */
+    static void print(Map<String, Section> report, PrintStream out) {
+        Section total = new Section();
+        for (Map.Entry<String, Section> entry : report.entrySet()) {
+            Section section = entry.getValue();
+            out.println(line(entry.getKey(), section));
+            total.records += section.records;
+            total.bytesBefore += section.bytesBefore;
+            total.bytesAfter += section.bytesAfter;
+        }
+        out.println(line("total", total));
+    }
+
+    static String line(String name, Section section) {
+        double percent = section.bytesBefore > 0 ? 100.0 * section.saved() / section.bytesBefore : 0;
+        return String.format(Locale.ROOT, "%-22s %7d records %,12d -> %,12d bytes  saved %,d (%.1f%%)",
+                name, section.records, section.bytesBefore, section.bytesAfter, section.saved(), percent);
+    }
+
+    private static long size(Map<?, ?> tree) {
+        return tree.isEmpty() ? 0 : new JSONObject(tree).toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static Map<?, ?> asMap(Object value) {
+        return value instanceof Map ? (Map<?, ?>) value : new LinkedHashMap<>();
+    }
+
+    private static String string(Object value) {
+        return value != null ? value.toString() : null;
+    }
+}
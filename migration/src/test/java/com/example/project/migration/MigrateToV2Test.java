@@ -0,0 +1,102 @@
+package com.example.project.migration;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link MigrateToV2}.
+ */
+public class MigrateToV2Test {
+
+    private static final String EXPORT = "{"
+            + "\"users\":{\"uid1\":{\"fullName\":\"דייר\",\"apartmentNumber\":\"4\",\"buildingCode\":\"B1\"}},"
+            + "\"building_notifications\":{\"B1\":{\"n1\":{\"publisherId\":\"uid1\",\"fullName\":\"דייר\","
+            + "\"apartmentNumber\":\"4\",\"content\":\"תוכן\",\"date\":\"01/01/2025\",\"time\":\"10:00\","
+            + "\"timestamp\":1735725600000}}},"
+            + "\"help_requests\":{\"B1\":{\"r1\":{\"publisherId\":\"uid1\",\"fullName\":\"שם אחר\","
+            + "\"apartmentNumber\":\"4\",\"content\":\"תוכן\",\"date\":\"01/01/2025\",\"time\":\"10:00\","
+            + "\"timestamp\":1735725600000,\"isOpen\":true,\"buildingCode\":\"B1\"}}},"
+            + "\"open_help_requests\":{\"r1\":{\"publisherId\":\"uid1\",\"fullName\":\"שם אחר\","
+            + "\"apartmentNumber\":\"4\",\"content\":\"תוכן\",\"date\":\"01/01/2025\",\"time\":\"10:00\","
+            + "\"timestamp\":1735725600000,\"isOpen\":true,\"buildingCode\":\"B1\"}}"
+            + "}";
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> child(Map<String, Object> root, String... path) {
+        Map<String, Object> node = root;
+        for (String key : path) {
+            node = (Map<String, Object>) node.get(key);
+        }
+        return node;
+    }
+
+    @Test
+    public void migrate_compactsEveryRecordTree() {
+        Map<String, Object> root = new JSONObject(EXPORT).toMap();
+
+        Map<String, MigrateToV2.Section> report = MigrateToV2.migrate(root);
+
+        Map<String, Object> notification = child(root, "building_notifications", "B1", "n1");
+        assertEquals(3, notification.size());
+        assertEquals("uid1", notification.get("publisherId"));
+
+        Map<String, Object> request = child(root, "help_requests", "B1", "r1");
+        assertEquals("שם אחר", request.get("fullName"));
+        assertFalse(request.containsKey("apartmentNumber"));
+        assertFalse(request.containsKey("buildingCode"));
+        assertFalse(request.containsKey("date"));
+
+        Map<String, Object> indexEntry = child(root, "open_help_requests", "r1");
+        assertEquals("B1", indexEntry.get("buildingCode"));
+        assertEquals("4", indexEntry.get("apartmentNumber"));
+        assertFalse(indexEntry.containsKey("time"));
+
+        assertEquals(1, report.get("building_notifications").records);
+        for (MigrateToV2.Section section : report.values()) {
+            assertTrue(section.bytesAfter < section.bytesBefore);
+        }
+    }
+
+    @Test
+    public void migrate_isIdempotent() {
+        Map<String, Object> root = new JSONObject(EXPORT).toMap();
+        MigrateToV2.migrate(root);
+        String once = new JSONObject(root).toString();
+
+        Map<String, MigrateToV2.Section> report = MigrateToV2.migrate(root);
+
+        assertEquals(once, new JSONObject(root).toString());
+        for (MigrateToV2.Section section : report.values()) {
+            assertEquals(section.bytesBefore, section.bytesAfter);
+        }
+    }
+
+    @Test
+    public void migrate_acceptsPartialExport() {
+        Map<String, MigrateToV2.Section> report = MigrateToV2.migrate(new JSONObject("{\"users\":{}}").toMap());
+
+        assertEquals(0, report.get("help_requests").records);
+        assertEquals(0, report.get("open_help_requests").bytesBefore);
+    }
+
+    @Test
+    public void migrate_keepsDateAndTimeOfNotificationWithConstantTimestamp() {
+        Map<String, Object> root = new JSONObject("{"
+                + "\"users\":{\"uid1\":{\"fullName\":\"דייר\",\"apartmentNumber\":\"4\",\"buildingCode\":\"B1\"}},"
+                + "\"building_notifications\":{\"B1\":{\"n1\":{\"publisherId\":\"uid1\",\"fullName\":\"דייר\","
+                + "\"apartmentNumber\":\"4\",\"content\":\"תוכן\",\"date\":\"01/01/2019\",\"time\":\"10:00\","
+                + "\"timestamp\":1}}}"
+                + "}").toMap();
+
+        MigrateToV2.migrate(root);
+
+        Map<String, Object> notification = child(root, "building_notifications", "B1", "n1");
+        assertEquals("01/01/2019", notification.get("date"));
+        assertEquals("10:00", notification.get("time"));
+        assertFalse(notification.containsKey("fullName"));
+    }
+}